@@ -33,22 +33,10 @@ import net.theelm.sewingmachine.config.SewConfig;
 import java.sql.Connection;
 import java.sql.SQLException;
 
-public class MySQLConnection implements MySQLHost {
-    
-    private Connection conn = null;
+public class MySQLConnection extends MySQLPool {
     
     @Override
-    public Connection getConnection() throws SQLException {
-        /* 
-         * Test if MySQL is still connected
-         */
-        if ( this.conn != null ) {
-            if ( (!this.conn.isClosed()) && this.conn.isValid(5) )
-                return this.conn;
-            if ( !this.conn.isClosed() )
-                this.conn.close();
-        }
-        
+    protected Connection openConnection() throws SQLException {
         /*
          * Create a new connection
          */
@@ -78,7 +66,7 @@ public class MySQLConnection implements MySQLHost {
         // Auto reconnect if closed
         dataSource.setAutoReconnect( true );
         
-        return ( this.conn = dataSource.getConnection() );
+        return dataSource.getConnection();
     }
     
 }
@@ -0,0 +1,68 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.MySQL;
+
+import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.interfaces.SQLFunction;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs database lookups away from the server thread
+ */
+public final class MySQLExecutor {
+    private MySQLExecutor() {}
+    
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setName("Database lookup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * Run a query on the database thread
+     * @param function The query to run against the database host
+     * @return A future that completes on the database thread with the result of the query
+     * @param <R> The type of the result
+     */
+    public static @NotNull <R> CompletableFuture<R> query(@NotNull SQLFunction<MySQLHost, R> function) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return function.apply(CoreMod.getSQL());
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            } finally {
+                CoreMod.releaseSQL();
+            }
+        }, MySQLExecutor.EXECUTOR);
+    }
+}
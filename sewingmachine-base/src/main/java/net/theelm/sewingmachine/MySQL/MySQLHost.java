@@ -25,13 +25,24 @@
 
 package net.theelm.sewingmachine.MySQL;
 
+import org.jetbrains.annotations.NotNull;
+
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 public interface MySQLHost {
     
     Connection getConnection() throws SQLException;
     
+    default @NotNull PreparedStatement prepareStatement(@NotNull String sql) throws SQLException {
+        return this.getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    }
+    default void releaseStatement(@NotNull String sql, @NotNull PreparedStatement stmt) throws SQLException {
+        stmt.close();
+    }
+    
     default MySQLStatement prepare(String preparedStmt) throws SQLException {
         return new MySQLStatement( this, preparedStmt );
     }
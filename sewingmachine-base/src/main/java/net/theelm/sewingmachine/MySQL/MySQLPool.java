@@ -0,0 +1,224 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.MySQL;
+
+import net.theelm.sewingmachine.base.CoreMod;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small connection pool that leases a Connection to each Thread that uses the database,
+ *   so that the logger thread and the server thread don't wait on each other
+ */
+public abstract class MySQLPool implements MySQLHost {
+    // Connections that have sat unused for this long are validated before being handed out
+    private static final long VALIDATE_AFTER = TimeUnit.SECONDS.toNanos(30);
+    private static final int VALIDATE_TIMEOUT = 2;
+    
+    // The maximum number of unleased connections to keep open
+    private static final int MAX_IDLE = 2;
+    
+    private final ThreadLocal<Lease> lease = new ThreadLocal<>();
+    private final Map<Connection, Lease> leases = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Lease> idle = new ConcurrentLinkedDeque<>();
+    
+    /**
+     * Open a brand-new connection to the database
+     * @return The connection
+     * @throws SQLException If the connection could not be created
+     */
+    protected abstract @Nullable Connection openConnection() throws SQLException;
+    
+    @Override
+    public final Connection getConnection() throws SQLException {
+        Lease lease = this.lease();
+        return lease == null ? null : lease.connection;
+    }
+    
+    @Override
+    public final @NotNull PreparedStatement prepareStatement(@NotNull String sql) throws SQLException {
+        Lease lease = this.lease();
+        if (lease == null)
+            throw new SQLException("Could not connect to the database");
+        
+        // Take the statement from the cache so that the same SQL can't be used twice at once
+        PreparedStatement stmt = lease.statements.remove(sql);
+        if (stmt != null && !stmt.isClosed())
+            return stmt;
+        
+        CoreMod.logDebug("Preparing new MySQL statement.");
+        return lease.connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    }
+    
+    @Override
+    public final void releaseStatement(@NotNull String sql, @NotNull PreparedStatement stmt) throws SQLException {
+        if (stmt.isClosed())
+            return;
+        
+        Lease lease = this.leases.get(stmt.getConnection());
+        if (lease == null || lease.statements.containsKey(sql)) {
+            stmt.close();
+            return;
+        }
+        
+        // Reset the statement and keep it for the next use
+        stmt.clearParameters();
+        stmt.clearBatch();
+        lease.statements.put(sql, stmt);
+    }
+    
+    /**
+     * Return the current Threads connection to the pool, for Threads that won't use the database again soon
+     */
+    public final void release() {
+        Lease lease = this.lease.get();
+        if (lease == null)
+            return;
+        
+        this.lease.remove();
+        this.free(lease);
+    }
+    
+    /**
+     * Close all connections in the pool
+     */
+    public final void close() {
+        for (Lease lease : this.leases.values())
+            lease.close();
+        this.leases.clear();
+        this.idle.clear();
+    }
+    
+    public final int getOpenCount() {
+        return this.leases.size();
+    }
+    public final int getIdleCount() {
+        return this.idle.size();
+    }
+    
+    private @Nullable Lease lease() throws SQLException {
+        Lease lease = this.lease.get();
+        
+        // Try the connection already leased by this Thread, otherwise an idle one
+        if (lease != null && this.isUsable(lease))
+            return lease.touch();
+        if (lease != null)
+            this.discard(lease);
+        
+        while ((lease = this.idle.pollFirst()) != null) {
+            if (this.isUsable(lease)) {
+                lease.owner = new WeakReference<>(Thread.currentThread());
+                this.lease.set(lease);
+                return lease.touch();
+            }
+            this.discard(lease);
+        }
+        
+        // Reclaim connections from any Threads that have died before opening another
+        this.reclaim();
+        if ((lease = this.idle.pollFirst()) == null) {
+            Connection connection = this.openConnection();
+            if (connection == null)
+                return null;
+            lease = new Lease(connection);
+            this.leases.put(connection, lease);
+        }
+        
+        lease.owner = new WeakReference<>(Thread.currentThread());
+        this.lease.set(lease);
+        return lease.touch();
+    }
+    
+    private boolean isUsable(@NotNull Lease lease) {
+        try {
+            if (lease.connection.isClosed())
+                return false;
+            
+            // Only do a round-trip to the database if the connection has been sitting around
+            return System.nanoTime() - lease.lastUsed < MySQLPool.VALIDATE_AFTER
+                || lease.connection.isValid(MySQLPool.VALIDATE_TIMEOUT);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    private void reclaim() {
+        for (Lease lease : this.leases.values()) {
+            Thread owner = lease.owner == null ? null : lease.owner.get();
+            if (owner != null && !owner.isAlive())
+                this.free(lease);
+        }
+    }
+    private void free(@NotNull Lease lease) {
+        lease.owner = null;
+        if (this.idle.size() < MySQLPool.MAX_IDLE)
+            this.idle.offerFirst(lease);
+        else this.discard(lease);
+    }
+    private void discard(@NotNull Lease lease) {
+        this.leases.remove(lease.connection);
+        lease.close();
+    }
+    
+    private static final class Lease {
+        private final @NotNull Connection connection;
+        private final @NotNull Map<String, PreparedStatement> statements = new ConcurrentHashMap<>();
+        private @Nullable WeakReference<Thread> owner = null;
+        private long lastUsed;
+        
+        private Lease(@NotNull Connection connection) {
+            this.connection = connection;
+            this.lastUsed = System.nanoTime();
+        }
+        
+        private @NotNull Lease touch() {
+            this.lastUsed = System.nanoTime();
+            return this;
+        }
+        
+        private void close() {
+            try {
+                for (PreparedStatement stmt : this.statements.values())
+                    stmt.close();
+                this.statements.clear();
+                
+                if (!this.connection.isClosed())
+                    this.connection.close();
+            } catch (SQLException e) {
+                CoreMod.logError(e);
+            }
+        }
+    }
+}
@@ -33,11 +33,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.UUID;
 
 public class MySQLStatement implements AutoCloseable {
     
+    private final MySQLHost host;
     private final PreparedStatement stmt;
     
     private final String rawStatement;
@@ -50,11 +50,8 @@ public class MySQLStatement implements AutoCloseable {
     }
     MySQLStatement(MySQLHost host, String preparedStmt, boolean batchMode ) throws SQLException {
         this.rawStatement = preparedStmt;
-        Connection conn = host.getConnection();
-        
-        CoreMod.logDebug( "Preparing new MySQL statement." );
-        
-        this.stmt = conn.prepareStatement( preparedStmt, Statement.RETURN_GENERATED_KEYS );
+        this.host = host;
+        this.stmt = host.prepareStatement( preparedStmt );
         this.batched = batchMode;
     }
     
@@ -99,6 +96,26 @@ public class MySQLStatement implements AutoCloseable {
     public int batchCount() {
         return this.batchCount;
     }
+    public int[] executeBatch() throws SQLException {
+        if ( !this.batched || this.batchCount == 0 )
+            return new int[0];
+        try {
+            
+            return this.stmt.executeBatch();
+            
+        } finally {
+            this.slider = 0;
+            this.batchCount = 0;
+        }
+    }
+    public void clearBatch() throws SQLException {
+        this.stmt.clearBatch();
+        this.slider = 0;
+        this.batchCount = 0;
+    }
+    public Connection getConnection() throws SQLException {
+        return this.stmt.getConnection();
+    }
     
     public ResultSet executeStatement() throws SQLException {
         return this.executeStatement( false );
@@ -133,13 +150,8 @@ public class MySQLStatement implements AutoCloseable {
         if ( this.stmt == null )
             return true;
         try {
-            // Check if connection is still open
-            Connection connection = this.stmt.getConnection();
-            
-            if ( connection.isClosed() | (!connection.isValid( 5 )) )
-                this.stmt.close();
-            
-            return this.stmt.isClosed();
+            // Check if connection is still open (Validity is left to the connection pool)
+            return this.stmt.isClosed() || this.stmt.getConnection().isClosed();
             
         } catch ( SQLException e ) {
             return true;
@@ -148,9 +160,9 @@ public class MySQLStatement implements AutoCloseable {
     public void close() {
         try {
             if ( this.stmt != null ) {
-                // Close the statement
+                // Close the statement (Or return it to the hosts cache)
                 if ( !this.stmt.isClosed() )
-                    this.stmt.close();
+                    this.host.releaseStatement( this.rawStatement, this.stmt );
             }
         } catch ( SQLException e ) {
             CoreMod.logError( e );
@@ -27,47 +27,41 @@ package net.theelm.sewingmachine.MySQL;
 
 import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.utilities.mod.Sew;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
-public class MySQLite implements MySQLHost {
+public class MySQLite extends MySQLPool {
     
-    private Connection conn = null;
+    private final File file;
+    
+    public MySQLite() {
+        this(new File( Sew.getConfDir().getAbsolutePath(), "sqlite.db" ));
+    }
+    public MySQLite(@NotNull File file) {
+        this.file = file;
+    }
     
     @Override
-    public Connection getConnection() throws SQLException {
-        /*
-         * Test if MySQL is still connected
-         */
-        if ( this.conn != null ) {
-            if ( (!this.conn.isClosed()) && this.conn.isValid(5) )
-                return this.conn;
-            if ( !this.conn.isClosed() )
-                this.conn.close();
-        }
-        
+    protected Connection openConnection() throws SQLException {
         /*
          * Create a new connection
          */
         
         try {
-            final File dir = Sew.getConfDir();
-            final File jdbc = new File( dir.getAbsolutePath(), "sqlite.db" );
-            
-            System.out.println( "A.1" );
-            this.conn = DriverManager.getConnection("jdbc:sqlite:" + jdbc.getAbsolutePath());
-            System.out.println( "A.2" );
+            Connection conn = DriverManager.getConnection("jdbc:sqlite:" + this.file.getAbsolutePath());
             
-            if (this.conn != null)
-                System.out.println( this.conn.getMetaData().getDriverName() );
+            if (conn != null)
+                CoreMod.logDebug( "Opened SQLite connection using " + conn.getMetaData().getDriverName() );
             
+            return conn;
         } catch (RuntimeException e) {
             CoreMod.logError( e );
         }
-        return this.conn;
+        return null;
     }
     
 }
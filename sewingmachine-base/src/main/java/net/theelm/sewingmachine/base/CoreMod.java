@@ -34,6 +34,7 @@ import net.minecraft.resource.featuretoggle.FeatureFlags;
 import net.minecraft.screen.ScreenHandlerType;
 import net.theelm.sewingmachine.MySQL.MySQLConnection;
 import net.theelm.sewingmachine.MySQL.MySQLHost;
+import net.theelm.sewingmachine.MySQL.MySQLPool;
 import net.theelm.sewingmachine.MySQL.MySQLStatement;
 import net.theelm.sewingmachine.MySQL.MySQLite;
 import net.theelm.sewingmachine.base.config.SewBaseConfig;
@@ -68,6 +69,7 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -111,6 +113,28 @@ public abstract class CoreMod {
         }
         return CoreMod.MySQL;
     }
+    public static @Nullable MySQLHost getSQLIfOpen() {
+        return CoreMod.MySQL;
+    }
+    
+    /**
+     * Return the current Threads database connection to the pool
+     */
+    public static void releaseSQL() {
+        if (CoreMod.MySQL instanceof MySQLPool pool)
+            pool.release();
+    }
+    
+    /**
+     * Close every connection to the database, when the server stops
+     */
+    public static void closeSQL() {
+        synchronized ( CoreMod.class ) {
+            if (CoreMod.MySQL instanceof MySQLPool pool)
+                pool.close();
+            CoreMod.MySQL = null;
+        }
+    }
     
     public void initialize() {
         // Log that we're starting!
@@ -240,16 +264,21 @@ public abstract class CoreMod {
     protected static boolean initDB() throws SQLException {
         ArrayList<String> tables = new ArrayList<>();
         ArrayList<String> alters = new ArrayList<>();
+        ArrayList<String[]> indexes = new ArrayList<>();
         
         if (( SewConfig.get(SewBaseConfig.LOG_CHUNKS_CLAIMED) || SewConfig.get(SewBaseConfig.LOG_CHUNKS_UNCLAIMED) ) && ( SewConfig.get(SewBaseConfig.LOG_BLOCKS_BREAKING) || SewConfig.get(SewBaseConfig.LOG_BLOCKS_PLACING) )) {
             String blockUpdateEnums = getDatabaseReadyEnumerators( EventLogger.BlockAction.class );
             
             tables.add(
-                "CREATE TABLE IF NOT EXISTS `logging_Blocks` (`blockWorld` int(11) NOT NULL, `blockX` bigint(20) NOT NULL, `blockY` bigint(20) NOT NULL, `blockZ` bigint(20) NOT NULL, `block` blob NOT NULL, `updatedBy` varchar(36) NOT NULL, `updatedEvent` enum(" + blockUpdateEnums + ") NOT NULL, `updatedAt` datetime NOT NULL) ENGINE=InnoDB DEFAULT CHARSET=latin1;"
+                "CREATE TABLE IF NOT EXISTS `logging_Blocks` (`blockWorld` int(11) NOT NULL, `blockX` bigint(20) NOT NULL, `blockY` bigint(20) NOT NULL, `blockZ` bigint(20) NOT NULL, `block` blob NOT NULL, `updatedBy` varchar(36) NOT NULL, `updatedEvent` enum(" + blockUpdateEnums + ") NOT NULL, `updatedAt` datetime NOT NULL, KEY `blockPosition` (`blockWorld`, `blockX`, `blockZ`, `blockY`), KEY `blockUpdatedBy` (`updatedBy`, `updatedAt`)) ENGINE=InnoDB DEFAULT CHARSET=latin1;"
             );
             alters.add(
                 "ALTER TABLE `logging_Blocks` CHANGE `updatedEvent` `updatedEvent` ENUM(" + blockUpdateEnums + ") CHARACTER SET latin1 COLLATE latin1_swedish_ci NOT NULL;"
             );
+            
+            // Indexes matching the lookups of the /blocklog command (For tables created before they were added)
+            indexes.add(new String[]{ "logging_Blocks", "blockPosition", "`blockWorld`, `blockX`, `blockZ`, `blockY`" });
+            indexes.add(new String[]{ "logging_Blocks", "blockUpdatedBy", "`updatedBy`, `updatedAt`" });
         }
         
         for ( String table : tables ) {
@@ -272,6 +301,22 @@ public abstract class CoreMod {
             }
         }
         
+        for (String[] index : indexes) {
+            boolean exists;
+            try (MySQLStatement statement = getSQL().prepare("SELECT COUNT(*) FROM `information_schema`.`STATISTICS` WHERE `TABLE_SCHEMA` = DATABASE() AND `TABLE_NAME` = ? AND `INDEX_NAME` = ?;", false)
+                .addPrepared(index[0])
+                .addPrepared(index[1])) {
+                ResultSet results = statement.executeStatement();
+                exists = results.next() && results.getInt(1) > 0;
+            }
+            
+            if (!exists) {
+                CoreMod.logInfo("Adding database index " + index[1] + " to " + index[0]);
+                getSQL().prepare("ALTER TABLE `" + index[0] + "` ADD INDEX `" + index[1] + "` (" + index[2] + ");", false)
+                    .executeUpdate(true);
+            }
+        }
+        
         return !tables.isEmpty();
     }
     
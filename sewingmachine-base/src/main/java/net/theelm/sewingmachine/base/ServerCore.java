@@ -133,6 +133,9 @@ public final class ServerCore extends CoreMod implements ModInitializer, SewPlug
             CoreMod.logInfo("Error executing MySQL Database setup.");
             
             throw new RuntimeException("Could not connect to database server.", e);
+        } finally {
+            // The server thread doesn't use the database again after setup
+            CoreMod.releaseSQL();
         }
         
         // Update the mod version in config
@@ -33,6 +33,9 @@ import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.minecraft.command.CommandRegistryAccess;
 import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.MySQL.MySQLExecutor;
+import net.theelm.sewingmachine.MySQL.MySQLHost;
+import net.theelm.sewingmachine.MySQL.MySQLPool;
 import net.theelm.sewingmachine.MySQL.MySQLStatement;
 import net.theelm.sewingmachine.base.config.SewBaseConfig;
 import net.theelm.sewingmachine.commands.abstraction.SewCommand;
@@ -40,8 +43,10 @@ import net.theelm.sewingmachine.config.SewConfig;
 import net.theelm.sewingmachine.events.PlayerNameCallback;
 import net.theelm.sewingmachine.interfaces.CommandPredicate;
 import net.theelm.sewingmachine.interfaces.SQLFunction;
+import net.theelm.sewingmachine.protections.logging.EventLogger;
 import net.theelm.sewingmachine.protections.logging.EventLogger.BlockAction;
 import net.theelm.sewingmachine.utilities.CommandUtils;
+import net.theelm.sewingmachine.utilities.FormattingUtils;
 import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
 import net.theelm.sewingmachine.utilities.text.MessageUtils;
 import net.minecraft.command.argument.BlockPosArgumentType;
@@ -49,6 +54,7 @@ import net.minecraft.command.argument.DimensionArgumentType;
 import net.minecraft.command.argument.GameProfileArgumentType;
 import net.minecraft.command.argument.ItemStackArgumentType;
 import net.minecraft.item.Item;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.world.ServerWorld;
@@ -62,15 +68,21 @@ import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.theelm.sewingmachine.utilities.text.TextUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.BiFunction;
 import java.util.function.UnaryOperator;
 
 public final class LoggingCommand implements SewCommand {
+    private static final int PAGE_SIZE = 10;
+    
     @Override
     public void register(@NotNull CommandDispatcher<ServerCommandSource> dispatcher, @NotNull CommandRegistryAccess access) {
         if (( SewConfig.any(SewBaseConfig.LOG_CHUNKS_CLAIMED, SewBaseConfig.LOG_CHUNKS_UNCLAIMED) ) && ( SewConfig.any(SewBaseConfig.LOG_BLOCKS_BREAKING, SewBaseConfig.LOG_BLOCKS_PLACING) )) {
@@ -98,6 +110,9 @@ public final class LoggingCommand implements SewCommand {
                         )
                     )
                 )
+                .then(CommandManager.literal("stats")
+                    .executes(this::getLoggerStats)
+                )
                 .then(CommandManager.literal("by")
                     .then(CommandManager.argument("player", GameProfileArgumentType.gameProfile())
                         .suggests(CommandUtils::getAllPlayerNames)
@@ -127,48 +142,44 @@ public final class LoggingCommand implements SewCommand {
         ServerCommandSource source = context.getSource();
         ServerWorld world = DimensionArgumentType.getDimensionArgument(context, "dimension");
         BlockPos blockPos = BlockPosArgumentType.getBlockPos(context, "pos");
+        String dimension = NbtUtils.worldToTag(world);
         
-        try (MySQLStatement stmt = CoreMod.getSQL().prepare("SELECT `block`, `updatedEvent`, `updatedBy`, `updatedAt` FROM `logging_Blocks` WHERE `blockWorld` = ? AND `blockX` = ? AND `blockY` = ? AND `blockZ` = ? ORDER BY `updatedAt` DESC" + ( limit > 0 ? " LIMIT ?" : "" ) + ";")
-            .addPrepared(NbtUtils.worldToTag(world))
-            .addPrepared(blockPos.getX())
-            .addPrepared(blockPos.getY())
-            .addPrepared(blockPos.getZ())) {
-            
-            // If limit is set
-            if (limit > 0) stmt.addPrepared( limit );
-            
-            // Create the main text object
-            MutableText heading = Text.literal("Block History for ")
-                .formatted(Formatting.YELLOW)
-                .append(MessageUtils.xyzToText( blockPos ));
-            
-            // Append our results
-            Text text = this.executeSQLStatement(heading, stmt, (results -> {
-                // Get the row statement information
-                String blockTranslation = results.getString("block");
-                boolean add = (BlockAction.valueOf(results.getString("updatedEvent")) == BlockAction.PLACE);
-                UUID updatedBy = UUID.fromString(results.getString("updatedBy"));
+        // Create the main text object
+        MutableText heading = Text.literal("Block History for ")
+            .formatted(Formatting.YELLOW)
+            .append(MessageUtils.xyzToText( blockPos ));
+        
+        this.executeSQLStatement(source, heading, host -> {
+            try (MySQLStatement stmt = host.prepare("SELECT `block`, `updatedEvent`, `updatedBy`, `updatedAt` FROM `logging_Blocks` WHERE `blockWorld` = ? AND `blockX` = ? AND `blockZ` = ? AND `blockY` = ? ORDER BY `updatedAt` DESC" + ( limit > 0 ? " LIMIT ?" : "" ) + ";")
+                .addPrepared(dimension)
+                .addPrepared(blockPos.getX())
+                .addPrepared(blockPos.getZ())
+                .addPrepared(blockPos.getY())) {
                 
-                // Add the row text to the main text
-                return Text.literal("\n" + results.getRow() + ". ")
-                    .append(Text.literal( add ? "+ " : "- " ).append(Text.translatable(blockTranslation)).formatted( add ? Formatting.GREEN: Formatting.RED ))
-                    .append(" by ")
-                    .append(TextUtils.mutable(PlayerNameCallback.getName(source.getServer(), updatedBy)).formatted(Formatting.AQUA)
-                        .styled(MessageUtils.simpleHoverText(updatedBy.toString())))
-                    .append("\n     at ")
-                    .append(Text.literal(results.getTimestamp("updatedAt").toString()).formatted(Formatting.GRAY));
-            }));
-            
-            // Send the text to the player
-            source.sendFeedback(
-                () -> text,
-                false
-            );
+                // If limit is set
+                if (limit > 0) stmt.addPrepared( limit );
+                
+                return this.readRows(stmt, results -> new BlockLogRow(
+                    results.getString("block"),
+                    BlockAction.valueOf(results.getString("updatedEvent")),
+                    UUID.fromString(results.getString("updatedBy")),
+                    null,
+                    null,
+                    results.getTimestamp("updatedAt")
+                ));
+            }
+        }, (row, i) -> {
+            boolean add = (row.action() == BlockAction.PLACE);
             
-        } catch (SQLException e) {
-            // SQL statement
-            CoreMod.logError( e );
-        }
+            // Add the row text to the main text
+            return Text.literal("\n" + i + ". ")
+                .append(Text.literal( add ? "+ " : "- " ).append(Text.translatable(row.block())).formatted( add ? Formatting.GREEN: Formatting.RED ))
+                .append(" by ")
+                .append(TextUtils.mutable(PlayerNameCallback.getName(source.getServer(), row.updatedBy())).formatted(Formatting.AQUA)
+                    .styled(MessageUtils.simpleHoverText(row.updatedBy().toString())))
+                .append("\n     at ")
+                .append(Text.literal(row.updatedAt().toString()).formatted(Formatting.GRAY));
+        });
         
         return Command.SINGLE_SUCCESS;
     }
@@ -191,49 +202,48 @@ public final class LoggingCommand implements SewCommand {
         BlockPos centerPos = BlockPosArgumentType.getBlockPos(context, "pos");
         Item item = ItemStackArgumentType.getItemStackArgument(context, "item").getItem();
         String blockTranslation = item.getTranslationKey();
+        String dimension = NbtUtils.worldToTag(world);
         
-        try (MySQLStatement stmt = CoreMod.getSQL().prepare("SELECT `blockX`, `blockY`, `blockZ`, `updatedEvent`, `updatedBy`, `updatedAt` FROM `logging_Blocks` WHERE `blockWorld` = ? AND `block` = ? AND `blockX` >= ? AND `blockX` <= ? AND `blockZ` >= ? AND `blockZ` <= ? ORDER BY `updatedAt` DESC" + ( limit > 0 ? " LIMIT ?" : "" ) + ";")
-            .addPrepared(NbtUtils.worldToTag(world))
-            .addPrepared(blockTranslation)
-            .addPrepared(centerPos.getX() - 8)
-            .addPrepared(centerPos.getX() + 8)
-            .addPrepared(centerPos.getZ() - 8)
-            .addPrepared(centerPos.getZ() + 8)) {
-            
-            // If limit is set
-            if (limit > 0) stmt.addPrepared( limit );
-            
-            // Create the output heading
-            MutableText heading = Text.literal("Block History of ")
-                .formatted(Formatting.YELLOW)
-                .append(Text.translatable( blockTranslation ));
-            
-            // Append our results
-            Text text = this.executeSQLStatement(heading, stmt, (results -> {
-                // Get the row statement information
-                boolean add = (BlockAction.valueOf(results.getString("updatedEvent")) == BlockAction.PLACE);
-                UUID updatedBy = UUID.fromString(results.getString("updatedBy"));
-                UnaryOperator<Style> hoverEvent = (styler) -> styler.withHoverEvent(new HoverEvent(Action.SHOW_TEXT, Text.literal(updatedBy.toString())));
+        // Create the output heading
+        MutableText heading = Text.literal("Block History of ")
+            .formatted(Formatting.YELLOW)
+            .append(Text.translatable( blockTranslation ));
+        
+        this.executeSQLStatement(source, heading, host -> {
+            try (MySQLStatement stmt = host.prepare("SELECT `blockX`, `blockY`, `blockZ`, `updatedEvent`, `updatedBy`, `updatedAt` FROM `logging_Blocks` WHERE `blockWorld` = ? AND `blockX` >= ? AND `blockX` <= ? AND `blockZ` >= ? AND `blockZ` <= ? AND `block` = ? ORDER BY `updatedAt` DESC" + ( limit > 0 ? " LIMIT ?" : "" ) + ";")
+                .addPrepared(dimension)
+                .addPrepared(centerPos.getX() - 8)
+                .addPrepared(centerPos.getX() + 8)
+                .addPrepared(centerPos.getZ() - 8)
+                .addPrepared(centerPos.getZ() + 8)
+                .addPrepared(blockTranslation)) {
                 
-                // Add the row text to the main text
-                return Text.literal("\n" + results.getRow() + ". ")
-                    .append(Text.literal( add ? "+ " : "- " ).append(Text.translatable(blockTranslation)).formatted( add ? Formatting.GREEN: Formatting.RED ))
-                    .append(" by ")
-                    .append(PlayerNameCallback.getPlainName(source.getServer(), updatedBy).formatted(Formatting.AQUA).styled(hoverEvent))
-                    .append("\n     at ")
-                    .append(MessageUtils.xyzToText(new BlockPos(results.getInt("blockX"), results.getInt("blockY"), results.getInt("blockZ"))).formatted(Formatting.GRAY))
-                    .append("\n     at ")
-                    .append(Text.literal(results.getTimestamp("updatedAt").toString()).formatted(Formatting.GRAY));
-            }));
-            
-            // Send the text to the player
-            source.sendFeedback(() -> text, false);
-            
-        } catch (SQLException e) {
-            // SQL statement
-            CoreMod.logError( e );
+                // If limit is set
+                if (limit > 0) stmt.addPrepared( limit );
+                
+                return this.readRows(stmt, results -> new BlockLogRow(
+                    blockTranslation,
+                    BlockAction.valueOf(results.getString("updatedEvent")),
+                    UUID.fromString(results.getString("updatedBy")),
+                    new BlockPos(results.getInt("blockX"), results.getInt("blockY"), results.getInt("blockZ")),
+                    null,
+                    results.getTimestamp("updatedAt")
+                ));
+            }
+        }, (row, i) -> {
+            boolean add = (row.action() == BlockAction.PLACE);
+            UnaryOperator<Style> hoverEvent = (styler) -> styler.withHoverEvent(new HoverEvent(Action.SHOW_TEXT, Text.literal(row.updatedBy().toString())));
             
-        }
+            // Add the row text to the main text
+            return Text.literal("\n" + i + ". ")
+                .append(Text.literal( add ? "+ " : "- " ).append(Text.translatable(row.block())).formatted( add ? Formatting.GREEN: Formatting.RED ))
+                .append(" by ")
+                .append(PlayerNameCallback.getPlainName(source.getServer(), row.updatedBy()).formatted(Formatting.AQUA).styled(hoverEvent))
+                .append("\n     at ")
+                .append(MessageUtils.xyzToText(row.pos()).formatted(Formatting.GRAY))
+                .append("\n     at ")
+                .append(Text.literal(row.updatedAt().toString()).formatted(Formatting.GRAY));
+        });
         
         return Command.SINGLE_SUCCESS;
     }
@@ -254,65 +264,127 @@ public final class LoggingCommand implements SewCommand {
         Collection<GameProfile> gameProfiles = GameProfileArgumentType.getProfileArgument( context, "player" );
         GameProfile player = gameProfiles.stream().findAny().orElseThrow(GameProfileArgumentType.UNKNOWN_PLAYER_EXCEPTION::create);
         
-        try (MySQLStatement stmt = CoreMod.getSQL().prepare("SELECT `block`, `blockX`, `blockY`, `blockZ`, `blockWorld`, `updatedEvent`, `updatedAt` FROM `logging_Blocks` WHERE `updatedBy` = ? ORDER BY `updatedAt` DESC" + ( limit > 0 ? " LIMIT ?" : "" ) + ";")
-            .addPrepared(player.getId().toString())) {
-            
-            // If limit is set
-            if (limit > 0) stmt.addPrepared( limit );
-            
-            // Create the output heading
-            MutableText heading = Text.literal("Block History for " + player.getName())
-                .formatted(Formatting.YELLOW);
-            
-            // Append our results
-            Text text = this.executeSQLStatement(heading, stmt, (results) -> {
-                // Get the row statement information
-                String blockTranslation = results.getString("block");
-                boolean add = (BlockAction.valueOf(results.getString("updatedEvent")) == BlockAction.PLACE);
-                UnaryOperator<Style> hoverEvent = (style) -> style.withHoverEvent(new HoverEvent(Action.SHOW_TEXT, Text.literal(player.getId().toString())));
+        // Create the output heading
+        MutableText heading = Text.literal("Block History for " + player.getName())
+            .formatted(Formatting.YELLOW);
+        
+        this.executeSQLStatement(context.getSource(), heading, host -> {
+            try (MySQLStatement stmt = host.prepare("SELECT `block`, `blockX`, `blockY`, `blockZ`, `blockWorld`, `updatedEvent`, `updatedAt` FROM `logging_Blocks` WHERE `updatedBy` = ? ORDER BY `updatedAt` DESC" + ( limit > 0 ? " LIMIT ?" : "" ) + ";")
+                .addPrepared(player.getId().toString())) {
                 
-                // Add the row text to the main text
-                return Text.literal("\n" + results.getRow() + ". ")
-                    .append(Text.literal( add ? "+ " : "- " ).append(Text.translatable(blockTranslation)).formatted( add ? Formatting.GREEN: Formatting.RED ))
-                    .append(" by ")
-                    .append(Text.literal(player.getName()).formatted(Formatting.AQUA).styled(hoverEvent))
-                    .append("\n     at ")
-                    .append(MessageUtils.xyzToText(new BlockPos(results.getInt("blockX"), results.getInt("blockY"), results.getInt("blockZ")), new Identifier(results.getString("blockWorld"))).formatted(Formatting.GRAY))
-                    .append("\n     at ")
-                    .append(Text.literal(results.getTimestamp("updatedAt").toString()).formatted(Formatting.GRAY));
-            });
-            
-            // Send the text to the player
-            context.getSource().sendFeedback(() -> text, false);
+                // If limit is set
+                if (limit > 0) stmt.addPrepared( limit );
+                
+                return this.readRows(stmt, results -> new BlockLogRow(
+                    results.getString("block"),
+                    BlockAction.valueOf(results.getString("updatedEvent")),
+                    player.getId(),
+                    new BlockPos(results.getInt("blockX"), results.getInt("blockY"), results.getInt("blockZ")),
+                    new Identifier(results.getString("blockWorld")),
+                    results.getTimestamp("updatedAt")
+                ));
+            }
+        }, (row, i) -> {
+            boolean add = (row.action() == BlockAction.PLACE);
+            UnaryOperator<Style> hoverEvent = (style) -> style.withHoverEvent(new HoverEvent(Action.SHOW_TEXT, Text.literal(player.getId().toString())));
             
-        } catch (SQLException e) {
-            // SQL statement
-            CoreMod.logError( e );
+            // Add the row text to the main text
+            return Text.literal("\n" + i + ". ")
+                .append(Text.literal( add ? "+ " : "- " ).append(Text.translatable(row.block())).formatted( add ? Formatting.GREEN: Formatting.RED ))
+                .append(" by ")
+                .append(Text.literal(player.getName()).formatted(Formatting.AQUA).styled(hoverEvent))
+                .append("\n     at ")
+                .append(MessageUtils.xyzToText(row.pos(), row.world()).formatted(Formatting.GRAY))
+                .append("\n     at ")
+                .append(Text.literal(row.updatedAt().toString()).formatted(Formatting.GRAY));
+        });
+        
+        return Command.SINGLE_SUCCESS;
+    }
+    
+    private int getLoggerStats(@NotNull CommandContext<ServerCommandSource> context) {
+        MutableText text = Text.literal("Block Logger")
+            .formatted(Formatting.YELLOW)
+            .append(Text.literal("\n  Waiting: ").formatted(Formatting.GRAY))
+            .append(Text.literal(FormattingUtils.format(EventLogger.getQueueDepth())).formatted(Formatting.AQUA))
+            .append(Text.literal("\n  Queued: ").formatted(Formatting.GRAY))
+            .append(Text.literal(FormattingUtils.format(EventLogger.getQueued())).formatted(Formatting.AQUA))
+            .append(Text.literal("\n  Flushed: ").formatted(Formatting.GRAY))
+            .append(Text.literal(FormattingUtils.format(EventLogger.getFlushed())).formatted(Formatting.GREEN))
+            .append(Text.literal("\n  Dropped: ").formatted(Formatting.GRAY))
+            .append(Text.literal(FormattingUtils.format(EventLogger.getDropped())).formatted(Formatting.RED));
         
+        // Show how many database connections are being kept
+        if (CoreMod.getSQLIfOpen() instanceof MySQLPool pool) {
+            text.append(Text.literal("\n  Connections: ").formatted(Formatting.GRAY))
+                .append(Text.literal(FormattingUtils.format(pool.getOpenCount())).formatted(Formatting.AQUA))
+                .append(Text.literal(" (" + FormattingUtils.format(pool.getIdleCount()) + " idle)").formatted(Formatting.GRAY));
         }
         
+        context.getSource().sendFeedback(() -> text, false);
+        
         return Command.SINGLE_SUCCESS;
     }
     
-    private Text executeSQLStatement(@NotNull MutableText text, @NotNull MySQLStatement stmt, @NotNull SQLFunction<ResultSet, Text> function) throws SQLException {
-        ArrayList<Text> list = new ArrayList<>();
+    /**
+     * Run the query on the database thread, and send the results back to the source in pages on the server thread
+     * @param source The command source to send results to
+     * @param heading The heading to send before the results
+     * @param query The query to run, returning rows ordered newest first
+     * @param format Converts a row and its position into Text, called on the server thread
+     */
+    private void executeSQLStatement(@NotNull ServerCommandSource source, @NotNull MutableText heading, @NotNull SQLFunction<MySQLHost, List<BlockLogRow>> query, @NotNull BiFunction<BlockLogRow, Integer, Text> format) {
+        MinecraftServer server = source.getServer();
+        
+        MySQLExecutor.query(query)
+            .thenAcceptAsync(rows -> {
+                source.sendFeedback(() -> heading, false);
+                
+                // Send the oldest rows first so that the newest end up at the bottom of chat
+                int i = rows.size();
+                while (i > 0) {
+                    int end = i;
+                    int start = Math.max(0, i - LoggingCommand.PAGE_SIZE);
+                    server.execute(() -> {
+                        MutableText page = Text.literal("");
+                        for (int row = end; row-- > start; )
+                            page.append(format.apply(rows.get(row), row + 1));
+                        if (start == 0)
+                            page.append("\nDone.");
+                        source.sendFeedback(() -> page, false);
+                    });
+                    i = start;
+                }
+                
+                if (rows.isEmpty())
+                    source.sendFeedback(() -> Text.literal("Done."), false);
+            }, server)
+            .exceptionally(throwable -> {
+                // SQL statement
+                CoreMod.logError( throwable );
+                server.execute(() -> source.sendError(Text.literal("Could not read the block history.")));
+                return null;
+            });
+    }
+    private @NotNull List<BlockLogRow> readRows(@NotNull MySQLStatement stmt, @NotNull SQLFunction<ResultSet, BlockLogRow> function) throws SQLException {
+        List<BlockLogRow> list = new ArrayList<>();
         
         // Execute the statement
         ResultSet results = stmt.executeStatement();
         
         // For all of the rows
-        int i = 0;
-        while (results.next()) {
-            // Add the row text to the main text
+        while (results.next())
             list.add(function.apply( results ));
-        }
-        
-        // Add the rows
-        for ( i = list.size(); i-- > 0; ) {
-            text.append(list.get(i));
-        }
         
-        return text.append("\nDone.");
+        return list;
     }
     
+    private record BlockLogRow(
+        @NotNull String block,
+        @NotNull BlockAction action,
+        @NotNull UUID updatedBy,
+        @Nullable BlockPos pos,
+        @Nullable Identifier world,
+        @NotNull Timestamp updatedAt
+    ) {}
 }
@@ -96,6 +96,9 @@ public class SewBaseConfig {
     public static final ConfigOption<EventLogger.LoggingIntervals> LOG_RESET_INTERVAL = new ConfigOption<>("logging.reset.interval", EventLogger.LoggingIntervals.DAY, SewConfig::getAsTimeInterval);
     public static final ConfigOption<Long> LOG_RESET_TIME = ConfigOption.json("logging.reset.time", 7L);
     public static final ConfigOption<Integer> LOG_VIEW_OP_LEVEL = ConfigOption.json("logging.read.op_level", 1);
+    public static final ConfigOption<Integer> LOG_BATCH_SIZE = ConfigOption.json("logging.batch.size", 250, 1, 10000);
+    public static final ConfigOption<Integer> LOG_BATCH_DELAY = ConfigOption.json("logging.batch.delay_ms", 1000, 0, 60000);
+    public static final ConfigOption<Integer> LOG_QUEUE_LIMIT = ConfigOption.json("logging.batch.queue_limit", 100000, 1, Integer.MAX_VALUE);
     
     /*
      * Starting items
@@ -197,6 +200,8 @@ public class SewBaseConfig {
      * Miscellaneous
      */
     
+    public static final ConfigOption<Integer> TICKABLE_BUDGET = ConfigOption.json("server.tickables.budget_ms", 5, 1, 1000);
+    
     public static final ConfigOption<Map<Item, Integer>> ITEM_DESPAWN_TIMES = new ConfigOption<>("server.items.despawn", new HashMap<>(), SewConfig::getItemDespawnMap);
     
     public static final ConfigOption<Boolean> OVERWORLD_PORTAL_LOC = ConfigOption.json("fun.world.portal_fix.overworld", false);
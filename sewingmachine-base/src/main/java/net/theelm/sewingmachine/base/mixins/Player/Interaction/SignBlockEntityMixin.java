@@ -33,6 +33,7 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.world.World;
 import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.base.objects.ShopSign;
+import net.theelm.sewingmachine.interfaces.ShopRecipes;
 import net.theelm.sewingmachine.interfaces.ShopSignData;
 import net.theelm.sewingmachine.utilities.InventoryUtils;
 import net.theelm.sewingmachine.utilities.ShopSignBuilder;
@@ -57,7 +58,6 @@ import net.minecraft.nbt.NbtElement;
 import net.minecraft.recipe.CraftingRecipe;
 import net.minecraft.recipe.Recipe;
 import net.minecraft.recipe.RecipeManager;
-import net.minecraft.recipe.RecipeType;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
@@ -72,10 +72,8 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 
 @Mixin(SignBlockEntity.class)
@@ -97,7 +95,6 @@ public abstract class SignBlockEntityMixin extends BlockEntity implements ShopSi
     
     // Item being traded
     private @Nullable Identifier shopSign_item = null;
-    private @Nullable List<Identifier> shopSign_itemRecipes = null;
     private final @NotNull Map<Enchantment, Integer> shopSign_itemEnchants = Maps.newLinkedHashMap();
     
     // Price / Count of item transactioning
@@ -165,7 +162,6 @@ public abstract class SignBlockEntityMixin extends BlockEntity implements ShopSi
     @Override
     public boolean setItem(@NotNull ItemStack stack) {
         this.shopSign_item = Registries.ITEM.getId(stack.getItem());
-        this.shopSign_itemRecipes = null;
         this.shopSign_itemEnchants.clear();
         this.shopSign_itemEnchants.putAll(EnchantmentHelper.get(stack));
         return !Items.AIR.equals(stack.getItem());
@@ -184,29 +180,12 @@ public abstract class SignBlockEntityMixin extends BlockEntity implements ShopSi
     
     @Override
     public @Nullable List<? extends Recipe<?>> getShopItemRecipes() {
-        if (this.shopSign_itemRecipes == null)
-            this.shopSign_itemRecipes = this.findValidShopItemRecipes();
-        if (this.shopSign_itemRecipes.isEmpty())
-            return null;
         RecipeManager recipeManager = this.getRecipeManager();
-        if (recipeManager == null)
+        Item item = this.getShopItem();
+        if (recipeManager == null || item == null)
             return null;
-        return this.shopSign_itemRecipes.stream()
-            .map(recipeManager::get)
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .toList();
-    }
-    private @NotNull List<Identifier> findValidShopItemRecipes() {
-        RecipeManager recipeManager = this.getRecipeManager();
-        if (recipeManager == null || this.shopSign_item == null)
-            return Collections.emptyList();
-        return recipeManager.listAllOfType(RecipeType.CRAFTING)
-            .stream()
-            .filter(recipe -> this.shopSign_item.equals(Registries.ITEM.getId(recipe.getOutput(null).getItem())))
-            .filter(recipe -> recipe.getIngredients().size() == 1)
-            .map(CraftingRecipe::getId)
-            .toList();
+        List<CraftingRecipe> recipes = ((ShopRecipes) recipeManager).getShopRecipes(item);
+        return recipes.isEmpty() ? null : recipes;
     }
     private @Nullable RecipeManager getRecipeManager() {
         if (this.world == null)
@@ -295,7 +274,6 @@ public abstract class SignBlockEntityMixin extends BlockEntity implements ShopSi
             // Update the parameters here from the builder
             this.shopSign_Owner = builder.getShopOwner();
             this.shopSign_item = builder.getShopItemIdentifier();
-            this.shopSign_itemRecipes = null;
             
             // Copy the enchantments to the sign from the builder
             this.shopSign_itemEnchants.clear();
@@ -363,7 +341,6 @@ public abstract class SignBlockEntityMixin extends BlockEntity implements ShopSi
                         this.shopSign_item = new Identifier(signItem = (tag.getString("shop_item_mod") + ":" + tag.getString("shop_item_name")));
                     } else if (tag.contains("shop_item", NbtElement.STRING_TYPE))
                         this.shopSign_item = new Identifier(signItem = tag.getString("shop_item"));
-                    this.shopSign_itemRecipes = null;
                 } catch (InvalidIdentifierException e) {
                     CoreMod.logError("Invalid item identifier \"" + signItem + "\" for shop sign.", e);
                 }
@@ -33,6 +33,7 @@ import net.theelm.sewingmachine.interfaces.BackpackCarrier;
 import net.theelm.sewingmachine.events.BlockPlaceCallback;
 import net.theelm.sewingmachine.interfaces.MoneyHolder;
 import net.theelm.sewingmachine.interfaces.PlayerData;
+import net.theelm.sewingmachine.objects.MoneyLedger;
 import net.theelm.sewingmachine.base.objects.PlayerBackpack;
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.enchantment.Enchantments;
@@ -199,6 +200,13 @@ public abstract class PlayerEntityMixin extends LivingEntity implements MoneyHol
         if (tag.contains(MoneyHolder.SAVE_KEY, NbtElement.NUMBER_TYPE))
             this.dataTracker.set( MONEY, tag.getInt( MoneyHolder.SAVE_KEY ) );
         
+        // Take any changes made to the balance while the player was offline
+        if ((Object) this instanceof ServerPlayerEntity) {
+            Integer ledgered = MoneyLedger.get().reconcile(this.getUuid());
+            if (ledgered != null)
+                this.dataTracker.set( MONEY, ledgered );
+        }
+        
         // Read the players backpack
         if (tag.contains("BackpackSize", NbtElement.NUMBER_TYPE) && tag.contains("Backpack", NbtElement.LIST_TYPE)) {
             this.backpack = new PlayerBackpack((PlayerEntity)(LivingEntity)this, tag.getInt("BackpackSize"));
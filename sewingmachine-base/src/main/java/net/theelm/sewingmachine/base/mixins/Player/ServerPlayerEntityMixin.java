@@ -38,6 +38,7 @@ import net.theelm.sewingmachine.interfaces.ModUser;
 import net.theelm.sewingmachine.interfaces.MoneyHolder;
 import net.theelm.sewingmachine.interfaces.PlayerData;
 import net.theelm.sewingmachine.interfaces.PlayerServerLanguage;
+import net.theelm.sewingmachine.objects.WarpIndex;
 import net.theelm.sewingmachine.utilities.EffectUtils;
 import net.theelm.sewingmachine.utilities.EntityUtils;
 import net.theelm.sewingmachine.utilities.SleepUtils;
@@ -373,7 +374,10 @@ public abstract class ServerPlayerEntityMixin extends PlayerEntity implements Pl
     @Inject(at = @At("TAIL"), method = "writeCustomDataToNbt")
     public void onSavingData(@NotNull NbtCompound tag, CallbackInfo callback) {
         // Save the player warp location for restarts
-        tag.put("playerWarps", WarpUtils.toNBT(this.warps));
+        NbtCompound warps = WarpUtils.toNBT(this.warps);
+        tag.put("playerWarps", warps);
+        WarpIndex.get()
+            .update(this.getUuid(), warps);
         
         // Store the first joined-at time
         if ( this.firstJoinedAt != null )
@@ -394,6 +398,8 @@ public abstract class ServerPlayerEntityMixin extends PlayerEntity implements Pl
     @Inject(at = @At("TAIL"), method = "readCustomDataFromNbt")
     public void onReadingData(@NotNull NbtCompound tag, CallbackInfo callback) {
         this.warps.putAll(WarpUtils.fromNBT(tag));
+        WarpIndex.get()
+            .update(this.getUuid(), WarpUtils.toNBT(this.warps));
         
         // Get when first joined
         if (tag.contains("FirstJoinedAtTime", NbtElement.LONG_TYPE))
@@ -32,12 +32,11 @@ import net.theelm.sewingmachine.base.config.SewBaseConfig;
 import net.theelm.sewingmachine.config.SewConfig;
 import net.theelm.sewingmachine.events.PlayerNameCallback;
 import net.theelm.sewingmachine.interfaces.MotdFunction;
-import net.theelm.sewingmachine.utilities.CasingUtils;
-import net.theelm.sewingmachine.utilities.FormattingUtils;
+import net.theelm.sewingmachine.interfaces.StatusCache;
 import net.theelm.sewingmachine.utilities.ServerVariables;
+import net.theelm.sewingmachine.utilities.text.TextTemplate;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.ServerMetadata;
-import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import org.apache.commons.lang3.Validate;
 import org.jetbrains.annotations.NotNull;
@@ -58,20 +57,31 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Mixin(MinecraftServer.class)
-public abstract class MinecraftServerMixin {
+public abstract class MinecraftServerMixin implements StatusCache {
+    private static final @Unique long STATUS_REFRESH = TimeUnit.SECONDS.toMillis(15);
+    
     @Shadow public abstract boolean shouldEnforceSecureProfile();
+    @Shadow public abstract int getCurrentPlayerCount();
     @Shadow protected abstract ServerMetadata.Players createMetadataPlayers();
     @Shadow @Final private Random random;
     
     @Shadow private @Nullable String motd;
     private final @Unique List<byte[]> base64 = new ArrayList<>();
-    private final @Unique List<String> motds = new ArrayList<>();
+    private final @Unique List<TextTemplate> motds = new ArrayList<>();
+    
+    // The last status, reused until players join or leave, the MOTD changes, or it gets old
+    private @Unique @Nullable ServerMetadata status = null;
+    private @Unique long statusBuiltAt = 0L;
+    private @Unique int statusMotd = -1;
+    private @Unique int statusPlayers = -1;
+    private @Unique volatile boolean statusStale = true;
+    private final @Unique AtomicLong statusHits = new AtomicLong();
+    private final @Unique AtomicLong statusMisses = new AtomicLong();
     
     @Inject(at = @At("RETURN"), method = "<init> *")
     public void onConstruct(@NotNull CallbackInfo callback) {
@@ -106,29 +116,56 @@ public abstract class MinecraftServerMixin {
     
     @Inject(at = @At("HEAD"), method = "createMetadata", cancellable = true)
     public void onCreateMetadata(CallbackInfoReturnable<ServerMetadata> callback) {
-        ServerMetadata metadata = new ServerMetadata(
-            this.getCustomMotd(),
+        long now = System.currentTimeMillis();
+        int motd = this.getMotdIndex(now);
+        int players = this.getCurrentPlayerCount();
+        
+        // Reuse the last status if nothing has changed
+        ServerMetadata metadata = this.status;
+        if (
+            metadata != null
+            && !this.statusStale
+            && motd == this.statusMotd
+            && players == this.statusPlayers
+            && now - this.statusBuiltAt < MinecraftServerMixin.STATUS_REFRESH
+        ) {
+            this.statusHits.incrementAndGet();
+            callback.setReturnValue(metadata);
+            return;
+        }
+        
+        this.statusMisses.incrementAndGet();
+        this.statusStale = false;
+        metadata = new ServerMetadata(
+            this.getCustomMotd(motd),
             Optional.of(this.createMetadataPlayers()), // Players
             Optional.of(ServerMetadata.Version.create()), // Version
             Optional.ofNullable(this.getCustomFavicon()), // Favicon
             this.shouldEnforceSecureProfile()
         );
         
+        this.status = metadata;
+        this.statusBuiltAt = now;
+        this.statusMotd = motd;
+        this.statusPlayers = players;
+        
         callback.setReturnValue(metadata);
     }
     
-    private @Nullable Text getCustomMotd() {
+    private int getMotdIndex(long now) {
+        if (this.motds.isEmpty())
+            return -1;
+        
+        // Cycle the MOTD every 10 seconds
+        int i = this.motds.size() == 1 ? 0 : (int) ((now / 10000) % this.motds.size());
+        return Integer.min(this.motds.size() - 1, i);
+    }
+    private @Nullable Text getCustomMotd(int index) {
         // Get MOTDs and if empty, cancel
-        if (!this.motds.isEmpty()) {
-            // Cycle the MOTD every 10 seconds
-            int i = this.motds.size() == 1 ? 0 : (int) ((System.currentTimeMillis() / 10000) % this.motds.size());
-            int clamp = Integer.min(this.motds.size() - 1, i);
-            
+        if (index >= 0) {
             // Get the formatted MOTD
-            //String raw = this.descriptionReplaceVariables(this.motds.get(clamp));
-            String raw = this.motds.get(clamp);
-            if (raw != null)
-                return FormattingUtils.visitVariables(raw, this::descriptionReplaceVariables);
+            return this.motds.get(index)
+                .render(this::descriptionReplaceVariable);
         }
         
         // Fallback to the default assigned from the server properties
@@ -163,43 +200,45 @@ public abstract class MinecraftServerMixin {
     }
     
     private void refreshMotd() {
+        // Parse the MOTDs once instead of every time the server is pinged
+        List<TextTemplate> motds = new ArrayList<>();
+        for (String motd : SewConfig.get(SewBaseConfig.SERVER_MOTD_LIST))
+            motds.add(TextTemplate.compile(motd));
+        Collections.shuffle(motds);
+        
         this.motds.clear();
-        this.motds.addAll(SewConfig.get(SewBaseConfig.SERVER_MOTD_LIST));
-        Collections.shuffle(this.motds);
+        this.motds.addAll(motds);
+        this.markStatusStale();
     }
     
-    private String descriptionReplaceVariables(@NotNull MutableText text, @Nullable String description) {
-        if (description != null) {
-            MinecraftServer server = ((MinecraftServer)(Object) this);
+    @Override
+    public long getStatusHits() {
+        return this.statusHits.get();
+    }
+    @Override
+    public long getStatusMisses() {
+        return this.statusMisses.get();
+    }
+    @Override
+    public void markStatusStale() {
+        this.statusStale = true;
+    }
+    
+    private @Nullable Text descriptionReplaceVariable(@NotNull TextTemplate.Slot slot) {
+        MotdFunction function = ServerVariables.get(slot.key());
+        if (function == null)
+            return null;
+        
+        try {
+            String val = function.parseVar((MinecraftServer)(Object) this);
+            if (val == null)
+                return null;
             
-            // For all keys
-            for (Map.Entry<String, MotdFunction> row : ServerVariables.entrySet()) {
-                // If description contains
-                Pattern pattern = Pattern.compile("\\$\\{(" + row.getKey() + "[\\^_]{0,2})}");
-                Matcher matcher = pattern.matcher(description);
-                
-                while (matcher.find()) {
-                    String key = matcher.group(1);
-                    String val;
-                    try {
-                        val = row.getValue().parseVar(server);
-                        if (val == null) continue;
-                        
-                        // Change val casing
-                        if (key.endsWith("__"))
-                            val = CasingUtils.lower(val);
-                        else if (key.endsWith("^^"))
-                            val = CasingUtils.upper(val);
-                        else if (key.endsWith("^"))
-                            val = CasingUtils.words(val);
-                        
-                    } catch (Exception e) { CoreMod.logError(new Exception("Error in MOTD variable \"" + row.getKey() + "\"", e)); return null; }
-                    
-                    // Replace
-                    description = description.replace("${" + key + "}", val);
-                }
-            }
+            // Change val casing
+            return Text.literal(slot.casing().apply(val));
+        } catch (Exception e) {
+            CoreMod.logError(new Exception("Error in MOTD variable \"" + slot.key() + "\"", e));
+            return null;
         }
-        return description;
     }
 }
@@ -29,10 +29,13 @@ import com.google.common.collect.ImmutableList;
 import net.minecraft.registry.Registry;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.RegistryKeys;
+import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.base.config.SewBaseConfig;
 import net.theelm.sewingmachine.config.SewConfig;
 import net.theelm.sewingmachine.objects.DynamicLevelProperties;
+import net.theelm.sewingmachine.objects.MoneyLedger;
 import net.theelm.sewingmachine.objects.SewModules;
+import net.theelm.sewingmachine.objects.WarpIndex;
 import net.theelm.sewingmachine.protections.logging.EventLogger;
 import net.theelm.sewingmachine.utilities.DimensionUtils;
 import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
@@ -59,6 +62,7 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import java.util.Collections;
 import java.util.Iterator;
@@ -146,6 +150,20 @@ public abstract class MinecraftServerMixin2 extends ReentrantThreadExecutor<Serv
         return worlds;
     }
     
+    /**
+     * Fold the offline balance journal into its snapshot when the server saves
+     * @param callback Mixin Callback
+     */
+    @Inject(at = @At("RETURN"), method = "save")
+    public void onSave(boolean silent, boolean flush, boolean force, @NotNull CallbackInfoReturnable<Boolean> callback) {
+        MoneyLedger ledger = MoneyLedger.getIfOpen();
+        if (ledger != null)
+            ledger.snapshot();
+        WarpIndex warps = WarpIndex.getIfOpen();
+        if (warps != null)
+            warps.snapshot();
+    }
+    
     /**
      * 
      * @param callback Mixin Callback
@@ -153,6 +171,9 @@ public abstract class MinecraftServerMixin2 extends ReentrantThreadExecutor<Serv
     @Inject(at = @At("TAIL"), method = "shutdown")
     public void shutdown(CallbackInfo callback) {
         EventLogger.stop();
+        CoreMod.closeSQL();
+        MoneyLedger.stop();
+        WarpIndex.stop();
     }
     
 }
@@ -31,6 +31,7 @@ import net.minecraft.server.PlayerManager;
 import net.theelm.sewingmachine.base.config.SewBaseConfig;
 import net.theelm.sewingmachine.config.SewConfig;
 import net.theelm.sewingmachine.base.objects.WanderingTraderPacket;
+import net.theelm.sewingmachine.interfaces.StatusCache;
 import net.theelm.sewingmachine.utilities.DimensionUtils;
 import net.theelm.sewingmachine.utilities.EntityUtils;
 import net.theelm.sewingmachine.utilities.InventoryUtils;
@@ -66,6 +67,9 @@ public abstract class PlayerManagerMixin {
     public void afterOnPlayerConnect(ClientConnection connection, ServerPlayerEntity player, CallbackInfo callback) {
         TeamUtils.applyTeams(player);
         
+        // Show the new player in the server list
+        ((StatusCache) this.server).markStatusStale();
+        
         // Get the world that the wandering trader spawns in
         ServerWorld world = this.server.getWorld(SewConfig.get(SewBaseConfig.WANDERING_TRADER_FORCE_SPAWN_WORLD));
         if (world != null) {
@@ -77,6 +81,14 @@ public abstract class PlayerManagerMixin {
         }
     }
     
+    /**
+     * Remove players from the server list when they leave
+     */
+    @Inject(at = @At("RETURN"), method = "remove")
+    public void afterRemove(ServerPlayerEntity player, CallbackInfo callback) {
+        ((StatusCache) this.server).markStatusStale();
+    }
+    
     @Inject(at = @At("HEAD"), method = "setMainWorld", cancellable = true)
     public void beforeSetMainWorld(ServerWorld world, CallbackInfo callback) {
         if (!SewConfig.get(SewBaseConfig.WORLD_SPECIFIC_WORLD_BORDER))
@@ -34,6 +34,7 @@ import net.theelm.sewingmachine.config.SewConfig;
 import net.theelm.sewingmachine.interfaces.LogicalWorld;
 import net.theelm.sewingmachine.interfaces.TickableContext;
 import net.theelm.sewingmachine.objects.DetachedTickableContext;
+import net.theelm.sewingmachine.objects.TickableScheduler;
 import net.theelm.sewingmachine.utilities.CasingUtils;
 import net.theelm.sewingmachine.utilities.IntUtils;
 import net.theelm.sewingmachine.utilities.TitleUtils;
@@ -53,19 +54,13 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import java.text.NumberFormat;
-import java.util.ArrayDeque;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 @Mixin(ServerWorld.class)
 public abstract class ServerWorldMixin extends World implements LogicalWorld, ServerWorldAccess {
-    private final @NotNull Queue<DetachedTickableContext> detachedTickableQueue = new ArrayDeque<>();
-    private final @NotNull List<DetachedTickableContext> detachedEvents = new LinkedList<>();
+    private final @NotNull TickableScheduler tickableScheduler = new TickableScheduler((ServerWorld)(Object) this);
 
     protected ServerWorldMixin(MutableWorldProperties properties, RegistryKey<World> registryRef, DynamicRegistryManager registryManager, RegistryEntry<DimensionType> dimensionEntry, Supplier<Profiler> profiler, boolean isClient, boolean debugWorld, long biomeAccess, int maxChainedNeighborUpdates) {
         super(properties, registryRef, registryManager, dimensionEntry, profiler, isClient, debugWorld, biomeAccess, maxChainedNeighborUpdates);
@@ -91,19 +86,7 @@ public abstract class ServerWorldMixin extends World implements LogicalWorld, Se
     
     @Inject(at = @At("RETURN"), method = "tickTime")
     public void onWorldTick(@NotNull CallbackInfo callback) {
-        // Move any items from the queue
-        DetachedTickableContext tickable;
-        while ((tickable = this.detachedTickableQueue.poll()) != null)
-            this.detachedEvents.add(tickable);
-        
-        // Iterate over the items in the event list
-        Iterator<DetachedTickableContext> iterator = this.detachedEvents.iterator();
-        while (iterator.hasNext()) {
-            tickable = iterator.next();
-            tickable.tick();
-            if (tickable.isRemoved())
-                iterator.remove();
-        }
+        this.tickableScheduler.tick();
     }
     
     @Inject(at = @At("TAIL"), method = "save")
@@ -121,8 +104,11 @@ public abstract class ServerWorldMixin extends World implements LogicalWorld, Se
     
     @Override
     public @NotNull DetachedTickableContext addTickableEvent(@NotNull Predicate<TickableContext> predicate) {
-        DetachedTickableContext tickable = new DetachedTickableContext((ServerWorld)(World) this, predicate);
-        this.detachedTickableQueue.add(tickable);
-        return tickable;
+        return this.tickableScheduler.submit(predicate);
+    }
+    
+    @Override
+    public @NotNull TickableScheduler getTickableScheduler() {
+        return this.tickableScheduler;
     }
 }
@@ -43,11 +43,15 @@ import net.theelm.sewingmachine.config.SewConfig;
 import net.theelm.sewingmachine.enums.OpLevels;
 import net.theelm.sewingmachine.enums.PermissionNodes;
 import net.theelm.sewingmachine.interfaces.CommandPredicate;
+import net.theelm.sewingmachine.interfaces.LogicalWorld;
 import net.theelm.sewingmachine.interfaces.SewPlugin;
 import net.theelm.sewingmachine.interfaces.ShopSignData;
+import net.theelm.sewingmachine.interfaces.StatusCache;
 import net.theelm.sewingmachine.objects.SewModules;
+import net.theelm.sewingmachine.objects.TickableScheduler;
 import net.theelm.sewingmachine.utilities.BlockUtils;
 import net.theelm.sewingmachine.utilities.CommandUtils;
+import net.theelm.sewingmachine.utilities.FormattingUtils;
 import net.theelm.sewingmachine.utilities.GuideUtils;
 import net.theelm.sewingmachine.utilities.InventoryUtils;
 import net.theelm.sewingmachine.utilities.text.MessageUtils;
@@ -99,6 +103,14 @@ public final class ModCommands implements SewCommand {
                         .executes(this::reloadConfig)
                     )
                 )
+                .then(CommandManager.literal("status")
+                    .requires(CommandPredicate.opLevel(OpLevels.STOP).or(PermissionNodes.ALL_PERMISSIONS))
+                    .executes(this::statusCacheInfo)
+                )
+                .then(CommandManager.literal("tickables")
+                    .requires(CommandPredicate.opLevel(OpLevels.STOP).or(PermissionNodes.ALL_PERMISSIONS))
+                    .executes(this::tickableInfo)
+                )
                 .then(CommandManager.literal("shops")
                     .requires(CommandPredicate.opLevel(OpLevels.CHEATING).or(PermissionNodes.ADMIN_CLAIM_SHOPS))
                     .then(CommandManager.literal("change")
@@ -174,6 +186,54 @@ public final class ModCommands implements SewCommand {
         }
     }
     
+    private int statusCacheInfo(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        StatusCache cache = (StatusCache) source.getServer();
+        
+        long hits = cache.getStatusHits();
+        long misses = cache.getStatusMisses();
+        source.sendFeedback(
+            () -> Text.literal("Server list status was reused ").formatted(Formatting.YELLOW)
+                .append(Text.literal(FormattingUtils.format(hits)).formatted(Formatting.AQUA))
+                .append(" times and rebuilt ")
+                .append(Text.literal(FormattingUtils.format(misses)).formatted(Formatting.AQUA))
+                .append(" times."),
+            false
+        );
+        return Command.SINGLE_SUCCESS;
+    }
+    
+    private int tickableInfo(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        
+        for (ServerWorld world : source.getServer().getWorlds()) {
+            TickableScheduler scheduler = ((LogicalWorld) world).getTickableScheduler();
+            MutableText text = Text.literal(world.getRegistryKey().getValue().toString()).formatted(Formatting.YELLOW)
+                .append(Text.literal(": ").formatted(Formatting.WHITE))
+                .append(Text.literal(FormattingUtils.format(scheduler.getReady())).formatted(Formatting.AQUA))
+                .append(Text.literal(" ready, ").formatted(Formatting.WHITE))
+                .append(Text.literal(FormattingUtils.format(scheduler.getSleeping())).formatted(Formatting.AQUA))
+                .append(Text.literal(" waiting, held back ").formatted(Formatting.WHITE))
+                .append(Text.literal(FormattingUtils.format(scheduler.getDeferred())).formatted(Formatting.AQUA))
+                .append(Text.literal(" times over ").formatted(Formatting.WHITE))
+                .append(Text.literal(FormattingUtils.format(scheduler.getOverBudget())).formatted(Formatting.AQUA))
+                .append(Text.literal(" ticks").formatted(Formatting.WHITE));
+            
+            scheduler.getCounters().forEach((type, counters) -> text.append("\n  ")
+                .append(Text.literal(type).formatted(Formatting.GOLD))
+                .append(Text.literal(": " + FormattingUtils.format(counters.getRuns()) + " runs, "
+                    + FormattingUtils.format(counters.getCompleted()) + " completed, avg "
+                    + ModCommands.millis(counters.getNanos() / Math.max(1L, counters.getRuns())) + ", max "
+                    + ModCommands.millis(counters.getMaxNanos())).formatted(Formatting.WHITE)));
+            
+            source.sendFeedback(() -> text, false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+    private static @NotNull String millis(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000.0D);
+    }
+    
     private int shopSignChangeOwner(@NotNull CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
         ServerCommandSource source = context.getSource();
         Entity entity = source.getEntityOrThrow();
@@ -0,0 +1,64 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.events;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.server.world.ServerWorld;
+import net.theelm.sewingmachine.protections.BlockRange;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Called before checking if a region can be claimed, to read anything that the check needs without blocking the server thread
+ */
+@FunctionalInterface
+public interface RegionLookupCallback {
+    Event<RegionLookupCallback> HANDLER = EventFactory.createArrayBacked(
+        RegionLookupCallback.class,
+        (world, region) -> CompletableFuture.completedFuture(null),
+        (listeners) -> (world, region) -> {
+            CompletableFuture<?>[] futures = new CompletableFuture[listeners.length];
+            for (int i = 0; i < listeners.length; i++)
+                futures[i] = listeners[i].prepare(world, region);
+            return CompletableFuture.allOf(futures);
+        }
+    );
+    
+    /**
+     * @param world The world of the region
+     * @param region The region that is going to be checked
+     * @return A future that is completed once {@link RegionManageCallback#canClaim}
+     *         can answer for the region without reading from the disk
+     */
+    @NotNull CompletableFuture<Void> prepare(@NotNull ServerWorld world, @NotNull BlockRange region);
+    
+    static @NotNull CompletableFuture<Void> lookup(@NotNull ServerWorld world, @NotNull BlockRange region) {
+        return RegionLookupCallback.HANDLER.invoker()
+            .prepare(world, region);
+    }
+}
@@ -26,6 +26,7 @@
 package net.theelm.sewingmachine.interfaces;
 
 import net.theelm.sewingmachine.objects.DetachedTickableContext;
+import net.theelm.sewingmachine.objects.TickableScheduler;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.function.Predicate;
@@ -33,5 +34,6 @@ import java.util.function.Predicate;
 public interface LogicalWorld {
     
     @NotNull DetachedTickableContext addTickableEvent(@NotNull Predicate<TickableContext> predicate);
+    @NotNull TickableScheduler getTickableScheduler();
     
 }
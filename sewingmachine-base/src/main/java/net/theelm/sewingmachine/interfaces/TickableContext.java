@@ -39,4 +39,10 @@ public interface TickableContext {
     
     int getTicks();
     boolean isRemoved();
+    
+    /**
+     * Don't run again until a number of ticks have passed, instead of checking {@link #getTicks()} every tick
+     * @param ticks The number of ticks to wait
+     */
+    void delay(int ticks);
 }
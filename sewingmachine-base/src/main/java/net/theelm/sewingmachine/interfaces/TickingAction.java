@@ -25,9 +25,11 @@
 
 package net.theelm.sewingmachine.interfaces;
 
+import net.theelm.sewingmachine.enums.TickablePriority;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.UUID;
 import java.util.function.Predicate;
 
 /**
@@ -37,6 +39,21 @@ import java.util.function.Predicate;
 @FunctionalInterface
 public interface TickingAction extends Predicate<TickableContext> {
     boolean isCompleted(@NotNull TickableContext tickable);
+    
+    /**
+     * @return The priority that the action is run at
+     */
+    default @NotNull TickablePriority getPriority() {
+        return TickablePriority.NORMAL;
+    }
+    
+    /**
+     * @return Who the action is being run for, actions for different owners take turns
+     */
+    default @Nullable UUID getTickableOwner() {
+        return null;
+    }
+    
     @Override
     default boolean test(@Nullable TickableContext tickable) {
         if (tickable == null)
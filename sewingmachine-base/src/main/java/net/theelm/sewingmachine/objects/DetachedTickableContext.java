@@ -28,8 +28,12 @@ package net.theelm.sewingmachine.objects;
 import net.theelm.sewingmachine.interfaces.TickableContext;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.world.ServerWorld;
+import net.theelm.sewingmachine.enums.TickablePriority;
+import net.theelm.sewingmachine.interfaces.TickingAction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.UUID;
 import java.util.function.Predicate;
 
 /**
@@ -39,12 +43,25 @@ import java.util.function.Predicate;
 public final class DetachedTickableContext implements TickableContext {
     private final @NotNull ServerWorld world;
     private final @NotNull Predicate<TickableContext> predicate;
+    private final @NotNull TickablePriority priority;
+    private final @Nullable UUID owner;
     private int ticks = 0;
-    private boolean removed = false;
+    private volatile boolean removed = false;
+    
+    // Set by the predicate while it runs, read by the scheduler afterwards
+    private int delay = 0;
+    private long due = 0L;
     
     public DetachedTickableContext(@NotNull ServerWorld world, @NotNull Predicate<TickableContext> predicate) {
         this.world = world;
         this.predicate = predicate;
+        if (predicate instanceof TickingAction action) {
+            this.priority = action.getPriority();
+            this.owner = action.getTickableOwner();
+        } else {
+            this.priority = TickablePriority.NORMAL;
+            this.owner = null;
+        }
     }
     
     public void tick() {
@@ -54,6 +71,18 @@ public final class DetachedTickableContext implements TickableContext {
         this.ticks++;
     }
     
+    public @NotNull Predicate<TickableContext> getPredicate() {
+        return this.predicate;
+    }
+    
+    public @NotNull TickablePriority getPriority() {
+        return this.priority;
+    }
+    
+    public @Nullable UUID getOwner() {
+        return this.owner;
+    }
+    
     @Override
     public @NotNull MinecraftServer getServer() {
         return (this.world).getServer();
@@ -73,4 +102,25 @@ public final class DetachedTickableContext implements TickableContext {
     public boolean isRemoved() {
         return this.removed;
     }
+    
+    @Override
+    public void delay(int ticks) {
+        this.delay = Math.max(0, ticks);
+    }
+    
+    /**
+     * @return The delay that was requested during the last tick, which is then cleared
+     */
+    int takeDelay() {
+        int delay = this.delay;
+        this.delay = 0;
+        return delay;
+    }
+    
+    long getDue() {
+        return this.due;
+    }
+    void setDue(long due) {
+        this.due = due;
+    }
 }
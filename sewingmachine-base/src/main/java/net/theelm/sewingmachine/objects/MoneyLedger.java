@@ -0,0 +1,272 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.objects;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.exceptions.NbtNotFoundException;
+import net.theelm.sewingmachine.interfaces.MoneyHolder;
+import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The balances of players that are not online. Balances are read from the players data once, and
+ *   every change after that is appended to a journal instead of rewriting the players data file.
+ *   The journal is folded into a snapshot once it grows, or when the server saves.
+ *   Players take their balance back from the ledger when they log in.
+ */
+public final class MoneyLedger {
+    private static final String SNAPSHOT = "balances.dat";
+    private static final String JOURNAL = "balances.journal";
+    private static final String RELEASED = "-";
+    
+    // How many journal entries to keep before writing a new snapshot
+    private static final int SNAPSHOT_AFTER = 1024;
+    
+    private static @Nullable MoneyLedger INSTANCE = null;
+    
+    private final @NotNull File folder;
+    private final @NotNull Map<UUID, Integer> balances = new HashMap<>();
+    
+    private @Nullable Writer journal = null;
+    private int journaled = 0;
+    
+    private MoneyLedger(@NotNull File folder) {
+        this.folder = folder;
+        this.load();
+    }
+    
+    /*
+     * Balances
+     */
+    
+    public synchronized int getBalance(@NotNull UUID uuid) throws NbtNotFoundException {
+        Integer balance = this.balances.get(uuid);
+        if (balance == null) {
+            // Read the balance from the players data only the first time
+            NbtCompound tag = NbtUtils.readOfflinePlayerData(uuid);
+            this.balances.put(uuid, balance = tag.getInt(MoneyHolder.SAVE_KEY));
+        }
+        return balance;
+    }
+    public synchronized boolean setBalance(@NotNull UUID uuid, int amount) throws NbtNotFoundException {
+        if (amount < 0)
+            return false;
+        
+        // If balance is unchanged, don't attempt saving
+        if (amount != this.getBalance(uuid))
+            this.update(uuid, amount);
+        return true;
+    }
+    public synchronized boolean give(@NotNull UUID uuid, int amount) throws NbtNotFoundException {
+        int balance = this.getBalance(uuid);
+        long updateTo = (long) balance + amount;
+        if (updateTo > Integer.MAX_VALUE)
+            return false;
+        
+        // If balance is unchanged, don't attempt saving
+        if (updateTo != balance)
+            this.update(uuid, (int) updateTo);
+        return true;
+    }
+    public synchronized boolean take(@NotNull UUID uuid, int amount) throws NbtNotFoundException {
+        int balance = this.getBalance(uuid);
+        long updateTo = (long) balance - amount;
+        if (updateTo < Integer.MIN_VALUE)
+            return false;
+        
+        // If balance is unchanged, don't attempt saving
+        if (updateTo != balance)
+            this.update(uuid, (int) updateTo);
+        return true;
+    }
+    
+    /*
+     * Logging in
+     */
+    
+    /**
+     * Get the balance that a player had while they were offline
+     * @param uuid The player that is logging in
+     * @return The balance from the ledger, or NULL if their player data is up-to-date
+     */
+    public synchronized @Nullable Integer reconcile(@NotNull UUID uuid) {
+        return this.balances.get(uuid);
+    }
+    
+    /**
+     * Forget the balance of a player once their player data has been written with it
+     * @param uuid The player that was saved
+     */
+    public synchronized void release(@NotNull UUID uuid) {
+        if (this.balances.remove(uuid) != null)
+            this.append(uuid, MoneyLedger.RELEASED);
+    }
+    
+    /*
+     * Journal
+     */
+    
+    private void update(@NotNull UUID uuid, int balance) {
+        this.balances.put(uuid, balance);
+        this.append(uuid, Integer.toString(balance));
+    }
+    private void append(@NotNull UUID uuid, @NotNull String value) {
+        try {
+            if (this.journal == null)
+                this.journal = new BufferedWriter(new FileWriter(new File(this.folder, MoneyLedger.JOURNAL), true));
+            this.journal.write(uuid + " " + value + "\n");
+            this.journal.flush();
+        } catch (IOException e) {
+            CoreMod.logError("Failed to write to the balance journal", e);
+        }
+        
+        if (++this.journaled >= MoneyLedger.SNAPSHOT_AFTER)
+            this.snapshot();
+    }
+    
+    /**
+     * Write every balance to the snapshot and start a new journal
+     */
+    public synchronized void snapshot() {
+        if (this.journaled == 0)
+            return;
+        
+        NbtCompound tag = new NbtCompound();
+        for (Map.Entry<UUID, Integer> entry : this.balances.entrySet())
+            tag.putInt(entry.getKey().toString(), entry.getValue());
+        
+        // Keep the journal if the snapshot can't be written
+        if ((!this.folder.exists() && !this.folder.mkdirs()) || !NbtUtils.writeBackupAndMove(new File(this.folder, MoneyLedger.SNAPSHOT), tag))
+            return;
+        
+        try {
+            if (this.journal != null)
+                this.journal.close();
+            this.journal = new BufferedWriter(new FileWriter(new File(this.folder, MoneyLedger.JOURNAL), false));
+            this.journaled = 0;
+        } catch (IOException e) {
+            CoreMod.logError("Failed to reset the balance journal", e);
+        }
+    }
+    
+    private void load() {
+        if (!this.folder.exists() && !this.folder.mkdirs())
+            CoreMod.logError("Could not create the balance ledger folder \"" + this.folder.getAbsolutePath() + "\"");
+        
+        // Read the last snapshot
+        File snapshot = new File(this.folder, MoneyLedger.SNAPSHOT);
+        if (snapshot.exists()) {
+            try {
+                NbtCompound tag = NbtIo.readCompressed(snapshot);
+                for (String key : tag.getKeys()) {
+                    if (tag.contains(key, NbtElement.NUMBER_TYPE))
+                        this.balances.put(UUID.fromString(key), tag.getInt(key));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                CoreMod.logError("Failed to read the balance snapshot", e);
+            }
+        }
+        
+        // Replay the journal on top of the snapshot
+        File journal = new File(this.folder, MoneyLedger.JOURNAL);
+        if (journal.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(journal))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] split = line.split(" ");
+                    if (split.length != 2)
+                        continue;
+                    try {
+                        UUID uuid = UUID.fromString(split[0]);
+                        if (MoneyLedger.RELEASED.equals(split[1]))
+                            this.balances.remove(uuid);
+                        else this.balances.put(uuid, Integer.parseInt(split[1]));
+                        this.journaled++;
+                    } catch (IllegalArgumentException ignored) {
+                        // A partially written line from a crash
+                    }
+                }
+            } catch (IOException e) {
+                CoreMod.logError("Failed to read the balance journal", e);
+            }
+        }
+        
+        if (!this.balances.isEmpty())
+            CoreMod.logInfo("Loaded " + this.balances.size() + " offline balances.");
+    }
+    
+    private synchronized void close() {
+        this.snapshot();
+        try {
+            if (this.journal != null)
+                this.journal.close();
+        } catch (IOException e) {
+            CoreMod.logError(e);
+        }
+        this.journal = null;
+    }
+    
+    /*
+     * Instance
+     */
+    
+    public static synchronized @NotNull MoneyLedger get() {
+        File folder = new File(NbtUtils.levelNameFolder().toAbsolutePath().toFile(), SewModules.MODULE);
+        
+        // Open a new ledger if the world has changed
+        if (MoneyLedger.INSTANCE == null || !MoneyLedger.INSTANCE.folder.equals(folder)) {
+            if (MoneyLedger.INSTANCE != null)
+                MoneyLedger.INSTANCE.close();
+            MoneyLedger.INSTANCE = new MoneyLedger(folder);
+        }
+        
+        return MoneyLedger.INSTANCE;
+    }
+    public static synchronized @Nullable MoneyLedger getIfOpen() {
+        return MoneyLedger.INSTANCE;
+    }
+    public static synchronized void stop() {
+        if (MoneyLedger.INSTANCE != null) {
+            MoneyLedger.INSTANCE.close();
+            MoneyLedger.INSTANCE = null;
+        }
+    }
+}
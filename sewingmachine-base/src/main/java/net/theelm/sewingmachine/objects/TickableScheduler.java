@@ -0,0 +1,253 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.objects;
+
+import net.minecraft.server.world.ServerWorld;
+import net.theelm.sewingmachine.base.config.SewBaseConfig;
+import net.theelm.sewingmachine.config.SewConfig;
+import net.theelm.sewingmachine.enums.TickablePriority;
+import net.theelm.sewingmachine.interfaces.TickableContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Runs the tickable events of a world within a time budget each tick. Events run by priority, events of
+ *   different owners take turns, and events that asked to be delayed wait without being polled.
+ */
+public final class TickableScheduler {
+    private final @NotNull ServerWorld world;
+    
+    // Events can be submitted from any thread, they're only moved into the schedule on the world thread
+    private final @NotNull Queue<DetachedTickableContext> submitted = new ConcurrentLinkedQueue<>();
+    private final @NotNull Map<TickablePriority, RoundRobin> ready = new EnumMap<>(TickablePriority.class);
+    private final @NotNull PriorityQueue<DetachedTickableContext> sleeping = new PriorityQueue<>(Comparator.comparingLong(DetachedTickableContext::getDue));
+    private final @NotNull List<DetachedTickableContext> ran = new ArrayList<>();
+    
+    private final @NotNull Map<String, Counters> counters = new HashMap<>();
+    private long tick = 0L;
+    private long deferred = 0L;
+    private long overBudget = 0L;
+    
+    public TickableScheduler(@NotNull ServerWorld world) {
+        this.world = world;
+        for (TickablePriority priority : TickablePriority.values())
+            this.ready.put(priority, new RoundRobin());
+    }
+    
+    /**
+     * Add a new event, safe to call from any thread
+     * @param predicate The event, which returns TRUE once it has completed
+     * @return The context of the event
+     */
+    public @NotNull DetachedTickableContext submit(@NotNull Predicate<TickableContext> predicate) {
+        DetachedTickableContext tickable = new DetachedTickableContext(this.world, predicate);
+        this.submitted.add(tickable);
+        return tickable;
+    }
+    
+    public void tick() {
+        this.tick++;
+        
+        // Move any new events and any events that are done waiting into the schedule
+        DetachedTickableContext tickable;
+        while ((tickable = this.submitted.poll()) != null)
+            this.schedule(tickable);
+        while ((tickable = this.sleeping.peek()) != null && tickable.getDue() <= this.tick)
+            this.schedule(this.sleeping.poll());
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SewConfig.get(SewBaseConfig.TICKABLE_BUDGET));
+        boolean exceeded = false;
+        
+        for (TickablePriority priority : TickablePriority.values()) {
+            RoundRobin queue = this.ready.get(priority);
+            boolean first = true;
+            
+            while ((tickable = queue.peek()) != null) {
+                // Always let one event of each priority through, so that nothing waits forever
+                if (!first && priority != TickablePriority.HIGH && System.nanoTime() >= deadline) {
+                    this.deferred += queue.size();
+                    exceeded = true;
+                    break;
+                }
+                first = false;
+                
+                queue.poll();
+                this.run(tickable);
+            }
+        }
+        
+        if (exceeded)
+            this.overBudget++;
+        
+        // Events that ran go back to the end of their owners turn, or to sleep
+        for (DetachedTickableContext ran : this.ran) {
+            if (ran.isRemoved())
+                continue;
+            int delay = ran.takeDelay();
+            if (delay > 1) {
+                ran.setDue(this.tick + delay);
+                this.sleeping.add(ran);
+            } else this.schedule(ran);
+        }
+        this.ran.clear();
+    }
+    
+    private void run(@NotNull DetachedTickableContext tickable) {
+        Counters counters = this.counters.computeIfAbsent(TickableScheduler.typeOf(tickable.getPredicate()), type -> new Counters());
+        
+        long start = System.nanoTime();
+        tickable.tick();
+        counters.add(System.nanoTime() - start, tickable.isRemoved());
+        
+        this.ran.add(tickable);
+    }
+    
+    private void schedule(@NotNull DetachedTickableContext tickable) {
+        if (!tickable.isRemoved())
+            this.ready.get(tickable.getPriority())
+                .add(tickable);
+    }
+    
+    /*
+     * Profiling
+     */
+    
+    public int getReady() {
+        int ready = 0;
+        for (RoundRobin queue : this.ready.values())
+            ready += queue.size();
+        return ready;
+    }
+    public int getSleeping() {
+        return this.sleeping.size();
+    }
+    public long getDeferred() {
+        return this.deferred;
+    }
+    public long getOverBudget() {
+        return this.overBudget;
+    }
+    public @NotNull Map<String, Counters> getCounters() {
+        return Collections.unmodifiableMap(this.counters);
+    }
+    
+    private static @NotNull String typeOf(@NotNull Predicate<TickableContext> predicate) {
+        String name = predicate.getClass().getName();
+        
+        // Group lambdas by the class that created them
+        int lambda = name.indexOf("$$Lambda");
+        if (lambda > 0)
+            name = name.substring(0, lambda) + " (lambda)";
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+    
+    public static final class Counters {
+        private long runs = 0L;
+        private long completed = 0L;
+        private long nanos = 0L;
+        private long maxNanos = 0L;
+        
+        private void add(long nanos, boolean completed) {
+            this.runs++;
+            this.nanos += nanos;
+            if (nanos > this.maxNanos)
+                this.maxNanos = nanos;
+            if (completed)
+                this.completed++;
+        }
+        
+        public long getRuns() {
+            return this.runs;
+        }
+        public long getCompleted() {
+            return this.completed;
+        }
+        public long getNanos() {
+            return this.nanos;
+        }
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+    }
+    
+    /**
+     * Queues of events for each owner, that take turns giving up one event at a time
+     */
+    private static final class RoundRobin {
+        private final @NotNull Map<UUID, ArrayDeque<DetachedTickableContext>> owners = new HashMap<>();
+        private final @NotNull ArrayDeque<ArrayDeque<DetachedTickableContext>> turns = new ArrayDeque<>();
+        private int size = 0;
+        
+        public void add(@NotNull DetachedTickableContext tickable) {
+            ArrayDeque<DetachedTickableContext> queue = this.owners.get(tickable.getOwner());
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                this.owners.put(tickable.getOwner(), queue);
+                this.turns.add(queue);
+            }
+            queue.add(tickable);
+            this.size++;
+        }
+        
+        public @Nullable DetachedTickableContext peek() {
+            ArrayDeque<DetachedTickableContext> queue = this.turns.peek();
+            return queue == null ? null : queue.peek();
+        }
+        
+        public @Nullable DetachedTickableContext poll() {
+            ArrayDeque<DetachedTickableContext> queue = this.turns.poll();
+            if (queue == null)
+                return null;
+            DetachedTickableContext tickable = queue.poll();
+            this.size--;
+            
+            // Go to the back of the line, or leave it
+            if (queue.isEmpty())
+                this.owners.remove(tickable.getOwner());
+            else this.turns.add(queue);
+            return tickable;
+        }
+        
+        public int size() {
+            return this.size;
+        }
+    }
+}
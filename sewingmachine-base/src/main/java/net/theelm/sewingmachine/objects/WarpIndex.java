@@ -0,0 +1,268 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.objects;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.util.WorldSavePath;
+import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.utilities.WarpUtils;
+import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The warps of every player that has been seen, so that offline players warps can be looked up
+ *   without reading their player data. Entries are updated whenever a players data is read or written,
+ *   and the index is written to its own file when the server saves.
+ * 
+ * Players that aren't in the index yet are read from their player data on a background thread,
+ *   starting with every player that is missing when the index is opened.
+ */
+public final class WarpIndex {
+    private static final String SNAPSHOT = "warps.dat";
+    
+    private static @Nullable WarpIndex INSTANCE = null;
+    
+    private final @NotNull File folder;
+    private final @NotNull File players;
+    private final @NotNull ExecutorService executor;
+    private final @NotNull Map<UUID, NbtCompound> tags = new HashMap<>();
+    private final @NotNull Map<UUID, Map<String, WarpUtils.Warp>> warps = new HashMap<>();
+    private final @NotNull Set<UUID> reading = new HashSet<>();
+    
+    private boolean dirty = false;
+    
+    WarpIndex(@NotNull File folder, @NotNull File players) {
+        this.folder = folder;
+        this.players = players;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Warp index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.load();
+        this.executor.execute(this::readMissing);
+    }
+    
+    /*
+     * Warps
+     */
+    
+    /**
+     * Get the warps of a player that is offline, without reading any files
+     * @param uuid The player
+     * @return An unmodifiable map of the players warps, empty until a player that isn't indexed has been read
+     */
+    public synchronized @NotNull Map<String, WarpUtils.Warp> getWarps(@NotNull UUID uuid) {
+        Map<String, WarpUtils.Warp> warps = this.warps.get(uuid);
+        if (warps != null)
+            return warps;
+        
+        // Read the warps from the players data in the background, only the first time
+        if (this.reading.add(uuid))
+            this.executor.execute(() -> this.read(uuid));
+        return Collections.emptyMap();
+    }
+    
+    /**
+     * Update the warps of a player, from the same tag that is saved to their player data
+     * @param uuid The player
+     * @param tag The "playerWarps" tag of the player
+     */
+    public synchronized void update(@NotNull UUID uuid, @NotNull NbtCompound tag) {
+        // Players are saved often, only update if a warp has changed
+        if (tag.equals(this.tags.get(uuid)))
+            return;
+        
+        NbtCompound copy = tag.copy();
+        this.tags.put(uuid, copy);
+        this.warps.put(uuid, Collections.unmodifiableMap(WarpUtils.fromWarpsNBT(copy)));
+        this.dirty = true;
+    }
+    
+    /*
+     * Reading player data
+     */
+    
+    /**
+     * Read every player that has player data but isn't in the index
+     */
+    private void readMissing() {
+        File[] files = this.players.listFiles((dir, name) -> name.endsWith(".dat"));
+        if (files == null)
+            return;
+        
+        int read = 0;
+        for (File file : files) {
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(file.getName().substring(0, file.getName().length() - ".dat".length()));
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            
+            synchronized (this) {
+                if (this.warps.containsKey(uuid) || !this.reading.add(uuid))
+                    continue;
+            }
+            this.read(uuid);
+            read++;
+        }
+        
+        if (read > 0)
+            CoreMod.logInfo("Indexed the warps of " + read + " offline players.");
+    }
+    
+    /**
+     * Read the warps of a player from their player data, on the background thread
+     * @param uuid The player
+     */
+    private void read(@NotNull UUID uuid) {
+        File file = new File(this.players, uuid + ".dat");
+        NbtCompound warps = null;
+        if (file.exists()) {
+            try {
+                // Convert the player data, which may still have the old single warp
+                warps = WarpUtils.toNBT(WarpUtils.fromNBT(NbtIo.readCompressed(file)));
+            } catch (IOException e) {
+                CoreMod.logError("Failed to read the warps of " + uuid, e);
+            }
+        }
+        
+        synchronized (this) {
+            this.reading.remove(uuid);
+            
+            // The player may have been saved while their file was being read
+            if (this.warps.containsKey(uuid))
+                return;
+            
+            // Don't look for a missing file again
+            if (warps == null)
+                this.warps.put(uuid, Collections.emptyMap());
+            else this.update(uuid, warps);
+        }
+    }
+    
+    /*
+     * Saving
+     */
+    
+    /**
+     * Write every players warps to the snapshot
+     */
+    public synchronized void snapshot() {
+        if (!this.dirty)
+            return;
+        
+        NbtCompound tag = new NbtCompound();
+        for (Map.Entry<UUID, NbtCompound> entry : this.tags.entrySet())
+            tag.put(entry.getKey().toString(), entry.getValue());
+        
+        if ((!this.folder.exists() && !this.folder.mkdirs()) || !NbtUtils.writeBackupAndMove(new File(this.folder, WarpIndex.SNAPSHOT), tag))
+            CoreMod.logError("Failed to write the warp index");
+        else this.dirty = false;
+    }
+    
+    /**
+     * Stop reading player data and write the snapshot
+     */
+    void close() {
+        // Wait for a read that is running, so its warps make it into the snapshot
+        this.executor.shutdownNow();
+        try {
+            if (!this.executor.awaitTermination(5, TimeUnit.SECONDS))
+                CoreMod.logInfo("Stopped waiting for the warp index to read player data");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        this.snapshot();
+    }
+    
+    private void load() {
+        File snapshot = new File(this.folder, WarpIndex.SNAPSHOT);
+        if (!snapshot.exists())
+            return;
+        
+        try {
+            NbtCompound tag = NbtIo.readCompressed(snapshot);
+            for (String key : tag.getKeys()) {
+                if (!tag.contains(key, NbtElement.COMPOUND_TYPE))
+                    continue;
+                NbtCompound warps = tag.getCompound(key);
+                UUID uuid = UUID.fromString(key);
+                this.tags.put(uuid, warps);
+                this.warps.put(uuid, Collections.unmodifiableMap(WarpUtils.fromWarpsNBT(warps)));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            CoreMod.logError("Failed to read the warp index", e);
+        }
+        
+        if (!this.tags.isEmpty())
+            CoreMod.logInfo("Loaded the warps of " + this.tags.size() + " players.");
+    }
+    
+    /*
+     * Instance
+     */
+    
+    public static synchronized @NotNull WarpIndex get() {
+        File level = NbtUtils.levelNameFolder().toAbsolutePath().toFile();
+        File folder = new File(level, SewModules.MODULE);
+        
+        // Open a new index if the world has changed
+        if (WarpIndex.INSTANCE == null || !WarpIndex.INSTANCE.folder.equals(folder)) {
+            if (WarpIndex.INSTANCE != null)
+                WarpIndex.INSTANCE.close();
+            WarpIndex.INSTANCE = new WarpIndex(folder, new File(level, WorldSavePath.PLAYERDATA.getRelativePath()));
+        }
+        
+        return WarpIndex.INSTANCE;
+    }
+    public static synchronized @Nullable WarpIndex getIfOpen() {
+        return WarpIndex.INSTANCE;
+    }
+    public static synchronized void stop() {
+        if (WarpIndex.INSTANCE != null) {
+            WarpIndex.INSTANCE.close();
+            WarpIndex.INSTANCE = null;
+        }
+    }
+}
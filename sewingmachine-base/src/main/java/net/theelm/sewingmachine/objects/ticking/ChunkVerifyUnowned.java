@@ -26,17 +26,20 @@
 package net.theelm.sewingmachine.objects.ticking;
 
 import net.minecraft.server.world.ServerWorld;
+import net.theelm.sewingmachine.enums.TickablePriority;
+import net.theelm.sewingmachine.events.RegionLookupCallback;
 import net.theelm.sewingmachine.events.RegionManageCallback;
 import net.theelm.sewingmachine.interfaces.TickableContext;
 import net.theelm.sewingmachine.interfaces.TickingAction;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
-import net.minecraft.world.chunk.WorldChunk;
 import net.theelm.sewingmachine.protections.BlockRange;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Created on Aug 25 2021 at 11:43 PM.
@@ -45,10 +48,15 @@ import java.util.Queue;
 public class ChunkVerifyUnowned implements TickingAction {
     private boolean success = true;
     private final @NotNull Queue<BlockPos> checks = new ArrayDeque<>();
+    private final @NotNull Queue<Map.Entry<BlockRange, CompletableFuture<Void>>> pending = new ArrayDeque<>();
+    
+    // How many chunks to look up at once, chunks that aren't known yet are read off of the server thread
+    private final int batch;
     
     public ChunkVerifyUnowned(@NotNull final BlockPos blockPos, final int radius) {
         int chunkX = blockPos.getX() >> 4;
         int chunkZ = blockPos.getZ() >> 4;
+        this.batch = radius * 2 + 1;
         
         // For the X axis
         for ( int x = chunkX - radius; x <= chunkX + radius; x++ )
@@ -61,19 +69,39 @@ public class ChunkVerifyUnowned implements TickingAction {
         return this.success;
     }
     
+    @Override
+    public @NotNull TickablePriority getPriority() {
+        return TickablePriority.LOW;
+    }
+    
     @Override
     public boolean isCompleted(@NotNull TickableContext tickable) {
         BlockPos check;
         if (tickable.isRemoved())
             return true;
-        if (tickable.getTicks() % 2 != 0)
-            return false;
-        if ((check = this.checks.poll()) == null)
-            return true;
-        World world = tickable.getWorld();
+        tickable.delay(2);
+        ServerWorld world = (ServerWorld) tickable.getWorld();
+        
+        // Start looking up the next chunks, known chunks are completed immediately
+        while (this.pending.size() < this.batch && (check = this.checks.poll()) != null) {
+            BlockRange region = BlockRange.of(check);
+            this.pending.add(Map.entry(region, RegionLookupCallback.lookup(world, region)));
+        }
         
-        // If the chunk is claimed
-        this.success = RegionManageCallback.canClaim((ServerWorld) world, null, BlockRange.of(check));
-        return !this.success || this.checks.isEmpty();
+        Iterator<Map.Entry<BlockRange, CompletableFuture<Void>>> iterator = this.pending.iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<BlockRange, CompletableFuture<Void>> entry = iterator.next();
+            CompletableFuture<Void> lookup = entry.getValue();
+            if (!lookup.isDone())
+                continue;
+            iterator.remove();
+            
+            // If the chunk couldn't be read, or is claimed
+            if (lookup.isCompletedExceptionally() || !(this.success = RegionManageCallback.canClaim(world, null, entry.getKey()))) {
+                this.success = false;
+                return true;
+            }
+        }
+        return this.checks.isEmpty() && this.pending.isEmpty();
     }
 }
@@ -28,6 +28,7 @@ package net.theelm.sewingmachine.objects.ticking;
 import net.minecraft.text.Text;
 import net.theelm.sewingmachine.base.config.SewBaseConfig;
 import net.theelm.sewingmachine.config.SewConfig;
+import net.theelm.sewingmachine.enums.TickablePriority;
 import net.theelm.sewingmachine.interfaces.LogicalWorld;
 import net.theelm.sewingmachine.interfaces.TickableContext;
 import net.theelm.sewingmachine.interfaces.TickingAction;
@@ -40,6 +41,8 @@ import net.minecraft.util.math.BlockPos;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.UUID;
+
 /**
  * Created on Aug 25 2021 at 11:28 AM.
  * By greg in SewingMachineMod
@@ -51,8 +54,9 @@ public class WaystoneSearch implements TickingAction {
     private final @Nullable WarpUtils warp;
     private final boolean initFail;
     
-    private boolean hasWarpPos = false;
+    private boolean hasCandidate = false;
     private boolean hasVerified = false;
+    private boolean hasWarpPos = false;
     private boolean hasBuilt = false;
     
     private @Nullable DetachedTickableContext child = null;
@@ -94,21 +98,34 @@ public class WaystoneSearch implements TickingAction {
         return !this.player.isDisconnected();
     }
     
+    @Override
+    public @NotNull TickablePriority getPriority() {
+        return TickablePriority.LOW;
+    }
+    
+    @Override
+    public @Nullable UUID getTickableOwner() {
+        return this.player.getUuid();
+    }
+    
     @Override
     public boolean isCompleted(@NotNull TickableContext detachedTickable) {
         // If completed or construction failed, return remove
         if (detachedTickable.isRemoved() || this.initFail)
             return true;
-        // If ticks is not divisible by 20 OR if child is running
-        if ((detachedTickable.getTicks() % 20 != 0) || (this.child != null && !this.child.isRemoved()))
+        // Check again in a second, or wait on the child that is running
+        detachedTickable.delay(20);
+        if (this.child != null && !this.child.isRemoved())
             return false;
         
         /*int counts = detachedTickable.getTicks() / 20;
         System.out.println(counts);*/
         
-        boolean location  = (this.hasWarpPos || (this.hasWarpPos = this.getNewWarpPosition()));
-        boolean unclaimed = location && (this.hasVerified || (this.hasVerified = this.verifyWarpUnclaimed()));
-        boolean building  = unclaimed && (this.hasBuilt || (this.hasBuilt = this.claimAndBuild()));
+        // Check that the area can be claimed before generating any chunks
+        boolean candidate = (this.hasCandidate || (this.hasCandidate = this.getNewWarpCandidate()));
+        boolean unclaimed = candidate && (this.hasVerified || (this.hasVerified = this.verifyWarpUnclaimed()));
+        boolean location  = unclaimed && (this.hasWarpPos || (this.hasWarpPos = this.getNewWarpPosition()));
+        boolean building  = location && (this.hasBuilt || (this.hasBuilt = this.claimAndBuild()));
         if (building) {
             // Build the return warp
             this.player.sendMessage(ServerText.translatable(
@@ -119,28 +136,33 @@ public class WaystoneSearch implements TickingAction {
         return building;
     }
     
-    private boolean getNewWarpPosition() {
+    private boolean getNewWarpCandidate() {
         if (this.warp == null)
             return false;
         this.hasVerified = false; // Make dirt (Must check again)
-        return this.warp.getNewWarpPositionIn();
+        this.search = new ChunkVerifyUnowned(this.warp.getNewWarpCandidate(), 5);
+        this.child = ((LogicalWorld) this.world).addTickableEvent(this.search);
+        return true;
     }
     
     private boolean verifyWarpUnclaimed() {
-        if (this.world == null || this.warp == null)
-            return false;
-        BlockPos warpPos = this.warp.getLastWarpPositionIn();
-        if (warpPos == null)
+        if (this.search == null || this.child == null || !this.child.isRemoved())
             return false;
         
-        // Create a new chunk verification
-        if (this.search == null || this.child == null || (this.child.isRemoved() && !this.search.isSuccess())) {
-            this.search = new ChunkVerifyUnowned(warpPos, 5);
-            this.child = ((LogicalWorld) this.world).addTickableEvent(this.search);
-        }
+        // Pick a new candidate if any of the area is claimed
+        if (!this.search.isSuccess())
+            this.hasCandidate = false;
+        return this.search.isSuccess();
+    }
+    
+    private boolean getNewWarpPosition() {
+        if (this.warp == null)
+            return false;
         
-        // If the check was successful
-        return this.child.isRemoved() && this.search.isSuccess();
+        // Pick a new candidate if the surface can't be stood on
+        if (!this.warp.getNewWarpPositionIn())
+            this.hasCandidate = false;
+        return this.hasCandidate;
     }
     
     private boolean claimAndBuild() {
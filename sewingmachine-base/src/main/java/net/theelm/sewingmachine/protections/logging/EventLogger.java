@@ -38,19 +38,37 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class EventLogger implements Runnable {
     
+    private static final String INSERT_BLOCK = "INSERT INTO `logging_Blocks` ( `blockWorld`, `blockX`, `blockY`, `blockZ`, `block`, `updatedBy`, `updatedEvent`, `updatedAt` ) VALUES ( ?, ?, ?, ?, ?, ?, ?, NOW() );";
+    
     private static final EventLogger INSTANCE = new EventLogger();
     private static final LinkedBlockingDeque<LoggableEvent> actionLog = new LinkedBlockingDeque<>();
     
+    // Counters for the state of the logger
+    private static final AtomicLong queued = new AtomicLong();
+    private static final AtomicLong flushed = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    
     private final Thread thread;
     
+    // Events that have been taken from the queue but not yet written
+    private final List<LoggableEvent> batch = new ArrayList<>();
+    
+    // Reused between batches, re-prepared if the connection fails
+    private MySQLStatement blockStatement = null;
+    
     private EventLogger() {
         this.thread = new Thread(this);
         this.thread.setName("Block logger");
@@ -67,7 +85,11 @@ public final class EventLogger implements Runnable {
                 CoreMod.logInfo("Cleaning up backlog");
                 
                 // Log the remaining values and exit
-                actionLog.forEach(this::saveToDatabase);
+                int size = Math.max(1, SewConfig.get(SewBaseConfig.LOG_BATCH_SIZE));
+                do {
+                    actionLog.drainTo(this.batch, size - this.batch.size());
+                    this.flush();
+                } while (!actionLog.isEmpty());
                 break;
                 
             } catch (Exception e) {
@@ -76,18 +98,118 @@ public final class EventLogger implements Runnable {
             }
         }
         
+        if (this.blockStatement != null)
+            this.blockStatement.close();
+        CoreMod.releaseSQL();
+        
         CoreMod.logInfo("Done logging");
     }
     
     @SuppressWarnings("InfiniteLoopStatement")
     private void wrapper() throws InterruptedException {
-        while ( true ) this.saveToDatabase(actionLog.takeFirst());
+        while ( true ) {
+            // Block until there is at least one event to log
+            if (this.batch.isEmpty())
+                this.batch.add(actionLog.takeFirst());
+            
+            // Keep collecting until the batch is full, or it is time to flush
+            int size = Math.max(1, SewConfig.get(SewBaseConfig.LOG_BATCH_SIZE));
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SewConfig.get(SewBaseConfig.LOG_BATCH_DELAY));
+            while (this.batch.size() < size) {
+                if (actionLog.drainTo(this.batch, size - this.batch.size()) > 0)
+                    continue;
+                
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    break;
+                
+                LoggableEvent next = actionLog.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                if (next == null)
+                    break;
+                this.batch.add(next);
+            }
+            
+            this.flush();
+        }
+    }
+    
+    /**
+     * Write the current batch of events to the database
+     */
+    private void flush() {
+        if (this.batch.isEmpty())
+            return;
+        
+        List<BlockEvent> blocks = new ArrayList<>(this.batch.size());
+        for (LoggableEvent event : this.batch) {
+            if (event instanceof BlockEvent blockEvent)
+                blocks.add(blockEvent);
+            else if (this.saveToDatabase(event))
+                flushed.incrementAndGet();
+            else dropped.incrementAndGet();
+        }
+        this.batch.clear();
+        
+        if (!blocks.isEmpty())
+            this.saveToDatabase(blocks);
     }
     
     /*
      * Logging Handlers for different tables
      */
-    private boolean saveToDatabase(BlockEvent event) {
+    private void saveToDatabase(@NotNull List<BlockEvent> events) {
+        Connection connection = null;
+        int count = events.size();
+        try {
+            // Prepare the statement once and reuse it for future batches
+            if (this.blockStatement == null || this.blockStatement.isClosed())
+                this.blockStatement = CoreMod.getSQL().prepare(EventLogger.INSERT_BLOCK, true);
+            MySQLStatement stmt = this.blockStatement;
+            
+            for (BlockEvent event : events) {
+                // Events without a responsible player aren't logged
+                if (!this.addToBatch(stmt, event))
+                    count--;
+            }
+            
+            if (count == 0)
+                return;
+            
+            // Write the whole batch within a single transaction
+            connection = stmt.getConnection();
+            connection.setAutoCommit(false);
+            stmt.executeBatch();
+            connection.commit();
+            
+            flushed.addAndGet(count);
+        } catch (SQLException e) {
+            CoreMod.logError(e);
+            dropped.addAndGet(count);
+            
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                } catch (SQLException ex) {
+                    CoreMod.logError(ex);
+                }
+            }
+            
+            // Drop the statement so that it is prepared again on the next batch
+            if (this.blockStatement != null) {
+                this.blockStatement.close();
+                this.blockStatement = null;
+            }
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    CoreMod.logError(e);
+                }
+            }
+        }
+    }
+    private boolean addToBatch(@NotNull MySQLStatement stmt, @NotNull BlockEvent event) throws SQLException {
         // Get the event information
         World world = event.getWorld();
         Entity source = event.getSource();
@@ -95,38 +217,29 @@ public final class EventLogger implements Runnable {
         String translationKey = event.getBlock().getTranslationKey();
         BlockAction action = event.getAction();
         
-        // Get the dimension
-        RegistryKey<World> dimension = world.getRegistryKey();
-        
         UUID responsible = source instanceof PlayerEntity ? source.getUuid() : ( source instanceof TameableEntity ? ((TameableEntity)source).getOwnerUuid() : null);
-        if (responsible == null)
+        if (responsible == null || world == null)
             return false;
         
-        // Save the change
-        try (MySQLStatement stmt = CoreMod.getSQL().prepare("INSERT INTO `logging_Blocks` ( `blockWorld`, `blockX`, `blockY`, `blockZ`, `block`, `updatedBy`, `updatedEvent`, `updatedAt` ) VALUES ( ?, ?, ?, ?, ?, ?, ?, NOW() );")
-            .addPrepared(NbtUtils.worldToTag(dimension))
+        // Get the dimension
+        RegistryKey<World> dimension = world.getRegistryKey();
+        
+        // Add the change to the batch
+        stmt.addPrepared(NbtUtils.worldToTag(dimension))
             .addPrepared(blockPos.getX())
             .addPrepared(blockPos.getY())
             .addPrepared(blockPos.getZ())
             .addPrepared(translationKey)
             .addPrepared(responsible)
-            .addPrepared(action)) {
-            
-            stmt.executeUpdate();
-            
-            return true;
-        } catch (SQLException e) {
-            CoreMod.logError(e);
-            
-            return false;
-        }
+            .addPrepared(action);
+        
+        return stmt.addBatch();
     }
     private boolean saveToDatabase(TransferEvent event) {
-        System.out.println("Logging transfer!");
+        CoreMod.logDebug("Logging transfer!");
         return true;
     }
     private boolean saveToDatabase(LoggableEvent event) {
-        if (event instanceof BlockEvent blockEvent) return saveToDatabase(blockEvent);
         if (event instanceof TransferEvent transferEvent) return saveToDatabase(transferEvent);
         CoreMod.logError(new Exception("Missing handler for " + event.getClass().getName()));
         return false;
@@ -141,8 +254,32 @@ public final class EventLogger implements Runnable {
                 || (blockEvent.getAction() == BlockAction.PLACE) && (!SewConfig.get(SewBaseConfig.LOG_BLOCKS_PLACING))
             ) return false;
         }
+        
+        // When the queue is full, drop the newest events instead of growing without bound
+        if (actionLog.size() >= SewConfig.get(SewBaseConfig.LOG_QUEUE_LIMIT)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        
         // Store the log action
-        return actionLog.offer(action);
+        if (!actionLog.offer(action))
+            return false;
+        queued.incrementAndGet();
+        return true;
+    }
+    
+    // Statistics
+    public static int getQueueDepth() {
+        return actionLog.size();
+    }
+    public static long getQueued() {
+        return queued.get();
+    }
+    public static long getFlushed() {
+        return flushed.get();
+    }
+    public static long getDropped() {
+        return dropped.get();
     }
     
     // Static method to start
@@ -156,6 +293,13 @@ public final class EventLogger implements Runnable {
     public static void stop() {
         CoreMod.logInfo("Closing Logger");
         INSTANCE.interrupt();
+        
+        // Wait for the backlog to be written before the database is closed
+        try {
+            INSTANCE.thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
     private void interrupt() {
         INSTANCE.thread.interrupt();
@@ -26,6 +26,7 @@
 package net.theelm.sewingmachine.utilities;
 
 import net.minecraft.text.Text;
+import net.theelm.sewingmachine.enums.TickablePriority;
 import net.theelm.sewingmachine.interfaces.LogicalWorld;
 import net.theelm.sewingmachine.interfaces.TickableContext;
 import net.theelm.sewingmachine.interfaces.TickingAction;
@@ -270,33 +271,37 @@ public final class EffectUtils {
         
         protected abstract @NotNull Vec3d getVelocity();
         
+        @Override
+        public @NotNull TickablePriority getPriority() {
+            return TickablePriority.HIGH;
+        }
+        
         @Override
         public boolean isCompleted(@NotNull TickableContext tickable) {
-            int ticks = tickable.getTicks();
-            if (tickable.isRemoved() || (ticks / EffectUtils.TICK_DELAY) > EffectUtils.TOTAL_STEPS)
+            // Each run is one step of the swirl
+            int current = tickable.getTicks();
+            if (tickable.isRemoved() || current > EffectUtils.TOTAL_STEPS)
                 return true;
             
-            if (ticks % EffectUtils.TICK_DELAY == 0) {
-                int current = ticks / EffectUtils.TICK_DELAY;
-                int counter = this.playUp ? 0 : 15;
-                float radius = this.getRadius();
-                
-                double theta = current * EffectUtils.PER_STEP;
-                double height = (((double) (this.playUp ? counter + current : counter - current) / EffectUtils.TOTAL_STEPS) * this.getTotalHeight());
-                
-                EffectUtils.summonSwirl(
-                    this.particle,
-                    tickable.getWorld(),
-                    this.getPosition(),
-                    this.getVelocity(),
-                    height,
-                    theta,
-                    EffectUtils.PER_STEP,
-                    radius,
-                    this.count
-                );
-            }
+            int counter = this.playUp ? 0 : 15;
+            float radius = this.getRadius();
+            
+            double theta = current * EffectUtils.PER_STEP;
+            double height = (((double) (this.playUp ? counter + current : counter - current) / EffectUtils.TOTAL_STEPS) * this.getTotalHeight());
+            
+            EffectUtils.summonSwirl(
+                this.particle,
+                tickable.getWorld(),
+                this.getPosition(),
+                this.getVelocity(),
+                height,
+                theta,
+                EffectUtils.PER_STEP,
+                radius,
+                this.count
+            );
             
+            tickable.delay(EffectUtils.TICK_DELAY);
             return false;
         }
     }
@@ -28,10 +28,9 @@ package net.theelm.sewingmachine.utilities;
 import net.theelm.sewingmachine.exceptions.NbtNotFoundException;
 import net.theelm.sewingmachine.exceptions.NotEnoughMoneyException;
 import net.theelm.sewingmachine.interfaces.MoneyHolder;
-import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
+import net.theelm.sewingmachine.objects.MoneyLedger;
 import net.minecraft.entity.data.DataTracker;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.jetbrains.annotations.NotNull;
 
@@ -51,10 +50,8 @@ public final class MoneyUtils {
             return MoneyUtils.getPlayerMoney( player );
         
         // If not online
-        NbtCompound tag = NbtUtils.readOfflinePlayerData(playerId);
-        
-        // Get the balance from the NBT tag
-        return tag.getInt( MoneyHolder.SAVE_KEY );
+        return MoneyLedger.get()
+            .getBalance(playerId);
     }
     public static int getPlayerMoney(@NotNull PlayerEntity player) {
         return player.getDataTracker().get(MoneyHolder.MONEY);
@@ -70,19 +67,8 @@ public final class MoneyUtils {
             return MoneyUtils.setPlayerMoney( player, amount );
         
         // If not online
-        NbtCompound nbt = NbtUtils.readOfflinePlayerData( playerId );
-        int balance = nbt.getInt( MoneyHolder.SAVE_KEY );
-        if (amount < 0)
-            return false;
-        
-        // If balance is unchanged, don't attempt saving
-        if (amount == balance)
-            return true;
-        
-        // Change the NBT tag
-        nbt.putInt( MoneyHolder.SAVE_KEY, amount );
-        
-        return NbtUtils.writeOfflinePlayerData( playerId, nbt );
+        return MoneyLedger.get()
+            .setBalance(playerId, amount);
     }
     public static boolean setPlayerMoney(@NotNull PlayerEntity player, int amount) {
         player.getDataTracker().set(MoneyHolder.MONEY, amount);
@@ -99,21 +85,8 @@ public final class MoneyUtils {
             return MoneyUtils.givePlayerMoney(player, amount);
         
         // If not online
-        double updateTo = 0;
-        NbtCompound nbt = NbtUtils.readOfflinePlayerData(playerId);
-        int balance = nbt.getInt( MoneyHolder.SAVE_KEY );
-        if (((updateTo = balance + amount)) > Integer.MAX_VALUE)
-            return false;
-        
-        // If balance is unchanged, don't attempt saving
-        if (updateTo == balance)
-            return true;
-        
-        // Change the NBT tag
-        nbt.putInt(MoneyHolder.SAVE_KEY, (int)updateTo);
-        
-        // Save the data
-        return NbtUtils.writeOfflinePlayerData(playerId, nbt);
+        return MoneyLedger.get()
+            .give(playerId, amount);
     }
     public static boolean givePlayerMoney(@NotNull PlayerEntity player, int amount) {
         DataTracker playerDataTracker = player.getDataTracker();
@@ -136,21 +109,8 @@ public final class MoneyUtils {
             return MoneyUtils.takePlayerMoney( player, amount );
         
         // If not online
-        double updateTo = 0;
-        NbtCompound nbt = NbtUtils.readOfflinePlayerData( playerId );
-        int balance = nbt.getInt( MoneyHolder.SAVE_KEY );
-        if (((updateTo = (double)(balance - amount))) < Integer.MIN_VALUE)
-            return false;
-        
-        // If balance is unchanged, don't attempt saving
-        if (updateTo == balance)
-            return true;
-        
-        // Change the NBT tag
-        nbt.putInt( MoneyHolder.SAVE_KEY, (int)updateTo );
-        
-        // Save the data
-        return NbtUtils.writeOfflinePlayerData( playerId, nbt );
+        return MoneyLedger.get()
+            .take(playerId, amount);
     }
     public static boolean takePlayerMoney(@NotNull PlayerEntity player, int amount) throws NotEnoughMoneyException {
         DataTracker playerDataTracker = player.getDataTracker();
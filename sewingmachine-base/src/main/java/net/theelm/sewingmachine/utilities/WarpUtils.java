@@ -39,10 +39,10 @@ import net.theelm.sewingmachine.config.SewConfig;
 import net.theelm.sewingmachine.events.PlayerTeleportCallback;
 import net.theelm.sewingmachine.events.RegionManageCallback;
 import net.theelm.sewingmachine.events.RegionNameCallback;
-import net.theelm.sewingmachine.exceptions.NbtNotFoundException;
 import net.theelm.sewingmachine.interfaces.LogicalWorld;
 import net.theelm.sewingmachine.interfaces.PlayerData;
 import net.theelm.sewingmachine.objects.MaskSet;
+import net.theelm.sewingmachine.objects.WarpIndex;
 import net.theelm.sewingmachine.protections.BlockRange;
 import net.theelm.sewingmachine.utilities.mod.Sew;
 import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
@@ -75,12 +75,16 @@ import net.minecraft.util.Formatting;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.Heightmap;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldProperties;
 import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -132,16 +136,26 @@ public final class WarpUtils {
         return true;
     }
     
-    public boolean getNewWarpPositionIn() {
+    /**
+     * Pick a new random column to search for a warp in, without loading the chunk
+     * @return The column (At the top of the world) that should be checked for claims before searching
+     */
+    public @NotNull BlockPos getNewWarpCandidate() {
         int x = WarpUtils.getRandom(this.createWarpAt.getX());
         int z = WarpUtils.getRandom(this.createWarpAt.getZ());
-        int height = this.world.getDimension().height();
         
         WarpUtils.logSearchBegin(this.world, x, z);
-        this.updateWarpPos(new BlockPos(x, height, z));
-        
+        this.updateWarpPos(new BlockPos(x, this.world.getTopY(), z));
+        return this.createWarpAt;
+    }
+    
+    /**
+     * Find the surface of the last candidate column, generating its chunk
+     * @return If the surface is a valid position for a warp
+     */
+    public boolean getNewWarpPositionIn() {
         // Return if the warp is a valid position
-        return this.updateWarpPos(WarpUtils.isValid(this.world, this.createWarpAt,height, 10, true));
+        return this.updateWarpPos(WarpUtils.isValid(this.world, this.createWarpAt, this.world.getBottomY(), this.world.getTopY() - 1, true));
     }
     public @Nullable BlockPos getLastWarpPositionIn() {
         return this.createWarpAt;
@@ -161,7 +175,7 @@ public final class WarpUtils {
         
         for (int i = 0; i < maxI; i++) {
             BlockPos check = new BlockPos(x + start.getX(), start.getY(), z + start.getZ());
-            if ((tpPos = WarpUtils.isValid(this.world, check, 5, 10, true)) != null)
+            if ((tpPos = WarpUtils.isValid(this.world, check, start.getY() - 5, start.getY() + 10, true)) != null)
                 return tpPos.up(2);
             if ((x == z) || ((x < 0) && (x == -z)) || ((x > 0) && (x == 1 - z))) {
                 maxX = dX;
@@ -184,32 +198,72 @@ public final class WarpUtils {
         return ( 16 * Math.round(random >> 4) ) + 8;
     }
     
-    private static @Nullable BlockPos isValid(@NotNull final World world, @NotNull final BlockPos startingPos, final int maxDown, final int maxUp, boolean verbose) {
-        int count = 0;
-        int steps = maxDown + maxUp;
-        
-        BlockPos pos = startingPos;
-        BlockState blockState;
-        do {
-            if ( count > steps ) {
-                if (verbose)
-                    WarpUtils.logSearchFailure(world, startingPos, SearchFailures.VOID);
-                return null;
-            }
-            
-            pos = count++ > maxDown ? pos.up() : pos.down();
-            blockState = world.getBlockState(pos);
-            
-        } while (blockState.isAir() || blockState.isReplaceable() || !blockState.isFullCube(world, pos));
+    /**
+     * Find a solid block to stand on in a column, looking below the starting height first and then above it
+     * @param world The world to search in
+     * @param column The X/Z position of the column, and the height to start looking from
+     * @param minY The lowest block that can be stood on
+     * @param maxY The highest block that can be stood on
+     * @param verbose If the reason for failing should be logged
+     * @return The block to stand on, or NULL if the column has no valid position
+     */
+    private static @Nullable BlockPos isValid(@NotNull final World world, @NotNull final BlockPos column, final int minY, final int maxY, boolean verbose) {
+        Chunk chunk = world.getChunk(column);
+        
+        // Anything above the heightmap can't be stood on
+        int top = Math.min(maxY, chunk.sampleHeightmap(Heightmap.Type.MOTION_BLOCKING, column.getX(), column.getZ()));
+        
+        // Look for the ground below the start first, so a roof or cave ceiling isn't picked over the floor
+        BlockPos.Mutable pos = new BlockPos.Mutable(column.getX(), column.getY(), column.getZ());
+        BlockState blockState = WarpUtils.findSolid(world, chunk, pos, Math.min(column.getY() - 1, top), Math.max(minY, chunk.getBottomY()));
+        if (blockState == null)
+            blockState = WarpUtils.findSolid(world, chunk, pos, Math.max(column.getY(), minY), Math.min(top, chunk.getTopY() - 1));
+        
+        if (blockState == null) {
+            if (verbose)
+                WarpUtils.logSearchFailure(world, column, SearchFailures.VOID);
+            return null;
+        }
         
         SearchFailures failure = WarpUtils.canPathThrough(world, blockState, pos);
         if (failure != null) {
             if (verbose)
-                WarpUtils.logSearchFailure(world, startingPos, failure);
+                WarpUtils.logSearchFailure(world, column, failure);
             return null;
         }
         
-        return pos;
+        return pos.toImmutable();
+    }
+    
+    /**
+     * Walk along a column from one height to another, until a solid block is found
+     * @param world The world of the chunk
+     * @param chunk The chunk that the column is in
+     * @param pos The position of the column, set to the solid block that was found
+     * @param from The first height to check
+     * @param to The last height to check, above or below the first height
+     * @return The solid block, or NULL if there was none
+     */
+    private static @Nullable BlockState findSolid(@NotNull World world, @NotNull Chunk chunk, @NotNull BlockPos.Mutable pos, int from, int to) {
+        int step = from <= to ? 1 : -1;
+        int y = from;
+        while (step > 0 ? y <= to : y >= to) {
+            // Skip over sections of the chunk that have no blocks
+            ChunkSection section = chunk.getSection(chunk.getSectionIndex(y));
+            if (section.isEmpty()) {
+                int sectionY = ChunkSectionPos.getSectionCoord(y);
+                y = step > 0 ? ChunkSectionPos.getBlockCoord(sectionY + 1) : ChunkSectionPos.getBlockCoord(sectionY) - 1;
+                continue;
+            }
+            
+            pos.setY(y);
+            BlockState blockState = section.getBlockState(pos.getX() & 15, y & 15, pos.getZ() & 15);
+            if (!(blockState.isAir() || blockState.isReplaceable() || !blockState.isFullCube(world, pos)))
+                return blockState;
+            
+            y += step;
+        }
+        return null;
     }
     private static SearchFailures canPathThrough(@NotNull World world, @NotNull BlockState state, @NotNull BlockPos pos) {
         // Don't set up a warp in a liquid (Water/Lava)
@@ -352,20 +406,22 @@ public final class WarpUtils {
             if (tickable.isRemoved())
                 return true;
             
-            if (tickable.getTicks() % structure.getDelay() == 0) {
-                // If any of the chunks that are used for blocks are still being generated
-                if (structure.generating())
-                    return false;
-                
-                // Destroy the blocks where the waystone goes
-                if (structure.destroy(dropBlocks))
-                    return false;
-                
-                // Build the structure
-                if (structure.build())
-                    return false;
-            }
-            if (tickable.getTicks() % (structure.getDelay() * 10) == 0 && !structure.hasBuild()) {
+            // Each run is one step of the construction
+            tickable.delay(structure.getDelay());
+            
+            // If any of the chunks that are used for blocks are still being generated
+            if (structure.generating())
+                return false;
+            
+            // Destroy the blocks where the waystone goes
+            if (structure.destroy(dropBlocks))
+                return false;
+            
+            // Build the structure
+            if (structure.build())
+                return false;
+            
+            if (tickable.getTicks() % 10 == 0 && !structure.hasBuild()) {
                 if (structure.after())
                     return false;
             }
@@ -426,16 +482,9 @@ public final class WarpUtils {
         if ((player = server.getPlayerManager().getPlayer(uuid)) != null)
             return WarpUtils.getWarps(player);
         
-        try {
-            // Read from the NBT file
-            NbtCompound playerNBT;
-            if ((playerNBT = NbtUtils.readOfflinePlayerData(uuid)) == null)
-                return Collections.emptyMap();
-            
-            return WarpUtils.fromNBT(playerNBT);
-        } catch (NbtNotFoundException ignored) {}
-        
-        return Collections.emptyMap();
+        // Read from the index of offline players
+        return WarpIndex.get()
+            .getWarps(uuid);
     }
     public static @NotNull Map<String, WarpUtils.Warp> getWarps(@NotNull final PlayerEntity player) {
         if (player instanceof PlayerData playerData)
@@ -477,27 +526,30 @@ public final class WarpUtils {
                 ),
                 true
             ));
-        } else if (mainNBT.contains("playerWarps", NbtElement.COMPOUND_TYPE)) {
-            NbtCompound warpsNBT = mainNBT.getCompound("playerWarps");
-            if (warpsNBT != null) {
-                Set<String> warpNames = warpsNBT.getKeys();
-                for (String warpName : warpNames) {
-                    if (!warpsNBT.contains(warpName, NbtElement.COMPOUND_TYPE))
-                        continue;
-                    NbtCompound warpNBT = warpsNBT.getCompound(warpName);
-                    if (warpNBT.contains("x", NbtElement.NUMBER_TYPE) && warpNBT.contains("y", NbtElement.NUMBER_TYPE) && warpNBT.contains("z", NbtElement.NUMBER_TYPE)) {
-                        warps.put(warpName, new Warp(
-                            warpName,
-                            NbtUtils.worldRegistryFromTag(warpNBT.get("d")),
-                            new BlockPos(
-                                warpNBT.getInt("x"),
-                                warpNBT.getInt("y"),
-                                warpNBT.getInt("z")
-                            ),
-                            warpNBT.contains("fav", NbtElement.BYTE_TYPE) && warpNBT.getBoolean("fav")
-                        ));
-                    }
-                }
+        } else if (mainNBT.contains("playerWarps", NbtElement.COMPOUND_TYPE))
+            return WarpUtils.fromWarpsNBT(mainNBT.getCompound("playerWarps"));
+        
+        return warps;
+    }
+    public static @NotNull Map<String, WarpUtils.Warp> fromWarpsNBT(@NotNull NbtCompound warpsNBT) {
+        Map<String, WarpUtils.Warp> warps = new ConcurrentHashMap<>();
+        
+        Set<String> warpNames = warpsNBT.getKeys();
+        for (String warpName : warpNames) {
+            if (!warpsNBT.contains(warpName, NbtElement.COMPOUND_TYPE))
+                continue;
+            NbtCompound warpNBT = warpsNBT.getCompound(warpName);
+            if (warpNBT.contains("x", NbtElement.NUMBER_TYPE) && warpNBT.contains("y", NbtElement.NUMBER_TYPE) && warpNBT.contains("z", NbtElement.NUMBER_TYPE)) {
+                warps.put(warpName, new Warp(
+                    warpName,
+                    NbtUtils.worldRegistryFromTag(warpNBT.get("d")),
+                    new BlockPos(
+                        warpNBT.getInt("x"),
+                        warpNBT.getInt("y"),
+                        warpNBT.getInt("z")
+                    ),
+                    warpNBT.contains("fav", NbtElement.BYTE_TYPE) && warpNBT.getBoolean("fav")
+                ));
             }
         }
         
@@ -733,10 +785,11 @@ public final class WarpUtils {
     public static CompletableFuture<Suggestions> buildSuggestions(@NotNull MinecraftServer server, @Nullable UUID untrusted, @NotNull UUID warpOwner, @NotNull SuggestionsBuilder builder) {
         return WarpUtils.buildSuggestions(server, warpOwner, untrusted, WarpUtils.getWarps(warpOwner), builder);
     }
-    private static CompletableFuture<Suggestions> buildSuggestions(@NotNull MinecraftServer server, @NotNull UUID warpOwner, @Nullable UUID untrusted, @NotNull Map<String, Warp> warps, @NotNull SuggestionsBuilder builder) {
+    public static CompletableFuture<Suggestions> buildSuggestions(@Nullable MinecraftServer server, @NotNull UUID warpOwner, @Nullable UUID untrusted, @NotNull Map<String, Warp> warps, @NotNull SuggestionsBuilder builder) {
         String remainder = builder.getRemaining().toLowerCase(Locale.ROOT);
         
-        boolean canViewCoordinates = untrusted != null && (warpOwner.equals(untrusted) || PlayerTeleportCallback.canTeleport(server, untrusted, warpOwner));
+        // Without a server only the owner can see the coordinates
+        boolean canViewCoordinates = untrusted != null && (warpOwner.equals(untrusted) || (server != null && PlayerTeleportCallback.canTeleport(server, untrusted, warpOwner)));
         for (Map.Entry<String, Warp> iterator : warps.entrySet()) {
             String name = iterator.getKey();
             if (name.contains(" "))
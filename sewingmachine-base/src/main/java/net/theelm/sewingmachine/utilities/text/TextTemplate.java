@@ -0,0 +1,214 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.utilities.text;
+
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+import net.theelm.sewingmachine.utilities.CasingUtils;
+import net.theelm.sewingmachine.utilities.FormattingUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A "${var}" template that is parsed once into styled segments of literal text and variable slots.
+ *   Segments without any variables are built once and shared between every render.
+ */
+public final class TextTemplate {
+    private final @NotNull String raw;
+    private final @NotNull List<Segment> segments;
+    
+    private TextTemplate(@NotNull String raw, @NotNull List<Segment> segments) {
+        this.raw = raw;
+        this.segments = segments;
+    }
+    
+    /**
+     * Render the template
+     * @param renderer Gets the value for each variable slot, a NULL value leaves the variable as it was written
+     * @return The rendered text
+     */
+    public @NotNull MutableText render(@NotNull SlotRenderer renderer) {
+        MutableText out = Text.empty();
+        for (Segment segment : this.segments) {
+            if (segment.text() != null) {
+                out.append(segment.text());
+                continue;
+            }
+            
+            MutableText text = null;
+            for (Object part : segment.parts()) {
+                Text value = null;
+                if (part instanceof Slot slot)
+                    value = renderer.render(slot);
+                
+                if (text == null) {
+                    // The first part is the content of the segment
+                    text = value == null ? Text.literal(part.toString()) : Text.empty().append(value);
+                    text.setStyle(segment.style());
+                } else {
+                    text.append(value == null ? Text.literal(part.toString()) : value);
+                }
+            }
+            
+            if (text != null)
+                out.append(text);
+        }
+        return out;
+    }
+    
+    public boolean isEmpty() {
+        return this.segments.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return this.raw;
+    }
+    
+    /*
+     * Compiling
+     */
+    
+    public static @NotNull TextTemplate compile(@Nullable String raw) {
+        if (raw == null)
+            return new TextTemplate("", Collections.emptyList());
+        
+        List<Segment> segments = new ArrayList<>();
+        Text formatted = FormattingUtils.stringToText(raw);
+        if (formatted != null) {
+            for (Text sibling : formatted.getSiblings()) {
+                String content = sibling.getContent() instanceof VariableTextContent variable ? variable.toString() : sibling.getString();
+                if (content == null || content.isEmpty())
+                    continue;
+                
+                List<Object> parts = TextTemplate.parse(content);
+                if (parts.size() == 1 && parts.get(0) instanceof String literal)
+                    segments.add(new Segment(sibling.getStyle(), Text.literal(literal).setStyle(sibling.getStyle()), parts));
+                else segments.add(new Segment(sibling.getStyle(), null, parts));
+            }
+        }
+        
+        return new TextTemplate(raw, Collections.unmodifiableList(segments));
+    }
+    
+    /**
+     * Split a string into literal Strings and {@link Slot}s
+     */
+    private static @NotNull List<Object> parse(@NotNull String content) {
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        
+        int length = content.length(), i = 0;
+        while (i < length) {
+            char c = content.charAt(i);
+            if (c != '$' || i + 1 >= length || content.charAt(i + 1) != '{') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            
+            // Read the name of the variable
+            int start = i + 2, end = start;
+            while (end < length && TextTemplate.isKeyChar(content.charAt(end)))
+                end++;
+            
+            // Read the casing modifiers
+            int modifiers = end;
+            while (modifiers < length && modifiers - end < 2 && TextTemplate.isCasingChar(content.charAt(modifiers)))
+                modifiers++;
+            
+            // Not a variable, keep the text as-is
+            if (end == start || modifiers >= length || content.charAt(modifiers) != '}') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            
+            if (!literal.isEmpty()) {
+                parts.add(literal.toString());
+                literal.setLength(0);
+            }
+            
+            String key = content.substring(start, end);
+            parts.add(new Slot(
+                key.toLowerCase(Locale.ROOT),
+                TextTemplate.casing(content.substring(end, modifiers)),
+                content.substring(i, modifiers + 1)
+            ));
+            i = modifiers + 1;
+        }
+        
+        if (!literal.isEmpty() || parts.isEmpty())
+            parts.add(literal.toString());
+        return parts;
+    }
+    private static boolean isKeyChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '.';
+    }
+    private static boolean isCasingChar(char c) {
+        return c == '^' || c == '_';
+    }
+    private static @NotNull CasingUtils.Casing casing(@NotNull String modifiers) {
+        return switch (modifiers) {
+            case "__" -> CasingUtils.Casing.LOWER;
+            case "^^" -> CasingUtils.Casing.UPPER;
+            case "^" -> CasingUtils.Casing.WORDS;
+            default -> CasingUtils.Casing.DEFAULT;
+        };
+    }
+    
+    /**
+     * A styled piece of the template
+     * @param style The style of the segment
+     * @param text The prebuilt text if the segment has no slots
+     * @param parts The literal Strings and {@link Slot}s of the segment
+     */
+    private record Segment(@NotNull Style style, @Nullable Text text, @NotNull List<Object> parts) {}
+    
+    /**
+     * A variable in the template
+     * @param key The lowercase name of the variable
+     * @param casing The casing to apply to the value
+     * @param raw The variable as it was written
+     */
+    public record Slot(@NotNull String key, @NotNull CasingUtils.Casing casing, @NotNull String raw) {
+        @Override
+        public String toString() {
+            return this.raw;
+        }
+    }
+    
+    @FunctionalInterface
+    public interface SlotRenderer {
+        @Nullable Text render(@NotNull Slot slot);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.MySQL;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MySQLPoolTest {
+    @TempDir
+    File folder;
+    
+    private MySQLite pool;
+    
+    @BeforeEach
+    public void open() {
+        this.pool = new MySQLite(new File(this.folder, "test.db"));
+    }
+    
+    @AfterEach
+    public void close() {
+        this.pool.close();
+    }
+    
+    @Test
+    public void borrowAndReturn() throws Exception {
+        // The same thread keeps the same connection
+        Connection connection = this.pool.getConnection();
+        assertNotNull(connection);
+        assertSame(connection, this.pool.getConnection());
+        assertEquals(1, this.pool.getOpenCount());
+        assertEquals(0, this.pool.getIdleCount());
+        
+        // Statements are reused once they are released
+        PreparedStatement stmt = this.pool.prepareStatement("SELECT 1");
+        this.pool.releaseStatement("SELECT 1", stmt);
+        assertSame(stmt, this.pool.prepareStatement("SELECT 1"));
+        try (ResultSet result = stmt.executeQuery()) {
+            assertTrue(result.next());
+            assertEquals(1, result.getInt(1));
+        }
+        this.pool.releaseStatement("SELECT 1", stmt);
+        
+        // Returning the connection makes it idle, and another thread borrows the same one
+        this.pool.release();
+        assertEquals(1, this.pool.getIdleCount());
+        assertSame(connection, this.onOtherThread(this.pool::getConnection));
+        assertEquals(1, this.pool.getOpenCount());
+        assertEquals(0, this.pool.getIdleCount());
+    }
+    
+    @Test
+    public void deadConnectionsAreReplaced() throws Exception {
+        Connection connection = this.pool.getConnection();
+        assertNotNull(connection);
+        
+        // A connection that died while leased is replaced on the next use
+        connection.close();
+        Connection replaced = this.pool.getConnection();
+        assertNotNull(replaced);
+        assertNotSame(connection, replaced);
+        assertFalse(replaced.isClosed());
+        assertEquals(1, this.pool.getOpenCount());
+        
+        // A connection that died while idle is discarded instead of borrowed
+        this.pool.release();
+        replaced.close();
+        Connection borrowed = this.onOtherThread(this.pool::getConnection);
+        assertNotSame(replaced, borrowed);
+        assertFalse(borrowed.isClosed());
+        assertEquals(1, this.pool.getOpenCount());
+        assertEquals(0, this.pool.getIdleCount());
+    }
+    
+    @Test
+    public void exhaustedPoolOpensMoreConnections() throws Exception {
+        final int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier leased = new CyclicBarrier(threads + 1);
+        CyclicBarrier counted = new CyclicBarrier(threads + 1);
+        
+        try {
+            // Hold a connection on every thread at once, so the idle connections run out
+            List<Future<Connection>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    Connection connection = this.pool.getConnection();
+                    leased.await(5, TimeUnit.SECONDS);
+                    counted.await(5, TimeUnit.SECONDS);
+                    this.pool.release();
+                    return connection;
+                }));
+            }
+            
+            leased.await(5, TimeUnit.SECONDS);
+            assertEquals(threads, this.pool.getOpenCount());
+            assertEquals(0, this.pool.getIdleCount());
+            counted.await(5, TimeUnit.SECONDS);
+            
+            List<Connection> connections = new ArrayList<>();
+            for (Future<Connection> future : futures)
+                connections.add(future.get(5, TimeUnit.SECONDS));
+            assertEquals(threads, connections.stream().distinct().count());
+            
+            // Only a couple of connections are kept once they are returned, the rest are closed
+            assertEquals(2, this.pool.getIdleCount());
+            assertEquals(2, this.pool.getOpenCount());
+            int closed = 0;
+            for (Connection connection : connections) {
+                if (connection.isClosed())
+                    closed++;
+            }
+            assertEquals(threads - 2, closed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void deadThreadsAreReclaimed() throws Exception {
+        // A thread that ends without returning its connection
+        Connection abandoned = this.onOtherThread(this.pool::getConnection);
+        assertEquals(1, this.pool.getOpenCount());
+        assertEquals(0, this.pool.getIdleCount());
+        
+        // Is reclaimed instead of opening another connection
+        assertSame(abandoned, this.pool.getConnection());
+        assertEquals(1, this.pool.getOpenCount());
+    }
+    
+    @Test
+    public void unreachableDatabase() throws SQLException {
+        MySQLPool pool = new MySQLPool() {
+            @Override
+            protected @Nullable Connection openConnection() {
+                return null;
+            }
+        };
+        
+        assertNull(pool.getConnection());
+        assertThrows(SQLException.class, () -> pool.prepareStatement("SELECT 1"));
+        assertEquals(0, pool.getOpenCount());
+    }
+    
+    private <T> T onOtherThread(@NotNull SQLSupplier<T> supplier) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(supplier::get).get();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+    
+    @FunctionalInterface
+    private interface SQLSupplier<T> {
+        T get() throws SQLException;
+    }
+}
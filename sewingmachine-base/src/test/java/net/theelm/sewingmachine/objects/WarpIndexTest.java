@@ -0,0 +1,165 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.objects;
+
+import com.mojang.brigadier.suggestion.Suggestion;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.theelm.sewingmachine.utilities.WarpUtils;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WarpIndexTest {
+    @TempDir
+    File folder;
+    
+    @BeforeAll
+    public static void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+    
+    @Test
+    public void offlineWarpsComeFromTheSnapshot() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        File players = new File(this.folder, "playerdata");
+        File index = new File(this.folder, "sewing-machine");
+        assertTrue(players.mkdirs() && index.mkdirs());
+        
+        // Only the snapshot has the warp, the player data doesn't exist at all
+        NbtCompound warps = WarpUtils.toNBT(Map.of("home", new WarpUtils.Warp("home", World.OVERWORLD, new BlockPos(10, 64, -10), true)));
+        NbtCompound snapshot = new NbtCompound();
+        snapshot.put(uuid.toString(), warps);
+        NbtIo.writeCompressed(snapshot, new File(index, "warps.dat"));
+        
+        WarpIndex warpIndex = new WarpIndex(index, players);
+        WarpUtils.Warp warp = WarpUtils.fromMapByName(warpIndex.getWarps(uuid), null);
+        assertNotNull(warp);
+        assertEquals(new BlockPos(10, 64, -10), warp.warpPos);
+        warpIndex.close();
+    }
+    
+    @Test
+    public void unindexedPlayersAreReadInTheBackground() throws IOException, InterruptedException {
+        UUID uuid = UUID.randomUUID();
+        File players = new File(this.folder, "playerdata");
+        File index = new File(this.folder, "sewing-machine");
+        assertTrue(players.mkdirs() && index.mkdirs());
+        
+        WarpIndex warpIndex = new WarpIndex(index, players);
+        
+        // Asking for a player that isn't indexed returns straight away
+        assertTrue(warpIndex.getWarps(uuid).isEmpty());
+        
+        // Player data from before named warps, with only the old single warp
+        NbtCompound player = new NbtCompound();
+        player.putInt("playerWarpX", 1);
+        player.putInt("playerWarpY", 70);
+        player.putInt("playerWarpZ", 2);
+        NbtIo.writeCompressed(player, new File(players, uuid + ".dat"));
+        
+        // The missing file is remembered by that index, a new index reads the player when it opens
+        warpIndex.close();
+        warpIndex = new WarpIndex(index, players);
+        
+        Map<String, WarpUtils.Warp> warps = WarpIndexTest.awaitWarps(warpIndex, uuid);
+        WarpUtils.Warp warp = warps.get(WarpUtils.PRIMARY_DEFAULT_HOME);
+        assertNotNull(warp);
+        assertEquals(new BlockPos(1, 70, 2), warp.warpPos);
+        
+        // The legacy warp is written to the snapshot in the new format
+        warpIndex.close();
+        NbtCompound snapshot = NbtIo.readCompressed(new File(index, "warps.dat"));
+        assertTrue(snapshot.getCompound(uuid.toString()).contains(WarpUtils.PRIMARY_DEFAULT_HOME));
+    }
+    
+    @Test
+    public void suggestionsDontReadPlayerData() throws IOException {
+        UUID owner = UUID.randomUUID();
+        UUID unindexed = UUID.randomUUID();
+        File players = new File(this.folder, "playerdata");
+        File index = new File(this.folder, "sewing-machine");
+        assertTrue(index.mkdirs());
+        
+        // There is no player data on disk, only the snapshot
+        NbtCompound snapshot = new NbtCompound();
+        snapshot.put(owner.toString(), WarpUtils.toNBT(Map.of(
+            "home", new WarpUtils.Warp("home", World.OVERWORLD, new BlockPos(10, 64, -10), true),
+            "the farm", new WarpUtils.Warp("the farm", World.OVERWORLD, new BlockPos(-200, 70, 40), false)
+        )));
+        NbtIo.writeCompressed(snapshot, new File(index, "warps.dat"));
+        
+        WarpIndex warpIndex = new WarpIndex(index, players);
+        
+        // The owners warps are suggested from the snapshot
+        Suggestions suggestions = WarpUtils.buildSuggestions(null, owner, owner, warpIndex.getWarps(owner), new SuggestionsBuilder("", 0))
+            .join();
+        assertEquals(Set.of("home", "\"the farm\""), WarpIndexTest.suggested(suggestions));
+        
+        // A player that isn't indexed is suggested nothing, instead of waiting on their player data
+        suggestions = WarpUtils.buildSuggestions(null, unindexed, owner, warpIndex.getWarps(unindexed), new SuggestionsBuilder("", 0))
+            .join();
+        assertTrue(suggestions.isEmpty());
+        
+        warpIndex.close();
+        assertFalse(players.exists());
+    }
+    
+    private static @NotNull Set<String> suggested(@NotNull Suggestions suggestions) {
+        return suggestions.getList()
+            .stream()
+            .map(Suggestion::getText)
+            .collect(Collectors.toSet());
+    }
+    
+    private static @NotNull Map<String, WarpUtils.Warp> awaitWarps(@NotNull WarpIndex index, @NotNull UUID uuid) throws InterruptedException {
+        long until = System.currentTimeMillis() + 5000;
+        Map<String, WarpUtils.Warp> warps;
+        while ((warps = index.getWarps(uuid)).isEmpty() && System.currentTimeMillis() < until)
+            Thread.sleep(10);
+        return warps;
+    }
+}
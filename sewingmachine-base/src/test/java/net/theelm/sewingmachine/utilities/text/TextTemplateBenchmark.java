@@ -0,0 +1,154 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.utilities.text;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.theelm.sewingmachine.utilities.CasingUtils;
+import net.theelm.sewingmachine.utilities.FormattingUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares rendering a compiled {@link TextTemplate} against the regex replacement
+ *   that chat formats and MOTDs used to run on every message
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextTemplateBenchmark {
+    static final Map<String, String> VARIABLES = Map.of(
+        "world", "overworld",
+        "nick", "TheElm",
+        "town", "Elmwood",
+        "message", "Hello there, is anyone online?"
+    );
+    
+    @Param({
+        "[${world}] &b${nick}&r: ${message}",
+        "&7&o[Whisper] ${nick}&r&o: ${message}",
+        "&a[${town^^}] &2${nick}&r: ${message}"
+    })
+    public String format;
+    
+    private Text formatted;
+    private TextTemplate template;
+    
+    @Setup
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        
+        this.formatted = FormattingUtils.stringToText(this.format);
+        this.template = TextTemplate.compile(this.format);
+    }
+    
+    @Benchmark
+    public Text regex() {
+        return TextTemplateBenchmark.regex(this.formatted);
+    }
+    
+    @Benchmark
+    public Text template() {
+        return TextTemplateBenchmark.template(this.template);
+    }
+    
+    static @NotNull Text template(@NotNull TextTemplate template) {
+        return template.render(slot -> {
+            String value = TextTemplateBenchmark.VARIABLES.get(slot.key());
+            return value == null ? null : Text.literal(slot.casing().apply(value));
+        });
+    }
+    
+    /**
+     * The per-message regex replacement that was used before chat formats were compiled
+     */
+    static @NotNull Text regex(@NotNull Text formatted) {
+        return FormattingUtils.visitVariables(TextUtils.deepCopy(formatted), TextTemplateBenchmark::replaceVariables);
+    }
+    private static @Nullable String replaceVariables(@NotNull MutableText text, @Nullable String segment) {
+        String out = segment;
+        if (out != null) {
+            Pattern pattern = Pattern.compile("\\$\\{([A-Za-z.]+)([\\^_]{0,2})}");
+            Matcher matcher = pattern.matcher(segment);
+            int end = 0;
+            
+            while (matcher.find()) {
+                String value = TextTemplateBenchmark.VARIABLES.get(matcher.group(1).toLowerCase());
+                if (value == null)
+                    continue;
+                
+                CasingUtils.Casing casing = switch (matcher.group(2)) {
+                    case "__" -> CasingUtils.Casing.LOWER;
+                    case "^^" -> CasingUtils.Casing.UPPER;
+                    case "^" -> CasingUtils.Casing.WORDS;
+                    default -> CasingUtils.Casing.DEFAULT;
+                };
+                
+                String pre = segment.substring(end, matcher.start());
+                if (end == 0) out = pre; else text.append(pre);
+                
+                text.append(casing.apply(value));
+                end = matcher.end();
+            }
+            
+            if (end != 0)
+                text.append(segment.substring(end));
+        }
+        return out;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TextTemplateBenchmark.class.getSimpleName())
+            .build()
+        ).run();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.utilities.text;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.theelm.sewingmachine.utilities.FormattingUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TextTemplateTest {
+    @BeforeAll
+    public static void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[${world}] &b${nick}&r: ${message}",
+        "&7&o[Whisper] ${nick}&r&o: ${message}",
+        "&a[${town^^}] &2${NICK__}&r: ${message}",
+        "${unknown} ${nick^} $ {nick} ${} ${nick",
+        "No variables at all"
+    })
+    public void rendersTheSameAsTheRegex(String format) {
+        assertEquals(
+            TextTemplateBenchmark.regex(FormattingUtils.stringToText(format)).getString(),
+            TextTemplateBenchmark.template(TextTemplate.compile(format)).getString()
+        );
+    }
+}
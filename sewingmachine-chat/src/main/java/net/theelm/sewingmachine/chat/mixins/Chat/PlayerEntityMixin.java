@@ -34,6 +34,7 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.world.World;
 import net.theelm.sewingmachine.chat.interfaces.Nicknamable;
+import net.theelm.sewingmachine.chat.objects.PlayerNameService;
 import net.theelm.sewingmachine.interfaces.PlayerData;
 import net.theelm.sewingmachine.utilities.FormattingUtils;
 import org.jetbrains.annotations.Nullable;
@@ -74,6 +75,12 @@ public abstract class PlayerEntityMixin extends LivingEntity implements Nicknama
     @Override
     public void setPlayerNickname(@Nullable Text nickname) {
         this.playerNickname = nickname;
+        
+        // Remember the nickname of the player for when they are offline
+        if (((LivingEntity)this) instanceof ServerPlayerEntity player)
+            PlayerNameService.get(player.server)
+                .observe(player.getUuid(), player.getGameProfile().getName(), nickname);
+        
         ServerBossBar healthBar = ((PlayerData) this).getHealthBar();
         if (healthBar != null)
             healthBar.setName(Text.literal("Player ").append(this.getDisplayName()).formatted(Formatting.WHITE));
@@ -28,12 +28,14 @@ package net.theelm.sewingmachine.chat.mixins.Chat;
 import com.mojang.authlib.GameProfile;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.network.ServerPlayerInteractionManager;
 import net.minecraft.text.Text;
 import net.theelm.sewingmachine.chat.enums.ChatRooms;
 import net.theelm.sewingmachine.chat.interfaces.Nicknamable;
 import net.theelm.sewingmachine.chat.interfaces.PlayerChat;
+import net.theelm.sewingmachine.chat.objects.PlayerNameService;
 import net.theelm.sewingmachine.objects.MessageRegion;
 import net.theelm.sewingmachine.utilities.FormattingUtils;
 import org.jetbrains.annotations.NotNull;
@@ -57,6 +59,7 @@ public abstract class ServerPlayerEntityMixin implements PlayerChat {
      */
     
     @Shadow @Final public ServerPlayerInteractionManager interactionManager;
+    @Shadow @Final public MinecraftServer server;
     
     @Override
     public @Nullable MessageRegion getChatRoom() {
@@ -110,6 +113,12 @@ public abstract class ServerPlayerEntityMixin implements PlayerChat {
         // Get the nickname
         if (tag.contains("PlayerNickname", NbtElement.STRING_TYPE))
             ((Nicknamable) this).setPlayerNickname(Text.Serializer.fromJson(tag.getString("PlayerNickname")));
+        else {
+            // Remember the name of the player for when they are offline
+            ServerPlayerEntity player = (ServerPlayerEntity)(Object) this;
+            PlayerNameService.get(this.server)
+                .observe(player.getUuid(), player.getGameProfile().getName(), null);
+        }
         
         // Read if player is muted
         if (tag.contains("chatMuted", NbtElement.BYTE_TYPE))
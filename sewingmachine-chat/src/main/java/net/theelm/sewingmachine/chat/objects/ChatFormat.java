@@ -28,44 +28,32 @@ package net.theelm.sewingmachine.chat.objects;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import net.minecraft.server.command.ServerCommandSource;
-import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.chat.enums.ChatRooms;
 import net.theelm.sewingmachine.interfaces.variables.VariableFunction;
 import net.theelm.sewingmachine.utilities.EntityVariables;
-import net.theelm.sewingmachine.utilities.CasingUtils;
-import net.theelm.sewingmachine.utilities.FormattingUtils;
-import net.theelm.sewingmachine.utilities.text.TextUtils;
-import org.jetbrains.annotations.Contract;
+import net.theelm.sewingmachine.utilities.text.TextTemplate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public final class ChatFormat {
-    private final String raw;
-    private final Text formatted;
+    private final TextTemplate template;
     
     private ChatFormat(@NotNull String raw) {
-        this.raw = raw;
-        this.formatted = FormattingUtils.stringToText(raw);
+        this.template = TextTemplate.compile(raw);
         
         // Debug
         CoreMod.logDebug(raw);
     }
     
     public @NotNull Text format(@NotNull final ServerCommandSource source, @NotNull final ChatRooms chatRoom, @NotNull final Text message) {
-        return FormattingUtils.visitVariables(
-            TextUtils.deepCopy(this.formatted),
-            (text, segment) -> ChatFormat.replaceVariables(text, segment, source, chatRoom, message)
-        );
+        return this.template.render(slot -> ChatFormat.replaceVariable(slot, source, chatRoom, message));
     }
     
     @Override
     public String toString() {
-        return this.raw;
+        return this.template.toString();
     }
     
     public static @NotNull ChatFormat parse(@NotNull String string) {
@@ -77,52 +65,15 @@ public final class ChatFormat {
     public static JsonElement serializer(@NotNull ChatFormat src, @NotNull Gson gson) {
         return gson.toJsonTree(src.toString());
     }
-    private static @Contract("_, null, _, _, _ -> null") String replaceVariables(
-        @NotNull final MutableText text,
-        @Nullable final String segment,
+    private static @Nullable Text replaceVariable(
+        @NotNull final TextTemplate.Slot slot,
         @NotNull final ServerCommandSource source,
         @NotNull final ChatRooms chatRoom,
         @NotNull final Text message
     ) {
-        String out = segment;
-        if (out != null) {
-            // If description contains
-            Pattern pattern = Pattern.compile("\\$\\{([A-Za-z.]+)([\\^_]{0,2})}");
-            Matcher matcher = pattern.matcher(segment);
-            int end = 0;
-            
-            while (matcher.find()) {
-                String key = matcher.group(1);
-                VariableFunction function = EntityVariables.get(key.toLowerCase());
-                if (function != null) {
-                    if (!function.canBeParsed(source))
-                        continue;
-                    
-                    // Change val casing
-                    String mod = matcher.group(2);
-                    CasingUtils.Casing casing = switch (mod) {
-                        case "__" -> CasingUtils.Casing.LOWER;
-                        case "^^" -> CasingUtils.Casing.UPPER;
-                        case "^" -> CasingUtils.Casing.WORDS;
-                        default -> CasingUtils.Casing.DEFAULT;
-                    };
-                    
-                    // Prefixed text
-                    String pre = segment.substring(end, matcher.start());
-                    if (end == 0) out = pre; else text.append(pre);
-                    
-                    // Add
-                    text.append(function.parseVar(source, chatRoom, message, casing));
-                    
-                    // Suffixed text
-                    end = matcher.end();
-                }
-            }
-            
-            // Append anything trailing the text
-            if (end != 0)
-                text.append(segment.substring(end));
-        }
-        return out;
+        VariableFunction function = EntityVariables.get(slot.key());
+        if (function == null || !function.canBeParsed(source))
+            return null;
+        return function.parseVar(source, chatRoom, message, slot.casing());
     }
 }
@@ -0,0 +1,98 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.chat.objects;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import net.theelm.sewingmachine.chat.interfaces.NameResolver;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.UUID;
+
+/**
+ * Resolve player names from a web endpoint, returning either a single profile or a list of previous names
+ */
+public final class HttpNameResolver implements NameResolver {
+    public static final @NotNull String MOJANG = "https://api.mojang.com/user/profiles/%s/names";
+    
+    private static final int TIMEOUT = 5000;
+    
+    private final @NotNull String endpoint;
+    
+    /**
+     * @param endpoint The URL to request, where "%s" is replaced with the UUID (Without dashes)
+     */
+    public HttpNameResolver(@NotNull String endpoint) {
+        this.endpoint = endpoint;
+    }
+    
+    @Override
+    public @Nullable String lookup(@NotNull UUID uuid) throws IOException {
+        HttpURLConnection connection = null;
+        try {
+            // Create the URL
+            URL url = new URL(String.format(this.endpoint, uuid.toString().replace("-", "")));
+            
+            // Opening connection
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(HttpNameResolver.TIMEOUT);
+            connection.setReadTimeout(HttpNameResolver.TIMEOUT);
+            
+            // Buffered reader
+            try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(connection.getInputStream())
+            )) {
+                JsonElement json = JsonParser.parseReader(in);
+                
+                // Use the latest name from the name history
+                if (json.isJsonArray()) {
+                    JsonArray nameHistory = json.getAsJsonArray();
+                    if (nameHistory.isEmpty())
+                        return null;
+                    json = nameHistory.get(nameHistory.size() - 1);
+                }
+                
+                JsonElement name;
+                if (!json.isJsonObject() || (name = json.getAsJsonObject().get("name")) == null)
+                    return null;
+                return name.getAsString();
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid response for " + uuid, e);
+        } finally {
+            if (connection != null)
+                connection.disconnect();
+        }
+    }
+}
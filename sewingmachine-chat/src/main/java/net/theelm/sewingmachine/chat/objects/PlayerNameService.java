@@ -0,0 +1,386 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.chat.objects;
+
+import com.mojang.authlib.GameProfile;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.chat.interfaces.NameResolver;
+import net.theelm.sewingmachine.events.PlayerNameUpdateCallback;
+import net.theelm.sewingmachine.exceptions.NbtNotFoundException;
+import net.theelm.sewingmachine.objects.SewModules;
+import net.theelm.sewingmachine.utilities.FormattingUtils;
+import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the names and nicknames of players that aren't online without blocking the caller.
+ *   Names are kept in a bounded cache that is also written to the world folder, unknown names
+ *   are looked up in the background and {@link PlayerNameUpdateCallback} is called once they are.
+ */
+public final class PlayerNameService {
+    private static final String FILE = "names.dat";
+    static final int MAX_CACHED = 4096;
+    
+    // How long to wait before trying to look up a name that failed
+    private static final long RETRY_AFTER = TimeUnit.MINUTES.toMillis(5);
+    // How long to wait after a change before writing the cache
+    private static final long SAVE_DELAY = 30;
+    
+    private static @Nullable PlayerNameService INSTANCE = null;
+    private static @NotNull NameResolver RESOLVER = new HttpNameResolver(HttpNameResolver.MOJANG);
+    
+    private final @Nullable MinecraftServer server;
+    private final @NotNull Host host;
+    private final @NotNull File file;
+    private final @NotNull ScheduledExecutorService executor;
+    
+    // Least recently used names are dropped first
+    private final @NotNull Map<UUID, Known> known = new LinkedHashMap<>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Known> eldest) {
+            return this.size() > PlayerNameService.MAX_CACHED;
+        }
+    };
+    private final @NotNull Map<UUID, CompletableFuture<Known>> pending = new ConcurrentHashMap<>();
+    private final @NotNull Map<UUID, Long> failed = new ConcurrentHashMap<>();
+    private boolean saveQueued = false;
+    
+    private PlayerNameService(@NotNull MinecraftServer server) {
+        this(server, new File(new File(NbtUtils.levelNameFolder(server).toFile(), SewModules.MODULE), PlayerNameService.FILE), new ServerHost(server));
+    }
+    PlayerNameService(@Nullable MinecraftServer server, @NotNull File file, @NotNull Host host) {
+        this.server = server;
+        this.host = host;
+        this.file = file;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Player name lookup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.load();
+    }
+    
+    /*
+     * Lookups
+     */
+    
+    /**
+     * @param uuid The player to get the name of
+     * @return The name of the player, or a placeholder if it is still being looked up
+     */
+    public @NotNull MutableText getName(@NotNull UUID uuid) {
+        Known known = this.get(uuid);
+        if (known != null)
+            return Text.literal(known.name());
+        
+        // The user cache is kept in memory
+        String cached = this.host.getCachedName(uuid);
+        if (cached != null)
+            return Text.literal(cached);
+        
+        this.resolve(uuid);
+        return Text.literal("Unknown player");
+    }
+    
+    /**
+     * @param uuid The player to get the nickname of
+     * @return The nickname of the player, their name if they have none, or a placeholder if it is still being looked up
+     */
+    public @NotNull MutableText getNick(@NotNull UUID uuid) {
+        Known known = this.get(uuid);
+        if (known == null) {
+            // Look up the nickname even if the name is in the user cache
+            this.resolve(uuid);
+            return this.getName(uuid);
+        }
+        
+        return known.nickname() == null ? Text.literal(known.name()) : FormattingUtils.deepCopy(known.nickname());
+    }
+    
+    public synchronized @Nullable Known get(@NotNull UUID uuid) {
+        return this.known.get(uuid);
+    }
+    
+    /**
+     * Look up the name and nickname of a player in the background, only once for every player
+     * @param uuid The player to look up
+     * @return A future of the players name, or NULL if the lookup failed
+     */
+    public @NotNull CompletableFuture<Known> resolve(@NotNull UUID uuid) {
+        Known known = this.get(uuid);
+        if (known != null)
+            return CompletableFuture.completedFuture(known);
+        
+        // Wait before trying to look up failed names again
+        Long failedAt = this.failed.get(uuid);
+        if (failedAt != null && System.currentTimeMillis() - failedAt < PlayerNameService.RETRY_AFTER)
+            return CompletableFuture.completedFuture(null);
+        
+        CompletableFuture<Known> future = new CompletableFuture<>(), existing;
+        if ((existing = this.pending.putIfAbsent(uuid, future)) != null)
+            return existing;
+        
+        try {
+            this.executor.execute(() -> this.complete(uuid, future));
+        } catch (RejectedExecutionException e) {
+            // The service is closing, don't leave the future waiting forever
+            this.pending.remove(uuid, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    
+    private void complete(@NotNull UUID uuid, @NotNull CompletableFuture<Known> future) {
+        Known result = null;
+        try {
+            result = this.lookup(uuid);
+        } finally {
+            this.pending.remove(uuid, future);
+            if (result == null)
+                this.failed.put(uuid, System.currentTimeMillis());
+            else this.update(uuid, result);
+            future.complete(result);
+        }
+    }
+    
+    private @Nullable Known lookup(@NotNull UUID uuid) {
+        // Read the nickname from the players saved data
+        Text nickname = this.host.readNickname(uuid);
+        
+        // Check the user cache before making a request
+        String name = this.host.getCachedName(uuid);
+        if (name == null) {
+            CoreMod.logInfo("Looking up username of " + uuid);
+            try {
+                name = PlayerNameService.RESOLVER.lookup(uuid);
+            } catch (IOException e) {
+                CoreMod.logError(e);
+            }
+            
+            if (StringUtils.isBlank(name)) {
+                CoreMod.logInfo("Player name of " + uuid + " [LOOKUP FAILED]");
+                return null;
+            }
+            
+            CoreMod.logInfo("Player name of " + uuid + " is " + name);
+            
+            // Save the player name to the cache
+            this.host.cacheName(uuid, name);
+        }
+        
+        return new Known(name, nickname);
+    }
+    
+    /*
+     * Updating
+     */
+    
+    /**
+     * Record the name and nickname of a player that is online
+     * @param uuid The player
+     * @param name The players name
+     * @param nickname The players nickname
+     */
+    public void observe(@NotNull UUID uuid, @NotNull String name, @Nullable Text nickname) {
+        this.update(uuid, new Known(name, nickname));
+    }
+    
+    private void update(@NotNull UUID uuid, @NotNull Known known) {
+        synchronized (this) {
+            if (known.equals(this.known.put(uuid, known)))
+                return;
+            
+            // Write the cache after a delay to collect other changes
+            if (!this.saveQueued) {
+                this.saveQueued = true;
+                try {
+                    this.executor.schedule(this::save, PlayerNameService.SAVE_DELAY, TimeUnit.SECONDS);
+                } catch (RejectedExecutionException ignored) {
+                    // The service is closing, which writes the cache
+                }
+            }
+        }
+        
+        this.failed.remove(uuid);
+        this.host.updated(uuid);
+    }
+    
+    /*
+     * Saving
+     */
+    
+    private void save() {
+        NbtCompound tag = new NbtCompound();
+        synchronized (this) {
+            this.saveQueued = false;
+            for (Map.Entry<UUID, Known> entry : this.known.entrySet()) {
+                Known known = entry.getValue();
+                NbtCompound player = new NbtCompound();
+                player.putString("name", known.name());
+                if (known.nickname() != null)
+                    player.putString("nick", Text.Serializer.toJson(known.nickname()));
+                tag.put(entry.getKey().toString(), player);
+            }
+        }
+        
+        File folder = this.file.getParentFile();
+        if ((folder.exists() || folder.mkdirs()) && !NbtUtils.writeBackupAndMove(this.file, tag))
+            CoreMod.logError("Failed to save the player name cache");
+    }
+    void close() {
+        // Drop the queued lookups and the delayed save, and interrupt a running lookup
+        this.executor.shutdownNow();
+        try {
+            if (!this.executor.awaitTermination(5, TimeUnit.SECONDS))
+                CoreMod.logInfo("Stopped waiting for player name lookups");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // Write the cache on this thread, including anything that was waiting for the delayed save
+        this.save();
+    }
+    private void load() {
+        if (!this.file.exists())
+            return;
+        
+        try {
+            NbtCompound tag = NbtIo.readCompressed(this.file);
+            for (String key : tag.getKeys()) {
+                NbtCompound player = tag.getCompound(key);
+                if (!player.contains("name", NbtElement.STRING_TYPE))
+                    continue;
+                
+                Text nickname = player.contains("nick", NbtElement.STRING_TYPE) ? Text.Serializer.fromJson(player.getString("nick")) : null;
+                this.known.put(UUID.fromString(key), new Known(player.getString("name"), nickname));
+            }
+        } catch (IOException | RuntimeException e) {
+            CoreMod.logError("Failed to read the player name cache", e);
+        }
+    }
+    
+    /*
+     * Instance
+     */
+    
+    public static synchronized @NotNull PlayerNameService get(@NotNull MinecraftServer server) {
+        // Start a new service if the server has changed
+        if (PlayerNameService.INSTANCE == null || PlayerNameService.INSTANCE.server != server) {
+            if (PlayerNameService.INSTANCE != null)
+                PlayerNameService.INSTANCE.close();
+            PlayerNameService.INSTANCE = new PlayerNameService(server);
+        }
+        return PlayerNameService.INSTANCE;
+    }
+    
+    /**
+     * Stop looking up names and write the cache, called when the server stops
+     */
+    public static synchronized void stop() {
+        if (PlayerNameService.INSTANCE != null) {
+            PlayerNameService.INSTANCE.close();
+            PlayerNameService.INSTANCE = null;
+        }
+    }
+    
+    /**
+     * Change where names of unknown players are looked up
+     * @param resolver The resolver to use, such as a local stub
+     */
+    public static void setResolver(@NotNull NameResolver resolver) {
+        PlayerNameService.RESOLVER = Objects.requireNonNull(resolver);
+    }
+    
+    public record Known(@NotNull String name, @Nullable Text nickname) {}
+    
+    /**
+     * Where the service gets what it knows about players from, other than its own cache
+     */
+    interface Host {
+        @Nullable String getCachedName(@NotNull UUID uuid);
+        void cacheName(@NotNull UUID uuid, @NotNull String name);
+        @Nullable Text readNickname(@NotNull UUID uuid);
+        
+        /**
+         * Called after the name or nickname of a player has changed
+         * @param uuid The player
+         */
+        void updated(@NotNull UUID uuid);
+    }
+    
+    private record ServerHost(@NotNull MinecraftServer server) implements Host {
+        @Override
+        public @Nullable String getCachedName(@NotNull UUID uuid) {
+            return this.server.getUserCache()
+                .getByUuid(uuid)
+                .map(GameProfile::getName)
+                .filter(name -> !StringUtils.isBlank(name))
+                .orElse(null);
+        }
+        
+        @Override
+        public void cacheName(@NotNull UUID uuid, @NotNull String name) {
+            this.server.getUserCache()
+                .add(new GameProfile(uuid, name));
+        }
+        
+        @Override
+        public @Nullable Text readNickname(@NotNull UUID uuid) {
+            try {
+                NbtCompound tag = NbtUtils.readOfflinePlayerData(uuid);
+                if (tag.contains("PlayerNickname", NbtElement.STRING_TYPE))
+                    return Text.Serializer.fromJson(tag.getString("PlayerNickname"));
+            } catch (NbtNotFoundException ignored) {}
+            return null;
+        }
+        
+        @Override
+        public void updated(@NotNull UUID uuid) {
+            this.server.execute(() -> PlayerNameUpdateCallback.EVENT.invoker().onUpdate(this.server, uuid));
+        }
+    }
+}
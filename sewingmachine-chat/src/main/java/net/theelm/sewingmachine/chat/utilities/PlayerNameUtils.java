@@ -25,23 +25,16 @@
 
 package net.theelm.sewingmachine.chat.utilities;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.mojang.authlib.GameProfile;
 import net.minecraft.registry.RegistryKey;
 import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.base.config.SewBaseConfig;
 import net.theelm.sewingmachine.chat.interfaces.Nicknamable;
+import net.theelm.sewingmachine.chat.objects.PlayerNameService;
 import net.theelm.sewingmachine.config.SewConfig;
-import net.theelm.sewingmachine.exceptions.NbtNotFoundException;
 import net.theelm.sewingmachine.utilities.DimensionUtils;
 import net.theelm.sewingmachine.utilities.FormattingUtils;
-import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
 import net.theelm.sewingmachine.utilities.text.MessageUtils;
 import net.theelm.sewingmachine.utilities.text.StyleApplicator;
-import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtElement;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.ClickEvent;
@@ -51,15 +44,9 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.world.World;
 import net.theelm.sewingmachine.utilities.text.TextUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.UUID;
 
 public final class PlayerNameUtils {
@@ -103,10 +90,21 @@ public final class PlayerNameUtils {
     }
     
     public static @NotNull MutableText fetchPlayerNick(@NotNull MinecraftServer server, @NotNull UUID uuid) {
-        MutableText out;
-        if ((!uuid.equals(CoreMod.SPAWN_ID)) && ((out = PlayerNameUtils.getOfflinePlayerNickname(uuid)) != null))
-            return out;
-        return PlayerNameUtils.fetchPlayerName(server, uuid);
+        // If we're looking up UUID 0, 0 (Spawn) don't try to do a lookup
+        if ( uuid.equals( CoreMod.SPAWN_ID) )
+            return Text.literal(SewConfig.get(SewBaseConfig.NAME_SPAWN));
+        
+        // Check if there is an online player with UUID
+        ServerPlayerEntity player;
+        if ((player = server.getPlayerManager().getPlayer(uuid)) != null) {
+            Text nickname = ((Nicknamable) player).getPlayerNickname();
+            if (nickname != null)
+                return FormattingUtils.deepCopy(nickname);
+            return (MutableText) player.getName();
+        }
+        
+        return PlayerNameService.get(server)
+            .getNick(uuid);
     }
     public static @NotNull MutableText fetchPlayerName(@NotNull MinecraftServer server, @NotNull UUID uuid) {
         // If we're looking up UUID 0, 0 (Spawn) don't try to do a lookup
@@ -118,59 +116,9 @@ public final class PlayerNameUtils {
         if ((playerName = PlayerNameUtils.getOnlinePlayerName(server, uuid)) != null)
             return playerName;
         
-        String cachedName;
-        if (((cachedName = PlayerNameUtils.getCachedPlayerName(server, uuid)) != null) && (!StringUtils.isBlank(cachedName)))
-            return Text.literal(cachedName);
-        
-        // Log that a request is being made
-        CoreMod.logInfo("Looking up username of " + uuid);
-        
-        HttpURLConnection connection = null;
-        try {
-            // Create the URL
-            URL url = new URL( "https://api.mojang.com/user/profiles/" + PlayerNameUtils.stripUUID(uuid) + "/names" );
-            
-            // Opening connection 
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod( "GET" );
-            
-            // Buffered reader
-            try (BufferedReader in = new BufferedReader(
-                new InputStreamReader(connection.getInputStream())
-            )) {
-                String line;
-                StringBuilder content = new StringBuilder();
-                while ((line = in.readLine()) != null) {
-                    content.append(line);
-                }
-                
-                JsonArray nameHistory = JsonParser.parseString(content.toString()).getAsJsonArray();
-                JsonObject nameLatest = nameHistory.get( nameHistory.size() - 1 ).getAsJsonObject();
-                
-                GameProfile profile = new GameProfile(
-                    uuid,
-                    nameLatest.get("name").getAsString()
-                );
-                
-                playerName = Text.literal(profile.getName());
-                
-                // Save the player name to the cache
-                server.getUserCache()
-                    .add(profile);
-            }
-            
-        } catch (IOException e) {
-            CoreMod.logError( e );
-            
-        } finally {
-            if (connection != null)
-                connection.disconnect();
-            if ( playerName == null )
-                CoreMod.logInfo("Player name of " + uuid + " [LOOKUP FAILED]");
-            else CoreMod.logInfo("Player name of " + uuid + " is " + playerName.getString());
-        }
-        
-        return ( playerName == null ? Text.literal("Unknown player") : playerName );
+        // Use the cached name, or look it up in the background
+        return PlayerNameService.get(server)
+            .getName(uuid);
     }
     private static @Nullable MutableText getOnlinePlayerName(@NotNull MinecraftServer server, @NotNull UUID uuid) {
         ServerPlayerEntity player;
@@ -178,23 +126,5 @@ public final class PlayerNameUtils {
             return null;
         return (MutableText) player.getName();
     }
-    private static @Nullable String getCachedPlayerName(@NotNull MinecraftServer server, @NotNull UUID uuid) {
-        return server.getUserCache()
-            .getByUuid(uuid)
-            .map(GameProfile::getName)
-            .orElse(null);
-    }
-    private static @Nullable MutableText getOfflinePlayerNickname(@NotNull UUID uuid) {
-        try {
-            NbtCompound tag = NbtUtils.readOfflinePlayerData(uuid);
-            if ((tag != null) && tag.contains("PlayerNickname", NbtElement.STRING_TYPE))
-                return Text.Serializer.fromJson(tag.getString("PlayerNickname"));
-        } catch (NbtNotFoundException ignored) {}
-        return null;
-    }
-    
-    private static @NotNull String stripUUID(@NotNull UUID uuid) {
-        return uuid.toString().replace("-", "");
-    }
     
 }
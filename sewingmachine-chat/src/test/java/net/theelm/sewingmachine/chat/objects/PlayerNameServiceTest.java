@@ -0,0 +1,206 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.chat.objects;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlayerNameServiceTest {
+    @TempDir
+    File folder;
+    
+    @BeforeAll
+    public static void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+    
+    @AfterAll
+    public static void teardown() {
+        PlayerNameService.setResolver(new HttpNameResolver(HttpNameResolver.MOJANG));
+    }
+    
+    @Test
+    public void lookupsAreDeduplicated() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        PlayerNameService.setResolver(player -> {
+            lookups.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "Steve";
+        });
+        
+        StubHost host = new StubHost();
+        PlayerNameService service = new PlayerNameService(null, this.file(), host);
+        try {
+            // Asking again while the lookup is running shares the same future
+            CompletableFuture<PlayerNameService.Known> first = service.resolve(uuid);
+            CompletableFuture<PlayerNameService.Known> second = service.resolve(uuid);
+            assertSame(first, second);
+            
+            release.countDown();
+            PlayerNameService.Known known = first.get(5, TimeUnit.SECONDS);
+            assertNotNull(known);
+            assertEquals("Steve", known.name());
+            assertEquals(1, lookups.get());
+            
+            // The name is cached and listeners are told about it
+            assertEquals("Steve", host.names.get(uuid));
+            assertTrue(host.updated.contains(uuid));
+            assertEquals(known, service.resolve(uuid).getNow(null));
+            assertEquals(1, lookups.get());
+        } finally {
+            service.close();
+        }
+    }
+    
+    @Test
+    public void leastRecentlyUsedNamesAreEvicted() {
+        PlayerNameService service = new PlayerNameService(null, this.file(), new StubHost());
+        try {
+            UUID eldest = UUID.randomUUID();
+            UUID filler = UUID.randomUUID();
+            service.observe(eldest, "Eldest", null);
+            service.observe(filler, "Filler", null);
+            for (int i = 2; i < PlayerNameService.MAX_CACHED; i++)
+                service.observe(UUID.randomUUID(), "Player" + i, null);
+            
+            // Reading a name keeps it in the cache
+            assertNotNull(service.get(eldest));
+            
+            // So the next least recently used name is dropped instead
+            UUID newest = UUID.randomUUID();
+            service.observe(newest, "Newest", null);
+            assertNotNull(service.get(eldest));
+            assertNotNull(service.get(newest));
+            assertNull(service.get(filler));
+        } finally {
+            service.close();
+        }
+    }
+    
+    @Test
+    public void namesAreSavedAndLoaded() {
+        UUID plain = UUID.randomUUID();
+        UUID nicked = UUID.randomUUID();
+        Text nickname = Text.literal("Nick").formatted(Formatting.AQUA);
+        
+        PlayerNameService service = new PlayerNameService(null, this.file(), new StubHost());
+        service.observe(plain, "Plain", null);
+        service.observe(nicked, "Nicked", nickname);
+        service.close();
+        assertTrue(this.file().exists());
+        
+        service = new PlayerNameService(null, this.file(), new StubHost());
+        try {
+            assertEquals(new PlayerNameService.Known("Plain", null), service.get(plain));
+            PlayerNameService.Known known = service.get(nicked);
+            assertNotNull(known);
+            assertEquals("Nicked", known.name());
+            assertEquals(nickname, known.nickname());
+        } finally {
+            service.close();
+        }
+    }
+    
+    @Test
+    public void lookupsAfterClosingFail() {
+        PlayerNameService.setResolver(player -> "Steve");
+        PlayerNameService service = new PlayerNameService(null, this.file(), new StubHost());
+        service.close();
+        
+        // The future is failed instead of waiting forever, and isn't kept as pending
+        UUID uuid = UUID.randomUUID();
+        CompletableFuture<PlayerNameService.Known> future = service.resolve(uuid);
+        assertTrue(future.isCompletedExceptionally());
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertNotSame(future, service.resolve(uuid));
+    }
+    
+    private @NotNull File file() {
+        return new File(this.folder, "names.dat");
+    }
+    
+    private static final class StubHost implements PlayerNameService.Host {
+        private final @NotNull Map<UUID, String> names = new ConcurrentHashMap<>();
+        private final @NotNull Set<UUID> updated = ConcurrentHashMap.newKeySet();
+        
+        @Override
+        public @Nullable String getCachedName(@NotNull UUID uuid) {
+            return this.names.get(uuid);
+        }
+        
+        @Override
+        public void cacheName(@NotNull UUID uuid, @NotNull String name) {
+            this.names.put(uuid, name);
+        }
+        
+        @Override
+        public @Nullable Text readNickname(@NotNull UUID uuid) {
+            return null;
+        }
+        
+        @Override
+        public void updated(@NotNull UUID uuid) {
+            this.updated.add(uuid);
+        }
+    }
+}
@@ -26,6 +26,8 @@
 package net.theelm.sewingmachine.deathchests;
 
 import net.fabricmc.api.ModInitializer;
+import net.theelm.sewingmachine.commands.abstraction.AbstractSewCommand;
+import net.theelm.sewingmachine.deathchests.commands.DeathChestCommand;
 import net.theelm.sewingmachine.deathchests.config.SewDeathConfig;
 import net.theelm.sewingmachine.interfaces.SewPlugin;
 import org.jetbrains.annotations.NotNull;
@@ -42,6 +44,13 @@ public final class ServerCore implements ModInitializer, SewPlugin {
         
     }
     
+    @Override
+    public @NotNull AbstractSewCommand<?>[] getCommands() {
+        return new AbstractSewCommand<?>[] {
+            new DeathChestCommand()
+        };
+    }
+    
     @Override
     public @NotNull Optional<Class<?>> getConfigClass() {
         return Optional.of(SewDeathConfig.class);
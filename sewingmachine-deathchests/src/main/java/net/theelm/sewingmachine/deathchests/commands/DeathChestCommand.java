@@ -0,0 +1,167 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.deathchests.commands;
+
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.command.CommandRegistryAccess;
+import net.minecraft.command.argument.EntityArgumentType;
+import net.minecraft.command.argument.GameProfileArgumentType;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.theelm.sewingmachine.commands.abstraction.SewCommand;
+import net.theelm.sewingmachine.deathchests.objects.DeathRegistry;
+import net.theelm.sewingmachine.enums.OpLevels;
+import net.theelm.sewingmachine.interfaces.CommandPredicate;
+import net.theelm.sewingmachine.utilities.CommandUtils;
+import net.theelm.sewingmachine.utilities.DimensionUtils;
+import net.theelm.sewingmachine.utilities.text.MessageUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Find and restore the contents of death chests from the death registry
+ */
+public final class DeathChestCommand implements SewCommand {
+    @Override
+    public void register(@NotNull CommandDispatcher<ServerCommandSource> dispatcher, @NotNull CommandRegistryAccess registry) {
+        CommandUtils.register(dispatcher, "deathchests", builder -> builder
+            .requires(CommandPredicate.opLevel(OpLevels.CHEATING))
+            .then(CommandManager.literal("player")
+                .then(CommandManager.argument("player", GameProfileArgumentType.gameProfile())
+                    .executes(this::listPlayer)
+                )
+            )
+            .then(CommandManager.literal("here")
+                .executes(this::listHere)
+            )
+            .then(CommandManager.literal("restore")
+                .then(CommandManager.argument("death", IntegerArgumentType.integer(1))
+                    .then(CommandManager.argument("target", EntityArgumentType.player())
+                        .executes(context -> this.restore(context, EntityArgumentType.getPlayer(context, "target")))
+                    )
+                    .executes(context -> this.restore(context, context.getSource().getPlayerOrThrow()))
+                )
+            )
+        );
+    }
+    
+    private int listPlayer(@NotNull CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        ServerCommandSource source = context.getSource();
+        Collection<GameProfile> profiles = GameProfileArgumentType.getProfileArgument(context, "player");
+        DeathRegistry registry = DeathRegistry.get();
+        
+        int count = 0;
+        for (GameProfile profile : profiles)
+            count += this.list(source, registry.getDeaths(profile.getId()));
+        return count;
+    }
+    private int listHere(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        ChunkPos chunk = new ChunkPos(BlockPos.ofFloored(source.getPosition()));
+        
+        return this.list(source, DeathRegistry.get().getDeaths(source.getWorld().getRegistryKey(), chunk));
+    }
+    private int list(@NotNull ServerCommandSource source, @NotNull List<DeathRegistry.Death> deaths) {
+        if (deaths.isEmpty()) {
+            source.sendFeedback(() -> Text.literal("No death chests were found.").formatted(Formatting.YELLOW), false);
+            return 0;
+        }
+        
+        for (DeathRegistry.Death death : deaths) {
+            MutableText text = Text.literal("#" + death.id + " ")
+                .formatted(death.isClaimed() ? Formatting.GRAY : Formatting.AQUA)
+                .append(MessageUtils.xyzToText(death.pos))
+                .append(" ")
+                .append(DimensionUtils.longDimensionName(death.dimension));
+            if (death.isClaimed())
+                text.append(Text.literal(" (Claimed)").formatted(Formatting.GRAY));
+            source.sendFeedback(() -> text, false);
+        }
+        
+        return deaths.size();
+    }
+    
+    private int restore(@NotNull CommandContext<ServerCommandSource> context, @NotNull ServerPlayerEntity target) {
+        ServerCommandSource source = context.getSource();
+        int id = IntegerArgumentType.getInteger(context, "death");
+        
+        DeathRegistry registry = DeathRegistry.get();
+        DeathRegistry.Death death = registry.getDeath(id);
+        if (death == null) {
+            source.sendError(Text.literal("Death chest #" + id + " could not be found."));
+            return 0;
+        }
+        if (death.isClaimed()) {
+            source.sendError(Text.literal("Death chest #" + id + " has already been claimed."));
+            return 0;
+        }
+        
+        // Read the items from the journal off of the server thread
+        registry.read(death).thenAcceptAsync(tag -> {
+            if (tag == null) {
+                source.sendError(Text.literal("Death chest #" + id + " could not be read."));
+                return;
+            }
+            
+            // The corpse may have been emptied while reading
+            if (death.isClaimed()) {
+                source.sendError(Text.literal("Death chest #" + id + " has already been claimed."));
+                return;
+            }
+            
+            // Claim first so the corpse can no longer hand out the same items
+            registry.claim(id);
+            
+            // Give all of the items and experience to the target
+            for (String key : new String[] { "inventory", "backpack" }) {
+                for (NbtElement item : tag.getList(key, NbtElement.COMPOUND_TYPE))
+                    target.getInventory().offerOrDrop(ItemStack.fromNbt((NbtCompound) item));
+            }
+            target.addExperience(tag.getInt("xp"));
+            
+            source.sendFeedback(() -> Text.literal("Restored death chest #" + id + " to ")
+                .append(target.getDisplayName()), true);
+        }, source.getServer());
+        
+        return Command.SINGLE_SUCCESS;
+    }
+}
@@ -33,4 +33,5 @@ public interface PlayerCorpse {
         this.setCorpseData(owner, inventory, new NbtList());
     }
     void setCorpseData(UUID owner, NbtList inventory, NbtList backpack);
+    void setCorpseDeath(int death);
 }
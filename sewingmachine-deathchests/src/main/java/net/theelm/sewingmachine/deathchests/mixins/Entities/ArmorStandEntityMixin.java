@@ -48,6 +48,7 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.theelm.sewingmachine.interfaces.BackpackCarrier;
 import net.theelm.sewingmachine.deathchests.interfaces.PlayerCorpse;
+import net.theelm.sewingmachine.deathchests.objects.DeathRegistry;
 import net.theelm.sewingmachine.base.objects.PlayerBackpack;
 import net.theelm.sewingmachine.utilities.EntityUtils;
 import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
@@ -70,6 +71,7 @@ public abstract class ArmorStandEntityMixin extends LivingEntity implements Play
     private UUID corpsePlayerUUID = null;
     private NbtList corpsePlayerItems = null;
     private NbtList corpsePlayerBackpack = null;
+    private int corpseDeath = 0;
     
     protected ArmorStandEntityMixin(EntityType<? extends LivingEntity> entityType, World world) {
         super(entityType, world);
@@ -106,9 +108,25 @@ public abstract class ArmorStandEntityMixin extends LivingEntity implements Play
         this.corpsePlayerItems = inventory;
         this.corpsePlayerBackpack = backpack;
     }
+    @Override
+    public void setCorpseDeath(int death) {
+        this.corpseDeath = death;
+    }
     private void giveCorpseItems(@NotNull final PlayerEntity player) {
         Iterator<NbtElement> items;
         
+        // If the death was already restored by command, the contents are gone
+        if (this.corpseDeath > 0) {
+            DeathRegistry.Death death = DeathRegistry.get()
+                .getDeath(this.corpseDeath);
+            if (death != null && death.isClaimed()) {
+                this.corpsePlayerItems = null;
+                this.corpsePlayerBackpack = null;
+                this.corpseDeath = 0;
+                return;
+            }
+        }
+        
         // Get all of the items to give back
         if (this.corpsePlayerItems != null) {
             items = this.corpsePlayerItems.iterator();
@@ -154,6 +172,13 @@ public abstract class ArmorStandEntityMixin extends LivingEntity implements Play
                 items.remove();
             }
         }
+        
+        // Mark the death as returned once everything has been given back
+        if (this.corpseDeath > 0 && ((this.corpsePlayerItems == null) || this.corpsePlayerItems.isEmpty()) && ((this.corpsePlayerBackpack == null) || this.corpsePlayerBackpack.isEmpty())) {
+            DeathRegistry.get()
+                .claim(this.corpseDeath);
+            this.corpseDeath = 0;
+        }
     }
     private void returnItemsToPlayer(@NotNull final PlayerEntity player) {
         // Give the items back to the player
@@ -191,6 +216,8 @@ public abstract class ArmorStandEntityMixin extends LivingEntity implements Play
                 tag.put("corpsePlayerItems", this.corpsePlayerItems);
             if ((this.corpsePlayerBackpack != null) && (!this.corpsePlayerBackpack.isEmpty()))
                 tag.put("corpsePlayerBackpack", this.corpsePlayerBackpack);
+            if (this.corpseDeath > 0)
+                tag.putInt("corpseDeath", this.corpseDeath);
         }
     }
     @Inject(at=@At("TAIL"), method = "readCustomDataFromNbt")
@@ -201,6 +228,8 @@ public abstract class ArmorStandEntityMixin extends LivingEntity implements Play
                 this.corpsePlayerItems = tag.getList("corpsePlayerItems", NbtElement.COMPOUND_TYPE);
             if (tag.contains("corpsePlayerBackpack", NbtElement.LIST_TYPE))
                 this.corpsePlayerBackpack = tag.getList("corpsePlayerBackpack", NbtElement.COMPOUND_TYPE);
+            if (tag.contains("corpseDeath", NbtElement.INT_TYPE))
+                this.corpseDeath = tag.getInt("corpseDeath");
         }
     }
 }
@@ -0,0 +1,422 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.deathchests.objects;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.objects.SewModules;
+import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every death chest that has been created, so lost inventories can be found and restored without loading
+ *   the chunk that the corpse is in. Deaths are written to a journal on a background thread before the corpse
+ *   is spawned, and a second entry is appended once the corpse has been emptied. Claimed deaths are compacted
+ *   down to just their location once enough of them have built up.
+ *   Only the location of each death is kept in memory, the items are read back from the journal when needed.
+ */
+public final class DeathRegistry {
+    private static final String JOURNAL = "deaths.journal";
+    private static final int COMPACT_AFTER = 64;
+    
+    private static @Nullable DeathRegistry INSTANCE = null;
+    
+    private final @NotNull File folder;
+    private final @NotNull ExecutorService executor;
+    
+    private final @NotNull Map<Integer, Death> deaths = new HashMap<>();
+    private final @NotNull Map<UUID, List<Death>> players = new HashMap<>();
+    private final @NotNull Map<RegistryKey<World>, Long2ObjectMap<List<Death>>> chunks = new HashMap<>();
+    
+    private int next = 1;
+    private int stale = 0;
+    
+    private DeathRegistry(@NotNull File folder) {
+        this.folder = folder;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Death chest journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.load();
+    }
+    
+    /*
+     * Recording
+     */
+    
+    /**
+     * Record a new death, the contents are written to the journal in the background
+     * @param player The player that died
+     * @param dimension The dimension the corpse is in
+     * @param pos The position of the corpse
+     * @param xp The experience of the player
+     * @param inventory The items in the players inventory
+     * @param backpack The items in the players backpack
+     * @return The ID of the death once it is on the disk, or 0 if it could not be written
+     */
+    public synchronized @NotNull CompletableFuture<Integer> record(@NotNull UUID player, @NotNull RegistryKey<World> dimension, @NotNull BlockPos pos, int xp, @NotNull NbtList inventory, @NotNull NbtList backpack) {
+        Death death = new Death(this.next++, player, dimension, pos, System.currentTimeMillis());
+        
+        NbtCompound tag = death.toTag();
+        tag.putInt("xp", xp);
+        tag.put("inventory", inventory.copy());
+        tag.put("backpack", backpack.copy());
+        
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                long offset = this.append(tag);
+                synchronized (this) {
+                    death.offset = offset;
+                    this.index(death);
+                }
+                return death.id;
+            } catch (IOException e) {
+                CoreMod.logError("Failed to write death " + death.id + " to the death chest journal", e);
+                return 0;
+            }
+        }, this.executor);
+    }
+    
+    /**
+     * Mark a death as having been returned to its owner, the claim is written to the journal in the background
+     * @param id The ID of the death
+     */
+    public synchronized void claim(int id) {
+        Death death = this.deaths.get(id);
+        if (death == null || death.claimed)
+            return;
+        death.claimed = true;
+        
+        // The claimed death and the claim itself are both dead weight in the journal
+        this.stale += 2;
+        
+        NbtCompound tag = new NbtCompound();
+        tag.putInt("claimed", id);
+        this.executor.execute(() -> {
+            try {
+                this.append(tag);
+            } catch (IOException e) {
+                CoreMod.logError("Failed to write to the death chest journal", e);
+            }
+            if (this.isStale())
+                this.compact();
+        });
+    }
+    
+    private long append(@NotNull NbtCompound tag) throws IOException {
+        File journal = new File(this.folder, DeathRegistry.JOURNAL);
+        try (FileOutputStream stream = new FileOutputStream(journal, true)) {
+            long offset = stream.getChannel().position();
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+            NbtIo.write(tag, output);
+            output.flush();
+            
+            // Make sure the death is on the disk before continuing
+            stream.getFD().sync();
+            return offset;
+        }
+    }
+    
+    private synchronized boolean isStale() {
+        return this.stale >= DeathRegistry.COMPACT_AFTER;
+    }
+    
+    /**
+     * Rewrite the journal with only the location of claimed deaths, and without any of the claims.
+     *   Only called on the journal thread, so nothing else is writing to the journal while it is replaced.
+     */
+    private void compact() {
+        File journal = new File(this.folder, DeathRegistry.JOURNAL);
+        File temp = new File(this.folder, DeathRegistry.JOURNAL + ".tmp");
+        
+        List<Death> deaths;
+        int stale;
+        synchronized (this) {
+            deaths = new ArrayList<>(this.deaths.values());
+            stale = this.stale;
+        }
+        deaths.sort((a, b) -> Integer.compare(a.id, b.id));
+        long[] offsets = new long[deaths.size()];
+        
+        try (
+            RandomAccessFile file = new RandomAccessFile(journal, "r");
+            FileOutputStream stream = new FileOutputStream(temp)
+        ) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+            for (int i = 0; i < deaths.size(); i++) {
+                Death death = deaths.get(i);
+                NbtCompound tag;
+                if (death.claimed) {
+                    tag = death.toTag();
+                    tag.putBoolean("claimed", true);
+                } else {
+                    file.seek(death.offset);
+                    tag = NbtIo.read(file);
+                }
+                
+                offsets[i] = output.size();
+                NbtIo.write(tag, output);
+            }
+            output.flush();
+            stream.getFD().sync();
+        } catch (IOException e) {
+            CoreMod.logError("Failed to compact the death chest journal", e);
+            return;
+        }
+        
+        try {
+            Files.move(temp.toPath(), journal.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            CoreMod.logError("Failed to replace the death chest journal", e);
+            return;
+        }
+        
+        synchronized (this) {
+            for (int i = 0; i < deaths.size(); i++)
+                deaths.get(i).offset = offsets[i];
+            
+            // Deaths claimed while compacting are still in the new journal
+            this.stale -= stale;
+        }
+    }
+    
+    /*
+     * Querying
+     */
+    
+    public synchronized @Nullable Death getDeath(int id) {
+        return this.deaths.get(id);
+    }
+    public synchronized @NotNull List<Death> getDeaths(@NotNull UUID player) {
+        List<Death> deaths = this.players.get(player);
+        return deaths == null ? Collections.emptyList() : new ArrayList<>(deaths);
+    }
+    public synchronized @NotNull List<Death> getDeaths(@NotNull RegistryKey<World> dimension, @NotNull ChunkPos chunk) {
+        Long2ObjectMap<List<Death>> chunks = this.chunks.get(dimension);
+        List<Death> deaths = chunks == null ? null : chunks.get(chunk.toLong());
+        return deaths == null ? Collections.emptyList() : new ArrayList<>(deaths);
+    }
+    
+    /**
+     * Read the contents of a death back from the journal in the background
+     * @param death The death to read
+     * @return The tag containing "xp", "inventory" and "backpack", or NULL if it could not be read
+     */
+    public @NotNull CompletableFuture<NbtCompound> read(@NotNull Death death) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (RandomAccessFile file = new RandomAccessFile(new File(this.folder, DeathRegistry.JOURNAL), "r")) {
+                file.seek(death.offset);
+                return NbtIo.read(file);
+            } catch (IOException e) {
+                CoreMod.logError("Failed to read death " + death.id + " from the death chest journal", e);
+            }
+            return null;
+        }, this.executor);
+    }
+    
+    private void index(@NotNull Death death) {
+        this.deaths.put(death.id, death);
+        this.players.computeIfAbsent(death.player, uuid -> new ArrayList<>())
+            .add(death);
+        Long2ObjectMap<List<Death>> chunks = this.chunks.computeIfAbsent(death.dimension, key -> new Long2ObjectOpenHashMap<>());
+        long chunk = ChunkPos.toLong(death.pos.getX() >> 4, death.pos.getZ() >> 4);
+        List<Death> deaths = chunks.get(chunk);
+        if (deaths == null)
+            chunks.put(chunk, deaths = new ArrayList<>());
+        deaths.add(death);
+    }
+    
+    private void load() {
+        if (!this.folder.exists() && !this.folder.mkdirs())
+            CoreMod.logError("Could not create the death chest folder \"" + this.folder.getAbsolutePath() + "\"");
+        
+        File journal = new File(this.folder, DeathRegistry.JOURNAL);
+        if (!journal.exists())
+            return;
+        
+        try {
+            byte[] bytes = Files.readAllBytes(journal.toPath());
+            ByteArrayInputStream stream = new ByteArrayInputStream(bytes);
+            DataInputStream input = new DataInputStream(stream);
+            
+            int unclaimed = 0;
+            while (stream.available() > 0) {
+                long offset = bytes.length - stream.available();
+                NbtCompound tag;
+                try {
+                    tag = NbtIo.read(input);
+                } catch (IOException e) {
+                    // A partially written entry from a crash, drop it so new entries can be read back
+                    CoreMod.logError("Discarding a partial entry at the end of the death chest journal");
+                    try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+                        file.setLength(offset);
+                    }
+                    break;
+                }
+                
+                // Claims are stored as an int, compacted deaths are flagged with a boolean
+                if (tag.contains("claimed", NbtElement.INT_TYPE)) {
+                    Death death = this.deaths.get(tag.getInt("claimed"));
+                    if (death != null && !death.claimed) {
+                        death.claimed = true;
+                        unclaimed--;
+                        this.stale += 2;
+                    }
+                } else {
+                    Death death = Death.fromTag(tag);
+                    if (death == null)
+                        continue;
+                    death.offset = offset;
+                    death.claimed = tag.getBoolean("claimed");
+                    this.index(death);
+                    this.next = Math.max(this.next, death.id + 1);
+                    if (!death.claimed)
+                        unclaimed++;
+                }
+            }
+            
+            if (!this.deaths.isEmpty())
+                CoreMod.logInfo("Loaded " + this.deaths.size() + " death chests (" + unclaimed + " unclaimed).");
+        } catch (IOException e) {
+            CoreMod.logError("Failed to read the death chest journal", e);
+        }
+        
+        if (this.stale > 0)
+            this.executor.execute(this::compact);
+    }
+    
+    private void close() {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(10, TimeUnit.SECONDS))
+                CoreMod.logError("Timed out writing the death chest journal");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /*
+     * Instance
+     */
+    
+    public static synchronized @NotNull DeathRegistry get() {
+        File folder = new File(NbtUtils.levelNameFolder().toAbsolutePath().toFile(), SewModules.MODULE);
+        
+        // Open a new registry if the world has changed
+        if (DeathRegistry.INSTANCE == null || !DeathRegistry.INSTANCE.folder.equals(folder)) {
+            if (DeathRegistry.INSTANCE != null)
+                DeathRegistry.INSTANCE.close();
+            DeathRegistry.INSTANCE = new DeathRegistry(folder);
+        }
+        
+        return DeathRegistry.INSTANCE;
+    }
+    public static synchronized void stop() {
+        if (DeathRegistry.INSTANCE != null) {
+            DeathRegistry.INSTANCE.close();
+            DeathRegistry.INSTANCE = null;
+        }
+    }
+    
+    public static final class Death {
+        public final int id;
+        public final @NotNull UUID player;
+        public final @NotNull RegistryKey<World> dimension;
+        public final @NotNull BlockPos pos;
+        public final long time;
+        
+        private volatile boolean claimed = false;
+        private long offset = -1;
+        
+        private Death(int id, @NotNull UUID player, @NotNull RegistryKey<World> dimension, @NotNull BlockPos pos, long time) {
+            this.id = id;
+            this.player = player;
+            this.dimension = dimension;
+            this.pos = pos;
+            this.time = time;
+        }
+        
+        public boolean isClaimed() {
+            return this.claimed;
+        }
+        
+        private @NotNull NbtCompound toTag() {
+            NbtCompound tag = new NbtCompound();
+            tag.putInt("id", this.id);
+            tag.putUuid("player", this.player);
+            tag.putString("dimension", NbtUtils.worldToTag(this.dimension));
+            tag.put("pos", NbtUtils.blockPosToTag(this.pos));
+            tag.putLong("time", this.time);
+            return tag;
+        }
+        private static @Nullable Death fromTag(@NotNull NbtCompound tag) {
+            if (!tag.contains("id", NbtElement.INT_TYPE) || !tag.containsUuid("player") || !tag.contains("pos", NbtElement.COMPOUND_TYPE))
+                return null;
+            BlockPos pos = NbtUtils.tagToBlockPos(tag.getCompound("pos"));
+            if (pos == null)
+                return null;
+            return new Death(
+                tag.getInt("id"),
+                tag.getUuid("player"),
+                NbtUtils.worldRegistryFromTag(tag.get("dimension")),
+                pos,
+                tag.getLong("time")
+            );
+        }
+    }
+}
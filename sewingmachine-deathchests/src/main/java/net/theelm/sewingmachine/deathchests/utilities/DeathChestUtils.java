@@ -25,11 +25,16 @@
 
 package net.theelm.sewingmachine.deathchests.utilities;
 
+import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.config.SewConfig;
 import net.theelm.sewingmachine.deathchests.config.SewDeathConfig;
 import net.theelm.sewingmachine.interfaces.BackpackCarrier;
 import net.theelm.sewingmachine.deathchests.interfaces.PlayerCorpse;
+import net.theelm.sewingmachine.deathchests.objects.DeathRegistry;
 import net.theelm.sewingmachine.base.objects.PlayerBackpack;
 import net.theelm.sewingmachine.utilities.ServerText;
 import net.theelm.sewingmachine.utilities.text.MessageUtils;
@@ -56,9 +61,14 @@ import net.minecraft.text.TextColor;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Hand;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.EulerAngle;
+import net.minecraft.world.Heightmap;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
 import net.minecraft.world.dimension.DimensionType;
 import net.theelm.sewingmachine.utilities.text.TextUtils;
 import org.jetbrains.annotations.NotNull;
@@ -71,8 +81,6 @@ public final class DeathChestUtils {
     private DeathChestUtils() {}
     
     public static @Nullable BlockPos getChestPosition(@NotNull final World world, @NotNull final BlockPos deathPoint) {
-        BlockPos out;
-        
         // Get the max Y (Spawn Height)
         int maxY = SewConfig.get(SewDeathConfig.MAX_DEATH_ELEVATION);
         if (maxY < 0)
@@ -82,9 +90,18 @@ public final class DeathChestUtils {
         int upper = Collections.min(Arrays.asList(world.getTopY(), deathPoint.getY() + maxY));
         
         // Get the max X/Z (Spawn Radius)
-        int maxX = SewConfig.get(SewDeathConfig.MAX_DEATH_SCAN);
+        int radius = SewConfig.get(SewDeathConfig.MAX_DEATH_SCAN);
+        
+        return DeathChestUtils.getChestPosition(new ChestSearch(world::getChunk), deathPoint, upper, radius);
+    }
+    static @Nullable BlockPos getChestPosition(@NotNull final ChestSearch search, @NotNull final BlockPos deathPoint, int upper, int radius) {
+        BlockPos out;
+        int maxX = radius;
         int maxI = 1 + ((maxX * maxX) * 4) + (maxX * 4);
         
+        // Above the surface the center column is always open, so the search always ends there
+        upper = Math.min(upper, Math.max(deathPoint.getY(), search.getSurface(deathPoint.getX(), deathPoint.getZ()) + 1) + 1);
+        
         for ( int y = deathPoint.getY(); y < upper; y++ ) {
             int x = 0;
             int z = 0;
@@ -93,7 +110,7 @@ public final class DeathChestUtils {
             
             for (int i = 0; i < maxI; i++) {
                 BlockPos check = new BlockPos(x + deathPoint.getX(), y, z + deathPoint.getZ());
-                if ((out = DeathChestUtils.isValid(world, check)) != null)
+                if ((out = search.isValid(check)) != null)
                     return out.down();
                 if ((x == z) || ((x < 0) && (x == -z)) || ((x > 0) && (x == 1 - z))) {
                     maxX = dX;
@@ -107,11 +124,16 @@ public final class DeathChestUtils {
         
         return null;
     }
-    private static @Nullable BlockPos isValid(@NotNull final World world, @NotNull final BlockPos blockPos) {
-        Block block = world.getBlockState(blockPos).getBlock();
+    private static boolean isOpen(@NotNull final BlockState state) {
+        Block block = state.getBlock();
+        return block.equals(Blocks.AIR) || block.equals(Blocks.CAVE_AIR) || block.equals(Blocks.WATER)
+            || (block instanceof SlabBlock && state.get(SlabBlock.TYPE) == SlabType.BOTTOM);
+    }
+    private static @Nullable BlockPos isValid(@NotNull final Chunk chunk, @NotNull final BlockPos blockPos, @NotNull final BlockState state) {
+        Block block = state.getBlock();
         
         // If AIR, A-O-KAY
-        if (block.equals(Blocks.AIR) || block.equals(Blocks.CAVE_AIR) || (block instanceof SlabBlock && world.getBlockState(blockPos).get(SlabBlock.TYPE) == SlabType.BOTTOM))
+        if (block.equals(Blocks.AIR) || block.equals(Blocks.CAVE_AIR) || (block instanceof SlabBlock && state.get(SlabBlock.TYPE) == SlabType.BOTTOM))
             return blockPos;
         
         // If WATER, Sink
@@ -119,7 +141,7 @@ public final class DeathChestUtils {
             BlockPos seaFloor = blockPos;
             do {
                 seaFloor = seaFloor.down();
-            } while ((world.getBlockState(seaFloor).getBlock().equals(Blocks.WATER)) || (world.getFluidState(seaFloor).getFluid() == Fluids.WATER));
+            } while ((chunk.getBlockState(seaFloor).getBlock().equals(Blocks.WATER)) || (chunk.getFluidState(seaFloor).getFluid() == Fluids.WATER));
             return seaFloor.up(); // Get the block ABOVE the sea floor
         }
         
@@ -127,6 +149,69 @@ public final class DeathChestUtils {
         return null;
     }
     
+    /**
+     * Checks positions for a death chest using the chunks heightmaps and section palettes, so that
+     *   solid sections (Like underground or in a lava lake) are skipped without reading each block
+     */
+    static final class ChestSearch {
+        private final @NotNull ChunkGetter getter;
+        private final @NotNull Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+        private final @NotNull Long2BooleanMap sections = new Long2BooleanOpenHashMap();
+        
+        ChestSearch(@NotNull ChunkGetter getter) {
+            this.getter = getter;
+        }
+        
+        private @NotNull Chunk getChunk(int x, int z) {
+            long pos = ChunkPos.toLong(x >> 4, z >> 4);
+            Chunk chunk = this.chunks.get(pos);
+            if (chunk == null)
+                this.chunks.put(pos, chunk = this.getter.getChunk(x >> 4, z >> 4));
+            return chunk;
+        }
+        
+        /**
+         * @return The Y of the highest block in the column that isn't air
+         */
+        private int getSurface(int x, int z) {
+            return this.getChunk(x, z).sampleHeightmap(Heightmap.Type.WORLD_SURFACE, x, z);
+        }
+        
+        private @Nullable BlockPos isValid(@NotNull BlockPos blockPos) {
+            int x = blockPos.getX();
+            int y = blockPos.getY();
+            int z = blockPos.getZ();
+            
+            Chunk chunk = this.getChunk(x, z);
+            if (chunk.isOutOfHeightLimit(y))
+                return null;
+            
+            // Everything above the surface is air
+            if (y > chunk.sampleHeightmap(Heightmap.Type.WORLD_SURFACE, x, z))
+                return blockPos;
+            
+            ChunkSection section = chunk.getSection(chunk.getSectionIndex(y));
+            if (section.isEmpty())
+                return blockPos;
+            
+            // Skip sections where the palette has no blocks that could hold a chest
+            long sectionPos = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            boolean open;
+            if (this.sections.containsKey(sectionPos))
+                open = this.sections.get(sectionPos);
+            else this.sections.put(sectionPos, open = section.hasAny(DeathChestUtils::isOpen));
+            if (!open)
+                return null;
+            
+            return DeathChestUtils.isValid(chunk, blockPos, section.getBlockState(x & 15, y & 15, z & 15));
+        }
+    }
+    
+    @FunctionalInterface
+    interface ChunkGetter {
+        @NotNull Chunk getChunk(int x, int z);
+    }
+    
     public static boolean createDeathChestFor(@NotNull final PlayerEntity player, @NotNull BlockPos deathPos) {
         final PlayerInventory inventory = player.getInventory();
         final PlayerBackpack backpack = ((BackpackCarrier)player).getBackpack();
@@ -164,6 +249,10 @@ public final class DeathChestUtils {
         // Create the armor stands entity
         ArmorStandEntity corpse = DeathChestUtils.createFakeCorpse(world, chestPos, player);
         
+        // Place the ground before taking any items, so they still drop if it fails
+        if (!skipGroundBlock && !world.setBlockState(chestPos, Blocks.DIRT.getDefaultState()))
+            return false;
+        
         /*
          * Add our items to the "Chest"
          */
@@ -177,23 +266,30 @@ public final class DeathChestUtils {
             backpackTag
         );
         
-        // Backup data
-        NbtCompound file = new NbtCompound();
-        file.putLong("xp", player.totalExperience);
-        file.put("inventory", inventoryTag);
-        file.put("backpack", backpackTag);
-        
-        // TODO: Write "file" tag to disk to recover past deaths
-        
         // Print the death chest coordinates
         if (SewConfig.get(SewDeathConfig.PRINT_DEATH_CHEST_LOC))
             player.sendMessage(ServerText.translatable(player, "player.death_chest.location", Text.literal(chestPos.getX() + ", " + (chestPos.getY() + 1 ) + ", " + chestPos.getZ()).formatted(Formatting.AQUA)));
         CoreMod.logInfo("Death chest for " + player.getName().getString() + " spawned at " + MessageUtils.xyzToString(chestPos.offset(Direction.UP, 1)));
         
-        // Add the entity to the world
-        return ( skipGroundBlock || world.setBlockState(chestPos, Blocks.DIRT.getDefaultState()) )
-            && world.spawnEntity(corpse) // Spawn the Armor stand into the World
-            && corpse.addStatusEffect(new StatusEffectInstance(StatusEffects.WITHER, 1000000, 1, false, true )); // Apply a visual appearance to the Armor stand
+        // Backup data to recover past deaths, and only spawn the corpse once the backup is on the disk
+        final String name = player.getName().getString();
+        DeathRegistry.get().record(
+            player.getUuid(),
+            world.getRegistryKey(),
+            chestPos,
+            player.totalExperience,
+            inventoryTag,
+            backpackTag
+        ).thenAcceptAsync(death -> {
+            ((PlayerCorpse)corpse).setCorpseDeath(death);
+            
+            // Add the entity to the world
+            if (world.spawnEntity(corpse)) // Spawn the Armor stand into the World
+                corpse.addStatusEffect(new StatusEffectInstance(StatusEffects.WITHER, 1000000, 1, false, true )); // Apply a visual appearance to the Armor stand
+            else CoreMod.logError("Failed to spawn the death chest for " + name + ", it can be restored from death #" + death);
+        }, world.getServer());
+        
+        return true;
     }
     public static void createDeathSnapshotFor(@NotNull final PlayerEntity player) {
         /*final String deathName = player.getEntityName() + System.currentTimeMillis() + "_" + MessageUtils.xyzToString(player.getBlockPos(), "_");
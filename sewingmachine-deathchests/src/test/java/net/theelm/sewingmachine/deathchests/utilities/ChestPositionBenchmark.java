@@ -0,0 +1,248 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.deathchests.utilities;
+
+import com.mojang.serialization.Lifecycle;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.SlabBlock;
+import net.minecraft.block.enums.SlabType;
+import net.minecraft.fluid.Fluids;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.SimpleRegistry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.HeightLimitView;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.BiomeEffects;
+import net.minecraft.world.biome.BiomeKeys;
+import net.minecraft.world.biome.GenerationSettings;
+import net.minecraft.world.biome.SpawnSettings;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ProtoChunk;
+import net.minecraft.world.chunk.UpgradeData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the death chest search that read every block in the spiral against the {@link DeathChestUtils.ChestSearch}
+ *   that skips sections by their palette. The terrain is built the same way every run, with the player dying deep
+ *   underground so that the old search has to climb through every solid layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChestPositionBenchmark {
+    static final int BOTTOM = -64;
+    static final int HEIGHT = 384;
+    static final int RADIUS = 4;
+    static final BlockPos DEATH = new BlockPos(0, -50, 0);
+    
+    @Param({ "buried", "ocean", "cave" })
+    public String terrain;
+    
+    private Long2ObjectMap<Chunk> chunks;
+    
+    @Setup
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        
+        this.chunks = ChestPositionBenchmark.terrain(this.terrain);
+    }
+    
+    @Benchmark
+    public BlockPos search() {
+        return ChestPositionBenchmark.search(this.chunks);
+    }
+    
+    @Benchmark
+    public BlockPos scan() {
+        return ChestPositionBenchmark.scan(this.chunks);
+    }
+    
+    static @Nullable BlockPos search(@NotNull Long2ObjectMap<Chunk> chunks) {
+        return DeathChestUtils.getChestPosition(
+            new DeathChestUtils.ChestSearch((x, z) -> chunks.get(ChunkPos.toLong(x, z))),
+            ChestPositionBenchmark.DEATH,
+            ChestPositionBenchmark.BOTTOM + ChestPositionBenchmark.HEIGHT,
+            ChestPositionBenchmark.RADIUS
+        );
+    }
+    
+    /**
+     * The search from before sections were skipped, reading every block in the spiral up to the top of the world
+     */
+    static @Nullable BlockPos scan(@NotNull Long2ObjectMap<Chunk> chunks) {
+        BlockPos out;
+        int upper = ChestPositionBenchmark.BOTTOM + ChestPositionBenchmark.HEIGHT;
+        int maxX = ChestPositionBenchmark.RADIUS;
+        int maxI = 1 + ((maxX * maxX) * 4) + (maxX * 4);
+        
+        for ( int y = ChestPositionBenchmark.DEATH.getY(); y < upper; y++ ) {
+            int x = 0;
+            int z = 0;
+            int dX = 0;
+            int dZ = -1;
+            
+            for (int i = 0; i < maxI; i++) {
+                BlockPos check = new BlockPos(x + ChestPositionBenchmark.DEATH.getX(), y, z + ChestPositionBenchmark.DEATH.getZ());
+                if ((out = ChestPositionBenchmark.isValid(chunks.get(ChunkPos.toLong(check.getX() >> 4, check.getZ() >> 4)), check)) != null)
+                    return out.down();
+                if ((x == z) || ((x < 0) && (x == -z)) || ((x > 0) && (x == 1 - z))) {
+                    maxX = dX;
+                    dX = -dZ;
+                    dZ = maxX;
+                }
+                x += dX;
+                z += dZ;
+            }
+        }
+        
+        return null;
+    }
+    private static @Nullable BlockPos isValid(@NotNull final Chunk chunk, @NotNull final BlockPos blockPos) {
+        Block block = chunk.getBlockState(blockPos).getBlock();
+        
+        // If AIR, A-O-KAY
+        if (block.equals(Blocks.AIR) || block.equals(Blocks.CAVE_AIR) || (block instanceof SlabBlock && chunk.getBlockState(blockPos).get(SlabBlock.TYPE) == SlabType.BOTTOM))
+            return blockPos;
+        
+        // If WATER, Sink
+        if (block.equals(Blocks.WATER)) {
+            BlockPos seaFloor = blockPos;
+            do {
+                seaFloor = seaFloor.down();
+            } while ((chunk.getBlockState(seaFloor).getBlock().equals(Blocks.WATER)) || (chunk.getFluidState(seaFloor).getFluid() == Fluids.WATER));
+            return seaFloor.up(); // Get the block ABOVE the sea floor
+        }
+        
+        // Return NULL if no valid position was found
+        return null;
+    }
+    
+    /**
+     * Build the chunks around the death
+     * @param terrain "buried" for stone up to Y 99, "ocean" for stone up to Y 39 under water up to Y 62,
+     *                or "cave" for "buried" with a single air pocket at 3, 10, -2
+     * @return The chunks, by their position
+     */
+    static @NotNull Long2ObjectMap<Chunk> terrain(@NotNull String terrain) {
+        Registry<Biome> biomes = ChestPositionBenchmark.biomes();
+        HeightLimitView world = new HeightLimitView() {
+            @Override
+            public int getHeight() {
+                return ChestPositionBenchmark.HEIGHT;
+            }
+            
+            @Override
+            public int getBottomY() {
+                return ChestPositionBenchmark.BOTTOM;
+            }
+        };
+        
+        int stone = terrain.equals("ocean") ? 39 : 99;
+        int water = terrain.equals("ocean") ? 62 : stone;
+        
+        Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int cx = -1; cx <= 0; cx++) {
+            for (int cz = -1; cz <= 0; cz++) {
+                ChunkPos chunkPos = new ChunkPos(cx, cz);
+                Chunk chunk = new ProtoChunk(chunkPos, UpgradeData.NO_UPGRADE_DATA, world, biomes, null);
+                
+                for (int x = chunkPos.getStartX(); x <= chunkPos.getEndX(); x++) {
+                    for (int z = chunkPos.getStartZ(); z <= chunkPos.getEndZ(); z++) {
+                        for (int y = ChestPositionBenchmark.BOTTOM; y <= water; y++) {
+                            BlockState state = y <= stone ? Blocks.STONE.getDefaultState() : Blocks.WATER.getDefaultState();
+                            chunk.setBlockState(pos.set(x, y, z), state, false);
+                        }
+                    }
+                }
+                
+                chunks.put(chunkPos.toLong(), chunk);
+            }
+        }
+        
+        if (terrain.equals("cave")) {
+            BlockPos cave = new BlockPos(3, 10, -2);
+            chunks.get(ChunkPos.toLong(cave.getX() >> 4, cave.getZ() >> 4))
+                .setBlockState(cave, Blocks.CAVE_AIR.getDefaultState(), false);
+        }
+        
+        return chunks;
+    }
+    private static @NotNull Registry<Biome> biomes() {
+        SimpleRegistry<Biome> registry = new SimpleRegistry<>(RegistryKeys.BIOME, Lifecycle.stable());
+        Registry.register(registry, BiomeKeys.PLAINS, new Biome.Builder()
+            .precipitation(false)
+            .temperature(0.8F)
+            .downfall(0.4F)
+            .effects(new BiomeEffects.Builder()
+                .fogColor(0xC0D8FF)
+                .waterColor(0x3F76E4)
+                .waterFogColor(0x050533)
+                .skyColor(0x78A7FF)
+                .build())
+            .spawnSettings(SpawnSettings.INSTANCE)
+            .generationSettings(GenerationSettings.INSTANCE)
+            .build());
+        registry.freeze();
+        return registry;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ChestPositionBenchmark.class.getSimpleName())
+            .build()
+        ).run();
+    }
+}
@@ -26,28 +26,26 @@
 package net.theelm.sewingmachine.protection;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.world.ClientWorld;
-import net.minecraft.text.Text;
-import net.minecraft.util.math.ChunkPos;
-import net.minecraft.world.chunk.ChunkStatus;
 import net.theelm.sewingmachine.base.packets.CancelMinePacket;
 import net.theelm.sewingmachine.events.TabRegisterEvent;
 import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
 import net.theelm.sewingmachine.protection.interfaces.ClientClaimData;
 import net.theelm.sewingmachine.protection.interfaces.ClientMiner;
-import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
 import net.theelm.sewingmachine.interfaces.NameCache;
 import net.theelm.sewingmachine.protection.interfaces.PlayerClaimData;
 import net.theelm.sewingmachine.protection.inventory.ProtectionsTab;
+import net.theelm.sewingmachine.protection.objects.ClientClaimRegions;
 import net.theelm.sewingmachine.protection.packets.ClaimCountPacket;
 import net.theelm.sewingmachine.protection.packets.ClaimPermissionPacket;
 import net.theelm.sewingmachine.protection.packets.ClaimRankPacket;
 import net.theelm.sewingmachine.protection.packets.ClaimSettingPacket;
-import net.theelm.sewingmachine.protection.packets.ClaimedChunkPacket;
+import net.theelm.sewingmachine.protection.packets.ClaimProfilePacket;
+import net.theelm.sewingmachine.protection.packets.ClaimQueryPacket;
+import net.theelm.sewingmachine.protection.packets.ClaimRegionPacket;
 import net.theelm.sewingmachine.utilities.NetworkingUtils;
 
-import java.util.UUID;
-
 /**
  * Created on Jul 01 2023 at 3:14 PM.
  * By greg in sewingmachine
@@ -82,26 +80,32 @@ public class ClientCore implements ClientModInitializer {
             ((ClientClaimData) client).setMaximumChunks(packet.maximum());
         });
         
-        NetworkingUtils.clientReceiver(ClaimedChunkPacket.TYPE, (client, network, packet, sender) -> {
-            ClientWorld world = client.world;
-            ChunkPos chunkPos = packet.chunkPos();
+        NetworkingUtils.clientReceiver(ClaimProfilePacket.TYPE, (client, network, packet, sender) -> {
+            ClaimantPlayer claim = ((PlayerClaimData) client).getClaim();
+            packet.permissions()
+                .forEach(claim::updatePermission);
+            packet.settings()
+                .forEach(claim::updateSetting);
             
-            // Update the chunks owner after receiving a query
-            if (world.getChunk(chunkPos.x, chunkPos.z, ChunkStatus.FULL, false) instanceof IClaimedChunk chunk) {
-                UUID owner = packet.owner();
-                
-                // Update the name in our cache
-                if (owner != null) {
-                    Text name = packet.name();
-                    if (name != null)
-                        ((NameCache) client).setPlayerName(owner, name);
-                }
-                
-                // Update the chunk owner
-                chunk.updatePlayerOwner(owner, false);
+            // Store the ranks and names of friends
+            for (ClaimProfilePacket.Friend friend : packet.friends()) {
+                ((NameCache) client).setPlayerName(friend.player(), friend.text());
+                claim.updateFriend(friend.player(), friend.rank());
             }
         });
         
+        NetworkingUtils.clientReceiver(ClaimRegionPacket.TYPE, (client, network, packet, sender) -> {
+            ClientWorld world = client.world;
+            ClientPlayerEntity player = client.player;
+            if (world == null || player == null)
+                return;
+            
+            // If an update was missed, ask the server to send the whole region again
+            ClientClaimRegions regions = ((ClientClaimData) client).getClaimRegions();
+            if (!regions.apply(world, (NameCache) client, packet))
+                NetworkingUtils.send(client, new ClaimQueryPacket(player.getChunkPos()));
+        });
+        
         // Add the protections tab to the inventory
         TabRegisterEvent.register(ProtectionsTab::new);
     }
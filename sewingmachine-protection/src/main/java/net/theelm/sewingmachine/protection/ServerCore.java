@@ -31,17 +31,17 @@ import net.minecraft.network.message.SignedMessage;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.math.ChunkPos;
-import net.minecraft.world.chunk.ChunkStatus;
 import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.commands.abstraction.AbstractSewCommand;
 import net.theelm.sewingmachine.events.ContainerAccessCallback;
 import net.theelm.sewingmachine.events.PlayerModsCallback;
 import net.theelm.sewingmachine.events.PlayerNameCallback;
+import net.theelm.sewingmachine.events.PlayerNameUpdateCallback;
+import net.theelm.sewingmachine.events.RegionLookupCallback;
 import net.theelm.sewingmachine.events.RegionManageCallback;
 import net.theelm.sewingmachine.events.RegionUpdateCallback;
 import net.theelm.sewingmachine.events.PlayerTeleportCallback;
@@ -59,8 +59,6 @@ import net.theelm.sewingmachine.objects.MessageRegion;
 import net.theelm.sewingmachine.protection.claims.ClaimantTown;
 import net.theelm.sewingmachine.protection.commands.ClaimCommand;
 import net.theelm.sewingmachine.protection.config.SewProtectionConfig;
-import net.theelm.sewingmachine.protection.enums.ClaimPermissions;
-import net.theelm.sewingmachine.protection.enums.ClaimSettings;
 import net.theelm.sewingmachine.protection.events.BlockBreak;
 import net.theelm.sewingmachine.protection.events.BlockInteraction;
 import net.theelm.sewingmachine.protection.events.EntityAttack;
@@ -69,9 +67,11 @@ import net.theelm.sewingmachine.protection.events.ItemUse;
 import net.theelm.sewingmachine.protection.interfaces.ClaimsAccessor;
 import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
 import net.theelm.sewingmachine.protection.interfaces.PlayerClaimData;
+import net.theelm.sewingmachine.protection.interfaces.PlayerClaimSync;
 import net.theelm.sewingmachine.protection.interfaces.PlayerMovement;
 import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
 import net.theelm.sewingmachine.protection.objects.ClaimCache;
+import net.theelm.sewingmachine.protection.objects.ClaimSync;
 import net.theelm.sewingmachine.protection.objects.ServerClaimCache;
 import net.theelm.sewingmachine.protection.objects.signs.SignDeed;
 import net.theelm.sewingmachine.protection.objects.signs.SignPlots;
@@ -82,7 +82,6 @@ import net.theelm.sewingmachine.protection.packets.ClaimPermissionPacket;
 import net.theelm.sewingmachine.protection.packets.ClaimQueryPacket;
 import net.theelm.sewingmachine.protection.packets.ClaimRankPacket;
 import net.theelm.sewingmachine.protection.packets.ClaimSettingPacket;
-import net.theelm.sewingmachine.protection.packets.ClaimedChunkPacket;
 import net.theelm.sewingmachine.protection.utilities.ClaimChunkUtils;
 import net.theelm.sewingmachine.protection.utilities.ClaimPropertyUtils;
 import net.theelm.sewingmachine.utilities.ChunkUtils;
@@ -144,6 +143,9 @@ public final class ServerCore implements ModInitializer, SewPlugin {
             return true;
         });
         
+        // Read the chunks of a region before it is checked
+        RegionLookupCallback.HANDLER.register(ClaimChunkUtils::prepareRegion);
+        
         // Create a callback for getting a players whereabouts
         RegionNameCallback.EVENT.register((world, chunkPos, blockPos, entity, nameOnly, strict) -> {
             IClaimedChunk chunk = (IClaimedChunk) world.getChunk(chunkPos.x, chunkPos.z);
@@ -227,22 +229,37 @@ public final class ServerCore implements ModInitializer, SewPlugin {
             ClaimantPlayer claim = ((PlayerClaimData) player).getClaim();
             NetworkingUtils.send(player, new ClaimCountPacket(claim));
             
-            // Send permissions
-            for (ClaimPermissions permission : ClaimPermissions.values())
-                NetworkingUtils.send(player, new ClaimPermissionPacket(permission, claim.getPermissionRankRequirement(permission)));
-            
-            // Send claim settings
-            for (ClaimSettings setting : ClaimSettings.values())
-                if (setting.isEnabled())
-                    NetworkingUtils.send(player, new ClaimSettingPacket(setting, claim.getProtectedChunkSetting(setting)));
+            // Send permissions, settings and friends, and the claims around the player
+            ClaimSync sync = ((PlayerClaimSync) player.networkHandler).getClaimSync();
+            sync.syncProfile(player);
+            sync.reset();
+            sync.syncRegion(player);
+        });
+        
+        // When the name of a player is looked up in the background
+        PlayerNameUpdateCallback.EVENT.register((server, uuid) -> {
+            if (((ClaimsAccessor) server).getClaimManager() instanceof ServerClaimCache claimCache) {
+                claimCache.getPlayerCaches()
+                    .filter(claim -> uuid.equals(claim.getId()))
+                    .forEach(ClaimantPlayer::refreshName);
+            }
             
-            // Send friends for friend settings
-            MinecraftServer server = player.getServer();
-            if (server != null) {
-                for (UUID friend : claim.getFriends()) {
-                    Text name = PlayerNameCallback.getName(server, friend);
-                    NetworkingUtils.send(player, new ClaimRankPacket(friend, name, claim.getFriendRank(friend)));
-                }
+            // Update the friend lists and claim maps of players that have the mod
+            Text name = null;
+            for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+                if (!ModUtils.hasModule(player, "protection"))
+                    continue;
+                
+                ((PlayerClaimSync) player.networkHandler).getClaimSync()
+                    .rename(player, uuid);
+                
+                ClaimantPlayer claim = ((PlayerClaimData) player).getClaim();
+                if (!claim.getFriends().contains(uuid))
+                    continue;
+                
+                if (name == null)
+                    name = PlayerNameCallback.getName(server, uuid);
+                NetworkingUtils.send(player, new ClaimRankPacket(uuid, name, claim.getFriendRank(uuid)));
             }
         });
         
@@ -258,24 +275,11 @@ public final class ServerCore implements ModInitializer, SewPlugin {
         NetworkingUtils.serverReceiver(ClaimRankPacket.TYPE, (server, player, network, packet, sender)
             -> ClaimPropertyUtils.updateRank(player, packet.player(), packet.rank()));
         
-        // When the client queries who owns a chunk (Used for map overlay)
+        // When the client lost track of the claims around it (Used for map overlay)
         NetworkingUtils.serverReceiver(ClaimQueryPacket.TYPE, (server, player, network, packet, sender) -> {
-            // Verify that the player is not too far from the chunk
-            ChunkPos queryPos = packet.chunkPos();
-            if (!ChunkUtils.isPositionWithinSquareRange(player.getChunkPos(), 8, queryPos))
-                return;
-            
-            ClaimantPlayer claim = null;
-            ServerWorld world = player.getServerWorld();
-            if (world.getChunk(queryPos.x, queryPos.z, ChunkStatus.FULL, false) instanceof IClaimedChunk claimedChunk)
-                claim = claimedChunk.getOwner();
-            
-            // Send the information
-            NetworkingUtils.send(player, new ClaimedChunkPacket(
-                queryPos,
-                claim == null ? null : claim.getId(),
-                claim == null ? null : claim.getName(player)
-            ));
+            ClaimSync sync = ((PlayerClaimSync) network).getClaimSync();
+            sync.reset();
+            sync.syncRegion(player);
         });
         
         // When the client requests to (un)claim a chunk
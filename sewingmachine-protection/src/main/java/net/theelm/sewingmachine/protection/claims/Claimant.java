@@ -34,29 +34,29 @@ import net.theelm.sewingmachine.protection.enums.ClaimRanks;
 import net.theelm.sewingmachine.protection.enums.ClaimSettings;
 import net.theelm.sewingmachine.protection.objects.ServerClaimCache;
 import net.theelm.sewingmachine.protection.objects.ClaimCacheEntry;
-import net.theelm.sewingmachine.protection.objects.ClaimTag;
-import net.theelm.sewingmachine.protection.utilities.ClaimNbtUtils;
+import net.theelm.sewingmachine.protection.objects.ClaimedChunks;
+import net.theelm.sewingmachine.protection.objects.PermissionTable;
 import net.theelm.sewingmachine.utilities.DevUtils;
 import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
-import net.minecraft.nbt.NbtIntArray;
 import net.minecraft.nbt.NbtList;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -66,11 +66,23 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Consumer;
 
 public abstract class Claimant {
+    private static final int MAX_DECISIONS = 256;
+    
     protected final ClaimCache claimCache;
     protected final Map<UUID, ClaimRanks> userRanks = new ConcurrentHashMap<>();
     protected final Map<ClaimSettings, Boolean> chunkClaimOptions = Collections.synchronizedMap(new HashMap<>());
     protected final Map<ClaimPermissions, ClaimRanks> rankPermissions = Collections.synchronizedMap(new HashMap<>());
-    protected final Set<ClaimTag> claimedChunks = new CopyOnWriteArraySet<>();
+    protected final ClaimedChunks claimedChunks = new ClaimedChunks();
+    
+    // Compiled copy of the permissions and settings, and the decisions made against them
+    private volatile @NotNull PermissionTable permissionTable;
+    private final Map<UUID, Decision> decisions = Collections.synchronizedMap(new LinkedHashMap<UUID, Decision>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Decision> eldest) {
+            // Drop the least recently checked player instead of everybody
+            return this.size() > Claimant.MAX_DECISIONS;
+        }
+    });
     
     private final @NotNull ClaimantType type;
     private final @NotNull UUID id;
@@ -85,13 +97,14 @@ public abstract class Claimant {
         this.claimCache = cache;
         this.type = type;
         this.id = uuid;
+        this.permissionTable = PermissionTable.compile(null, uuid, this.rankPermissions, this.chunkClaimOptions);
         
         // Save to the cache BEFORE loading (For synchronocity!)
         this.saveHandle = this.claimCache.addToCache(this);
         
         // Load all information about the claim
-        if (cache instanceof ServerClaimCache)
-            this.readCustomDataFromTag(ClaimNbtUtils.readClaimData(this.type, this.id));
+        if (cache instanceof ServerClaimCache serverCache)
+            this.readCustomDataFromTag(serverCache.readClaimData(this.type, this.id));
     }
     
     /* Player Friend Options */
@@ -125,7 +138,10 @@ public abstract class Claimant {
                 changed = true;
             }
         }
-        if (changed) this.markDirty();
+        if (changed) {
+            this.rebuildPermissions();
+            this.markDirty();
+        }
         return changed;
     }
     public boolean updateFriend(@NotNull ServerPlayerEntity player, @Nullable ClaimRanks rank) {
@@ -138,13 +154,52 @@ public abstract class Claimant {
     /* Owner Options */
     public final void updateSetting(ClaimSettings setting, Boolean bool) {
         this.chunkClaimOptions.put(setting, bool);
+        this.rebuildPermissions();
         this.markDirty();
     }
     public final void updatePermission(ClaimPermissions permission, ClaimRanks rank) {
         this.rankPermissions.put(permission, rank);
+        this.rebuildPermissions();
         this.markDirty();
     }
     
+    /* Compiled permissions */
+    public final @NotNull PermissionTable getPermissionTable() {
+        return this.permissionTable;
+    }
+    
+    /**
+     * Recompile the permission table, invalidating any decisions that were made against the previous one
+     */
+    protected final synchronized void rebuildPermissions() {
+        this.permissionTable = PermissionTable.compile(this.permissionTable, this.id, this.rankPermissions, this.chunkClaimOptions);
+        
+        // Every decision was made against the old table
+        this.decisions.clear();
+    }
+    
+    /**
+     * Check if a player has a high enough rank in this claim to perform an action
+     * @param player The player trying to perform the action
+     * @param permission The permission required for the action
+     * @return If the player is allowed to perform the action
+     */
+    public final boolean isAllowed(@Nullable UUID player, @Nullable ClaimPermissions permission) {
+        PermissionTable table = this.permissionTable;
+        if (permission == null)
+            return true;
+        if (player == null)
+            return table.getRank(permission).canPerform(ClaimRanks.ENEMY);
+        
+        Decision decision = this.decisions.get(player);
+        if (decision == null || decision.version() != table.getVersion()) {
+            decision = new Decision(table.getVersion(), table.getAllowed(this.getFriendRank(player)));
+            this.decisions.put(player, decision);
+        }
+        
+        return (decision.allowed() & (1L << permission.ordinal())) != 0;
+    }
+    
     /* Get the latest name */
     public final UUID getId() {
         return this.id;
@@ -181,32 +236,27 @@ public abstract class Claimant {
     
     public final void addToCount(@NotNull WorldChunk... chunks) {
         for (WorldChunk chunk : chunks)
-            this.claimedChunks.add(ClaimTag.of(chunk));
+            this.claimedChunks.add(chunk.getWorld().getRegistryKey(), chunk.getPos().toLong());
         this.markDirty();
     }
     public final void removeFromCount(@NotNull WorldChunk... chunks) {
         for (WorldChunk chunk : chunks) {
-            ChunkPos pos = chunk.getPos();
-            if (this.claimedChunks.removeIf((iteration) -> (
-                Objects.equals(
-                    iteration.getDimension(),
-                    chunk.getWorld().getRegistryKey()
-                )
-                && iteration.getX() == pos.x
-                && iteration.getZ() == pos.z
-            ))) this.markDirty();
+            if (this.claimedChunks.remove(chunk.getWorld().getRegistryKey(), chunk.getPos().toLong()))
+                this.markDirty();
         }
     }
     
     public final int getCount() {
         return this.claimedChunks.size();
     }
-    public final void forEachChunk(Consumer<ClaimTag> action) {
-        for (ClaimTag it : new LinkedHashSet<>(this.claimedChunks))
-            action.accept(it);
+    public final boolean hasChunk(@NotNull RegistryKey<World> dimension, @NotNull ChunkPos pos) {
+        return this.claimedChunks.contains(dimension, pos.toLong());
+    }
+    public final void forEachChunk(@NotNull ClaimedChunks.Action action) {
+        this.claimedChunks.forEach(action);
     }
-    public final @NotNull Collection<ClaimTag> getChunks() {
-        return this.claimedChunks;
+    public final long @NotNull [] getChunks(@NotNull RegistryKey<World> dimension) {
+        return this.claimedChunks.get(dimension);
     }
     
     public boolean isSpawn() {
@@ -214,11 +264,6 @@ public abstract class Claimant {
     }
     
     /* Nbt saving */
-    @Override
-    public final void finalize() {
-        // Save before trashing
-        this.save();
-    }
     public final void markDirty() {
         if (this.saveHandle != null)
             this.saveHandle.markDirty();
@@ -231,15 +276,21 @@ public abstract class Claimant {
     }
     public boolean forceSave() {
         if (DevUtils.isDebugging()) CoreMod.logInfo("Saving " + this.getType().name().toLowerCase() + " data for " + (this.isSpawn() ? "Spawn" : this.getId()) + "." );
-        boolean success = ClaimNbtUtils.writeClaimData(this);
-        if (!success) CoreMod.logInfo("FAILED TO SAVE " + this.getType().name() + " DATA, " + (this.isSpawn() ? "Spawn" : this.getId()) + ".");
-        return success;
+        
+        // Snapshot now and let the saver write it to disk
+        if (this.claimCache instanceof ServerClaimCache serverCache) {
+            serverCache.getSaver().save(this);
+            serverCache.getIndex().add(this);
+            return true;
+        }
+        
+        // Only the server has claim storage to save into
+        CoreMod.logInfo("FAILED TO SAVE " + this.getType().name() + " DATA, " + (this.isSpawn() ? "Spawn" : this.getId()) + ".");
+        return false;
     }
     public void writeCustomDataToTag(@NotNull NbtCompound tag) {
         // Save our chunks
-        NbtList chunkList = new NbtList();
-        chunkList.addAll(this.claimedChunks);
-        tag.put("landChunks", chunkList);
+        tag.put("landChunks", this.claimedChunks.toNbt());
         
         // Save our list of friends
         NbtList rankList = new NbtList();
@@ -285,20 +336,8 @@ public abstract class Claimant {
             throw new RuntimeException("Invalid NBT data match");
         
         // Get the claim size
-        if (tag.contains("landChunks", NbtElement.LIST_TYPE)) {
-            ClaimTag claim;
-            
-            // Get from Int Array
-            for (NbtElement it : tag.getList("landChunks",NbtElement.INT_ARRAY_TYPE)) {
-                claim = ClaimTag.fromArray((NbtIntArray) it);
-                if (claim != null) this.claimedChunks.add(claim);
-            }
-            // Get from Compound
-            for (NbtElement it : tag.getList("landChunks", NbtElement.COMPOUND_TYPE)) {
-                claim = ClaimTag.fromCompound((NbtCompound) it);
-                if (claim != null) this.claimedChunks.add(claim);
-            }
-        }
+        if (tag.get("landChunks") instanceof NbtList chunks)
+            this.claimedChunks.readNbt(chunks);
         
         // Read friends
         if (tag.contains(rankNbtTag(this), NbtElement.LIST_TYPE)) {
@@ -333,12 +372,17 @@ public abstract class Claimant {
             }
         }
         
+        // Compile what was read
+        this.rebuildPermissions();
+        
         // TODO: Use the zone and write to bluemap
         /*new ChunkZone.Builder(this)
             .add(this.CLAIMED_CHUNKS)
             .build();*/
     }
     
+    private record Decision(int version, long allowed) {}
+    
     private static @NotNull String rankNbtTag(@Nullable Claimant claimant) {
         return (claimant instanceof ClaimantTown ? "members" : "friends");
     }
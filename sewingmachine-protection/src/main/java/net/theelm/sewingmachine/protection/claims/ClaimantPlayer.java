@@ -33,7 +33,6 @@ import net.theelm.sewingmachine.protection.enums.ClaimRanks;
 import net.theelm.sewingmachine.protection.enums.ClaimSettings;
 import net.theelm.sewingmachine.protection.objects.ClaimCache;
 import net.theelm.sewingmachine.protection.objects.ServerClaimCache;
-import net.theelm.sewingmachine.protection.objects.ClaimTag;
 import net.theelm.sewingmachine.utilities.FormattingUtils;
 import net.theelm.sewingmachine.utilities.mod.Sew;
 import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
@@ -44,6 +43,7 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.WorldChunk;
 import net.theelm.sewingmachine.utilities.text.TextUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -64,11 +64,8 @@ public final class ClaimantPlayer extends Claimant {
     }
     
     public ClaimRanks getPermissionRankRequirement(@Nullable ClaimPermissions permission) {
-        if (permission == null)
-            return ClaimRanks.ENEMY;
-        if (this.rankPermissions.containsKey(permission))
-            return this.rankPermissions.get(permission);
-        return permission.getDefault();
+        return this.getPermissionTable()
+            .getRank(permission);
     }
     
     /* Players Town Reference */
@@ -128,6 +125,10 @@ public final class ClaimantPlayer extends Claimant {
     public @NotNull MutableText updateName() {
         return TextUtils.mutable(PlayerNameCallback.getName(this.getId()));
     }
+    public void refreshName() {
+        if (this.name != null)
+            this.name = this.updateName();
+    }
     
     /* Send Messages */
     @Override
@@ -143,9 +144,8 @@ public final class ClaimantPlayer extends Claimant {
     
     /* Claimed chunk options */
     public boolean getProtectedChunkSetting(@NotNull ClaimSettings setting) {
-        if ( this.chunkClaimOptions.containsKey(setting) )
-            return this.chunkClaimOptions.get(setting);
-        return setting.getDefault(this.getId());
+        return this.getPermissionTable()
+            .getSetting(setting);
     }
     public int getMaxChunkLimit() {
         return this.additionalClaims + SewConfig.get(SewProtectionConfig.PLAYER_CLAIMS_LIMIT);
@@ -156,7 +156,7 @@ public final class ClaimantPlayer extends Claimant {
     }
     public boolean canClaim(Chunk chunk) {
         // If chunk is already claimed, allow
-        if (this.claimedChunks.contains(ClaimTag.of(chunk)))
+        if (chunk instanceof WorldChunk worldChunk && this.hasChunk(worldChunk.getWorld().getRegistryKey(), chunk.getPos()))
             return true;
         return (SewConfig.get(SewProtectionConfig.PLAYER_CLAIMS_LIMIT) != 0) && (((this.getCount() + 1) <= this.getMaxChunkLimit()) || (SewConfig.get(SewProtectionConfig.PLAYER_CLAIMS_LIMIT) <= 0));
     }
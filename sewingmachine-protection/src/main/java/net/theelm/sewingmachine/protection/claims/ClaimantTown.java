@@ -32,7 +32,6 @@ import net.theelm.sewingmachine.protection.config.SewProtectionConfig;
 import net.theelm.sewingmachine.protection.enums.ClaimRanks;
 import net.theelm.sewingmachine.protection.interfaces.PlayerClaimData;
 import net.theelm.sewingmachine.protection.objects.ServerClaimCache;
-import net.theelm.sewingmachine.protection.utilities.ClaimNbtUtils;
 import net.theelm.sewingmachine.utilities.FormattingUtils;
 import net.theelm.sewingmachine.utilities.TownNameUtils;
 import net.theelm.sewingmachine.utilities.mod.Sew;
@@ -93,6 +92,7 @@ public final class ClaimantTown extends Claimant {
             this.updateFriend(owner, ClaimRanks.OWNER);
             this.ownerId = owner;
             this.owner = claimCache.getPlayerClaim(owner);
+            this.rebuildPermissions();
             this.markDirty();
         }
     }
@@ -227,7 +227,12 @@ public final class ClaimantTown extends Claimant {
         // Remove from the cache (So it doesn't save again)
         this.claimCache.removeFromCache(this);
         
-        ClaimNbtUtils.delete(this);
+        if (this.claimCache instanceof ServerClaimCache serverCache) {
+            // Don't let a pending save write the town back after it was deleted
+            serverCache.getSaver().cancel(this);
+            serverCache.getStorage().delete(this.getType(), this.getId());
+            serverCache.getIndex().remove(this);
+        }
         CoreMod.logInfo("Deleted town " + this.getName().getString() + " (" + this.getId() + ")");
     }
     @Override
@@ -108,6 +108,7 @@ import net.minecraft.text.Texts;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.UserCache;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.WorldChunk;
@@ -120,7 +121,6 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -134,6 +134,7 @@ public final class ClaimCommand implements SewCommand {
     public static final ExceptionTranslatableServerSide CHUNK_ALREADY_OWNED = ServerText.exception("claim.chunk.error.claimed");
     public static final ExceptionTranslatableServerSide CHUNK_NOT_OWNED = ServerText.exception("claim.chunk.error.not_claimed");
     private static final ExceptionTranslatableServerSide CHUNK_RADIUS_OWNED = ServerText.exception("claim.chunk.error.radius_owned", 1 );
+    private static final ExceptionTranslatableServerSide CHUNK_RADIUS_UNREADABLE = ServerText.exception("claim.chunk.error.unreadable");
     private static final SimpleCommandExceptionType WHITELIST_FAILED_EXCEPTION = new SimpleCommandExceptionType(Text.translatable("commands.whitelist.add.failed"));
     private static final ExceptionTranslatableServerSide TOWN_INVITE_RANK = ServerText.exception("town.invite.rank");
     private static final ExceptionTranslatableServerSide TOWN_INVITE_FAIL = ServerText.exception("town.invite.fail");
@@ -547,11 +548,8 @@ public final class ClaimCommand implements SewCommand {
         
         // Check the radius that the player wants to claim
         final int radius = IntegerArgumentType.getInteger(context, "radius");
-        IClaimedChunk[] claimedChunks = IClaimedChunk.getOwnedAround(source.getWorld(), blockPos, radius);
-        for (IClaimedChunk claimedChunk : claimedChunks) {
-            if (!chunkFor.equals(claimedChunk.getOwnerId(blockPos)))
-                throw CHUNK_RADIUS_OWNED.create(source, claimedChunk.getOwnerName(player, blockPos));
-        }
+        final UUID claimFor = chunkFor;
+        final UUID runner = player == null ? null : player.getUuid();
         
         int chunkX = blockPos.getX() >> 4;
         int chunkZ = blockPos.getZ() >> 4;
@@ -565,14 +563,35 @@ public final class ClaimCommand implements SewCommand {
             }
         }
         
-        // Claim all chunks
-        return this.claimChunkAt(
-            source,
-            world,
-            chunkFor,
-            true,
-            chunksToClaim
-        );
+        // Chunks that aren't loaded are read from the disk first, claim once every owner is known
+        ClaimChunkUtils.getOwnersAround(world, blockPos, radius)
+            .thenAccept(owners -> {
+                for (UUID owner : owners) {
+                    if (!claimFor.equals(owner)) {
+                        CommandSyntaxException exception = CHUNK_RADIUS_OWNED.create(source, ((ClaimsAccessor) source.getServer()).getClaimManager()
+                            .getPlayerClaim(owner)
+                            .getName(runner));
+                        source.sendError(Texts.toText(exception.getRawMessage()));
+                        return;
+                    }
+                }
+                
+                // Claim all chunks
+                this.claimChunkAt(
+                    source,
+                    world,
+                    claimFor,
+                    true,
+                    chunksToClaim
+                );
+            })
+            .exceptionally(throwable -> {
+                // Owners that couldn't be read might not be the player, so don't claim anything
+                source.sendError(Texts.toText(CHUNK_RADIUS_UNREADABLE.create(source).getRawMessage()));
+                return null;
+            });
+        
+        return Command.SINGLE_SUCCESS;
     }
     
     public int claimChunkAt(@NotNull ServerCommandSource source, @NotNull World world, @NotNull final UUID chunkFor, final boolean verify, @NotNull BlockPos... positions) {
@@ -654,9 +673,8 @@ public final class ClaimCommand implements SewCommand {
                 player.getUuid(),
                 true,
                 // Unclaim EVERY chunk
-                claimed.getChunks().stream()
-                    .filter(claimTag -> Objects.equals(claimTag.getDimension(), world.getRegistryKey()))
-                    .map(claimTag -> new BlockPos(claimTag.getLowerX(), 0, claimTag.getLowerZ()))
+                Arrays.stream(claimed.getChunks(world.getRegistryKey()))
+                    .mapToObj(pos -> new BlockPos(ChunkPos.getPackedX(pos) << 4, 0, ChunkPos.getPackedZ(pos) << 4))
                     .collect(Collectors.toList())
             );
         }
@@ -37,6 +37,7 @@ public final class SewProtectionConfig {
     
     public static final ConfigOption<Boolean> CLAIM_CREATIVE_BYPASS = ConfigOption.json("claims.creative_bypass", true);
     public static final ConfigOption<Boolean> DISABLE_VANILLA_PROTECTION = ConfigOption.json("claims.disable_vanilla", true);
+    public static final ConfigOption<Boolean> CLAIM_STORAGE_SEGMENTED = ConfigOption.json("claims.storage.segmented", false);
     
     /*
      * Claiming Options
@@ -0,0 +1,67 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.interfaces;
+
+import net.minecraft.nbt.NbtCompound;
+import net.theelm.sewingmachine.protection.claims.Claimant;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Where the data of Claimants is kept between restarts
+ */
+public interface ClaimStorage {
+    /**
+     * @param type The Claimant type
+     * @param uuid The Claimant ID
+     * @return The saved data of the Claimant, or NULL if nothing is saved
+     */
+    @Nullable NbtCompound read(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid);
+    boolean write(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid, @NotNull NbtCompound tag);
+    boolean exists(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid);
+    boolean delete(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid);
+    
+    /**
+     * Visit every Claimant that has saved data
+     * @param consumer The consumer to pass the type and ID of each Claimant to
+     */
+    void forEach(@NotNull BiConsumer<Claimant.ClaimantType, UUID> consumer);
+    
+    /**
+     * Reclaim space that is used by outdated data, if the storage needs it
+     */
+    default void compact() {}
+    
+    /**
+     * Force everything that has been written so far onto the disk
+     */
+    default void sync() {}
+    
+    default void close() {}
+}
@@ -25,6 +25,9 @@
 
 package net.theelm.sewingmachine.protection.interfaces;
 
+import net.theelm.sewingmachine.protection.objects.ClientClaimRegions;
+import org.jetbrains.annotations.NotNull;
+
 /**
  * Created on Jul 07 2023 at 3:25 PM.
  * By greg in sewingmachine
@@ -35,4 +38,6 @@ public interface ClientClaimData {
     
     int getClaimedChunks();
     void setClaimedChunks(int claimed);
+    
+    @NotNull ClientClaimRegions getClaimRegions();
 }
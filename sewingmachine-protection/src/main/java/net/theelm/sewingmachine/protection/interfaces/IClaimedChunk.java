@@ -32,6 +32,7 @@ import net.theelm.sewingmachine.protection.enums.ClaimPermissions;
 import net.theelm.sewingmachine.protection.enums.ClaimSettings;
 import net.theelm.sewingmachine.exceptions.TranslationKeyException;
 import net.theelm.sewingmachine.protection.objects.ClaimCache;
+import net.theelm.sewingmachine.protection.utilities.ClaimChunkUtils;
 import net.theelm.sewingmachine.protection.utilities.ClaimChunkUtils.ClaimSlice;
 import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
 import net.theelm.sewingmachine.protection.claims.ClaimantTown;
@@ -41,13 +42,11 @@ import net.minecraft.text.MutableText;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface IClaimedChunk {
     
@@ -105,12 +104,50 @@ public interface IClaimedChunk {
     boolean canPlayerDo(@NotNull BlockPos blockPos, @Nullable UUID player, @Nullable ClaimPermissions perm);
     boolean isSetting(@NotNull BlockPos pos, @NotNull ClaimSettings setting);
     
+    /**
+     * @return A counter that changes every time the owner, town or slices of the chunk change
+     */
+    int getClaimVersion();
+    
+    /**
+     * Change the claim version without changing the claim, so that anything resolved from the chunk resolves again
+     */
+    void bumpClaimVersion();
+    
+    /**
+     * Run something once, the next time that the claim version of the chunk changes
+     * @param watcher Called on the thread that changed the claim
+     */
+    void watchClaim(@NotNull Runnable watcher);
+    void unwatchClaim(@NotNull Runnable watcher);
+    
+    /**
+     * Get the range of Y levels around a position that share the same owner
+     * @param pos The position within the chunk
+     * @return The lower and upper Y level of the range, or NULL if the whole chunk has the same owner
+     */
+    int @Nullable [] getOwnerBand(@NotNull BlockPos pos);
+    
     /*
      * Claim Slices
      */
+    /**
+     * @return If any part of the chunk is claimed separately from the chunk itself
+     */
+    boolean hasSlices();
+    
+    /**
+     * @return The slices as NBT, reused until the slices change. Must not be modified
+     */
     @NotNull NbtList serializeSlices();
     void deserializeSlices(@NotNull NbtList serialized);
     
+    /**
+     * Reuse the NBT of slices that were shared from another chunk
+     * @param serialized The NBT that the slices were serialized as
+     */
+    void setSerializedSlices(@NotNull NbtList serialized);
+    
     default void updateSliceOwner(@Nullable UUID owner, int slicePos) {
         this.updateSliceOwner(owner, slicePos, 0, 256);
     }
@@ -125,29 +162,9 @@ public interface IClaimedChunk {
     /*
      * Statics
      */
-    static boolean isOwnedAround(@NotNull final World world, @NotNull final BlockPos blockPos, int leniency) {
-        return IClaimedChunk.getOwnedAround( world, blockPos, leniency).length > 0;
-    }
-    static @NotNull IClaimedChunk[] getOwnedAround(@NotNull final World world, @NotNull final BlockPos blockPos, final int radius) {
-        int chunkX = blockPos.getX() >> 4;
-        int chunkZ = blockPos.getZ() >> 4;
-        
-        List<IClaimedChunk> claimedChunks = new ArrayList<>();
-        
-        // For the X axis
-        for ( int x = chunkX - radius; x <= chunkX + radius; x++ ) {
-            // For the Z axis
-            for ( int z = chunkZ - radius; z <= chunkZ + radius; z++ ) {
-                // Create the chunk position
-                WorldChunk worldChunk = world.getWorldChunk(new BlockPos( x << 4, 0, z << 4 ));
-                
-                // If the chunk is claimed
-                if (((IClaimedChunk) worldChunk).getOwnerId() != null)
-                    claimedChunks.add( (IClaimedChunk)worldChunk );
-            }
-        }
-        
-        return claimedChunks.toArray(new IClaimedChunk[0]);
+    static @NotNull CompletableFuture<Boolean> isOwnedAround(@NotNull final World world, @NotNull final BlockPos blockPos, int leniency) {
+        return ClaimChunkUtils.getOwnersAround(world, blockPos, leniency)
+            .thenApply(owners -> !owners.isEmpty());
     }
     
 }
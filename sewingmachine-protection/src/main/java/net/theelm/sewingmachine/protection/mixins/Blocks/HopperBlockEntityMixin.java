@@ -26,8 +26,11 @@
 package net.theelm.sewingmachine.protection.mixins.Blocks;
 
 import net.theelm.sewingmachine.protection.enums.ClaimPermissions;
+import net.theelm.sewingmachine.protection.interfaces.ClaimVerdictHolder;
+import net.theelm.sewingmachine.protection.objects.ClaimVerdict;
 import net.theelm.sewingmachine.protection.utilities.ClaimChunkUtils;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.HopperBlock;
 import net.minecraft.block.entity.BlockEntityType;
 import net.minecraft.block.entity.Hopper;
 import net.minecraft.block.entity.HopperBlockEntity;
@@ -36,32 +39,53 @@ import net.minecraft.inventory.Inventory;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(value = HopperBlockEntity.class, priority = 1)
-public abstract class HopperBlockEntityMixin extends LootableContainerBlockEntity implements Hopper {
+public abstract class HopperBlockEntityMixin extends LootableContainerBlockEntity implements Hopper, ClaimVerdictHolder {
+    // Hoppers ask the same question every few ticks, remember the answers for each side
+    private final ClaimVerdict[] claimVerdicts = new ClaimVerdict[Direction.values().length];
     
     protected HopperBlockEntityMixin(BlockEntityType<?> blockEntityType, BlockPos blockPos, BlockState blockState) {
         super(blockEntityType, blockPos, blockState);
     }
     
+    @Override
+    public @NotNull ClaimVerdict getClaimVerdict(@NotNull Direction direction) {
+        ClaimVerdict verdict = this.claimVerdicts[direction.ordinal()];
+        if (verdict == null)
+            verdict = this.claimVerdicts[direction.ordinal()] = new ClaimVerdict(ClaimPermissions.STORAGE);
+        return verdict;
+    }
+    
     @Inject(at = @At("HEAD"), method = "extract", cancellable = true)
     private static void onExtract(World world, Hopper hopper, CallbackInfoReturnable<Boolean> callback) {
+        if (world == null)
+            return;
         BlockPos pos = BlockPos.ofFloored(hopper.getHopperX(), hopper.getHopperY(), hopper.getHopperZ());
-        if ((world != null) && (!ClaimChunkUtils.canBlockModifyBlock(world, pos.up(), pos, ClaimPermissions.STORAGE)))
+        
+        // Hopper minecarts move around, so only hopper blocks remember their verdict
+        boolean allowed = hopper instanceof ClaimVerdictHolder holder ? holder.getClaimVerdict(Direction.UP).test(world, pos.up(), pos)
+            : ClaimChunkUtils.canBlockModifyBlock(world, pos.up(), pos, ClaimPermissions.STORAGE);
+        if (!allowed)
             callback.setReturnValue(false);
     }
     
-    @Inject(at = @At("HEAD"), method = "getOutputInventory", cancellable = true)
-    private static void onGetOutput(World world, BlockPos pos, BlockState state, CallbackInfoReturnable<Inventory> callback) {
-        if (world != null) {
-            Direction direction = state.get(net.minecraft.block.HopperBlock.FACING);
-            if (!ClaimChunkUtils.canBlockModifyBlock(world, pos.offset(direction), pos, ClaimPermissions.STORAGE))
-                callback.setReturnValue(null);
-        }
+    @Inject(at = @At("HEAD"), method = "insert", cancellable = true)
+    private static void onInsert(World world, BlockPos pos, BlockState state, Inventory inventory, CallbackInfoReturnable<Boolean> callback) {
+        if (world == null)
+            return;
+        Direction direction = state.get(HopperBlock.FACING);
+        BlockPos target = pos.offset(direction);
+        
+        boolean allowed = inventory instanceof ClaimVerdictHolder holder ? holder.getClaimVerdict(direction).test(world, target, pos)
+            : ClaimChunkUtils.canBlockModifyBlock(world, target, pos, ClaimPermissions.STORAGE);
+        if (!allowed)
+            callback.setReturnValue(false);
     }
     
 }
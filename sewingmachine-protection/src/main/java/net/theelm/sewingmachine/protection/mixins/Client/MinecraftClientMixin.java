@@ -38,6 +38,7 @@ import net.theelm.sewingmachine.protection.interfaces.ClaimsAccessor;
 import net.theelm.sewingmachine.interfaces.NameCache;
 import net.theelm.sewingmachine.protection.interfaces.ClientClaimData;
 import net.theelm.sewingmachine.protection.interfaces.PlayerClaimData;
+import net.theelm.sewingmachine.protection.objects.ClientClaimRegions;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
@@ -61,6 +62,7 @@ public abstract class MinecraftClientMixin implements ClientClaimData, PlayerCla
     private @Nullable ClaimantPlayer playerClaims;
     private int claimedChunks;
     private int maximumChunks;
+    private final @NotNull ClientClaimRegions claimRegions = new ClientClaimRegions();
     
     @Inject(at = @At("RETURN"), method = "disconnect(Lnet/minecraft/client/gui/screen/Screen;)V")
     private void onDisconnect(Screen screen, CallbackInfo callback) {
@@ -70,6 +72,7 @@ public abstract class MinecraftClientMixin implements ClientClaimData, PlayerCla
         this.playerClaims = null;
         this.claimedChunks = 0;
         this.maximumChunks = 0;
+        this.claimRegions.clear();
     }
     
     @Override
@@ -121,4 +124,9 @@ public abstract class MinecraftClientMixin implements ClientClaimData, PlayerCla
     public void setClaimedChunks(int claimed) {
         this.claimedChunks = claimed;
     }
+    
+    @Override
+    public @NotNull ClientClaimRegions getClaimRegions() {
+        return this.claimRegions;
+    }
 }
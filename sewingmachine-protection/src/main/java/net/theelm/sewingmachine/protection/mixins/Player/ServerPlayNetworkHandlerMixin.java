@@ -29,6 +29,7 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.packet.c2s.play.PlayerMoveC2SPacket;
 import net.minecraft.network.packet.c2s.play.VehicleMoveC2SPacket;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -36,6 +37,7 @@ import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.WorldChunk;
@@ -44,6 +46,8 @@ import net.theelm.sewingmachine.protection.enums.ClaimSettings;
 import net.theelm.sewingmachine.protection.interfaces.ClaimsAccessor;
 import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
 import net.theelm.sewingmachine.protection.interfaces.PlayerClaimData;
+import net.theelm.sewingmachine.protection.interfaces.PlayerClaimSync;
+import net.theelm.sewingmachine.protection.objects.ClaimSync;
 import net.theelm.sewingmachine.protection.objects.PlayerVisitor;
 import net.theelm.sewingmachine.protection.interfaces.PlayerTravel;
 import net.theelm.sewingmachine.protection.interfaces.PlayerMovement;
@@ -51,6 +55,7 @@ import net.theelm.sewingmachine.protection.utilities.ClaimChunkUtils;
 import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
 import net.theelm.sewingmachine.protection.claims.ClaimantTown;
 import net.theelm.sewingmachine.utilities.CasingUtils;
+import net.theelm.sewingmachine.utilities.ChunkUtils;
 import net.theelm.sewingmachine.utilities.TitleUtils;
 import net.theelm.sewingmachine.utilities.ServerText;
 import org.jetbrains.annotations.NotNull;
@@ -65,7 +70,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import java.util.UUID;
 
 @Mixin(value = ServerPlayNetworkHandler.class, priority = 1)
-public abstract class ServerPlayNetworkHandlerMixin implements PlayerMovement, PlayerClaimData {
+public abstract class ServerPlayNetworkHandlerMixin implements PlayerMovement, PlayerClaimData, PlayerClaimSync {
     @Shadow @Final private MinecraftServer server;
     @Shadow public ServerPlayerEntity player;
     
@@ -81,13 +86,39 @@ public abstract class ServerPlayNetworkHandlerMixin implements PlayerMovement, P
         this.movedPlayer(this.player);
     }
     
+    // The last resolved claim area, the owner only needs to be looked up again after leaving it or when the chunk says it changed
+    private @Nullable RegistryKey<World> resolvedWorld = null;
+    private @Nullable ChunkPos resolvedChunk = null;
+    private @Nullable IClaimedChunk resolvedFrom = null;
+    private int resolvedColumn = -1;
+    private int resolvedLower = Integer.MIN_VALUE;
+    private int resolvedUpper = Integer.MAX_VALUE;
+    private final @NotNull Runnable unresolveArea = this::unresolveArea;
+    
+    // What the client has been told about the claims around it
+    private final @NotNull ClaimSync claimSync = new ClaimSync();
+    
+    @Override
+    public @NotNull ClaimSync getClaimSync() {
+        return this.claimSync;
+    }
+    
     @Override
     public void movedPlayer(@NotNull final ServerPlayerEntity player) {
         World world = player.getEntityWorld();
         BlockPos blockPos = player.getBlockPos();
         
+        // Push the claims around the player if they entered a new chunk
+        this.claimSync.follow(player);
+        
         PlayerVisitor location = ((PlayerTravel) player).getLocation();
+        
+        // Looking around or moving within the same claim area can't change the owner
+        if (location != null && this.isInResolvedArea(world, blockPos))
+            return;
+        
         WorldChunk chunk = world.getWorldChunk(blockPos);
+        this.resolveArea(chunk, blockPos);
         
         if (location == null)
             this.showPlayerNewLocation(player, chunk);
@@ -114,6 +145,58 @@ public abstract class ServerPlayNetworkHandlerMixin implements PlayerMovement, P
         }*/
     }
     
+    /**
+     * @param world The world the player is in
+     * @param blockPos The position of the player
+     * @return If the player is still within the chunk column and Y band that the owner was last resolved from
+     */
+    private boolean isInResolvedArea(@NotNull World world, @NotNull BlockPos blockPos) {
+        ChunkPos pos = this.resolvedChunk;
+        if (pos == null || world.getRegistryKey() != this.resolvedWorld)
+            return false;
+        
+        if (pos.x != (blockPos.getX() >> 4) || pos.z != (blockPos.getZ() >> 4))
+            return false;
+        
+        if (this.resolvedColumn >= 0 && this.resolvedColumn != ChunkUtils.getPositionWithinChunk(blockPos))
+            return false;
+        
+        int y = blockPos.getY();
+        return y >= this.resolvedLower && y <= this.resolvedUpper;
+    }
+    private void resolveArea(@Nullable WorldChunk chunk, @NotNull BlockPos blockPos) {
+        this.unresolveArea();
+        if (chunk == null)
+            return;
+        
+        // The chunk clears the area when its claims change or when it is unloaded
+        IClaimedChunk claimedChunk = (IClaimedChunk) chunk;
+        claimedChunk.watchClaim(this.unresolveArea);
+        this.resolvedFrom = claimedChunk;
+        this.resolvedWorld = chunk.getWorld().getRegistryKey();
+        this.resolvedChunk = chunk.getPos();
+        
+        int[] band = claimedChunk.getOwnerBand(blockPos);
+        if (band == null) {
+            // The whole chunk column has one owner
+            this.resolvedColumn = -1;
+            this.resolvedLower = Integer.MIN_VALUE;
+            this.resolvedUpper = Integer.MAX_VALUE;
+        } else {
+            this.resolvedColumn = ChunkUtils.getPositionWithinChunk(blockPos);
+            this.resolvedLower = band[0];
+            this.resolvedUpper = band[1];
+        }
+    }
+    private void unresolveArea() {
+        IClaimedChunk chunk = this.resolvedFrom;
+        if (chunk != null)
+            chunk.unwatchClaim(this.unresolveArea);
+        this.resolvedFrom = null;
+        this.resolvedWorld = null;
+        this.resolvedChunk = null;
+    }
+    
     @Override
     public void showPlayerNewLocation(@NotNull final PlayerEntity player, @Nullable final Chunk local) {
         BlockPos playerPos = player.getBlockPos();
@@ -213,6 +296,13 @@ public abstract class ServerPlayNetworkHandlerMixin implements PlayerMovement, P
         return true;
     }
     
+    // On disconnect
+    @Inject(at = @At("RETURN"), method = "onDisconnected")
+    public void onPlayerLeave(final CallbackInfo callback) {
+        // Stop the chunk from holding onto the disconnected player
+        this.unresolveArea();
+    }
+    
     // On connect
     @Inject(at = @At("RETURN"), method = "<init>")
     public void onPlayerConnect(MinecraftServer server, ClientConnection client, ServerPlayerEntity player, CallbackInfo callback) {
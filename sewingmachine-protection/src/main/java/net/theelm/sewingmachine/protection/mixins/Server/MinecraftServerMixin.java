@@ -29,12 +29,14 @@ import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.protection.claims.Claimant;
 import net.theelm.sewingmachine.protection.interfaces.ClaimsAccessor;
 import net.theelm.sewingmachine.protection.objects.ClaimCache;
+import net.theelm.sewingmachine.protection.objects.ClaimSaver;
 import net.theelm.sewingmachine.protection.objects.ServerClaimCache;
 import net.minecraft.server.MinecraftServer;
 import org.jetbrains.annotations.NotNull;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 /**
@@ -49,17 +51,33 @@ public class MinecraftServerMixin implements ClaimsAccessor {
      * Save claim information when the server saves
      */
     @Inject(at = @At("RETURN"), method = "save")
-    public void save(boolean silent, boolean boolean_2, boolean boolean_3, @NotNull CallbackInfoReturnable<Boolean> callback) {
+    public void save(boolean silent, boolean flush, boolean boolean_3, @NotNull CallbackInfoReturnable<Boolean> callback) {
         if (
             callback.getReturnValue()
             && ((ClaimsAccessor)this).getClaimManager() instanceof ServerClaimCache claims
         ) {
-            if (!silent) CoreMod.logInfo("Saving claim data");
+            ClaimSaver saver = claims.getSaver();
+            if (!silent) CoreMod.logInfo("Saving claim data (" + saver.getQueueDepth() + " queued, last write took " + saver.getLastLatency() + "ms)");
             claims.getCaches()
                 .forEach(Claimant::save);
+            
+            // Wait for the claims to be written if the world is being flushed
+            if (flush) {
+                saver.flush();
+                claims.getStorage().sync();
+            }
         }
     }
     
+    /**
+     * Write any remaining claim data before the server stops
+     */
+    @Inject(at = @At("TAIL"), method = "shutdown")
+    public void shutdown(@NotNull CallbackInfo callback) {
+        if (this.sewingMachineClaimManager != null)
+            this.sewingMachineClaimManager.close();
+    }
+    
     @Override
     public @NotNull ClaimCache getClaimManager() {
         if (this.sewingMachineClaimManager == null) {
@@ -27,13 +27,13 @@ package net.theelm.sewingmachine.protection.mixins.World;
 
 import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.protection.enums.ClaimPermissions;
-import net.theelm.sewingmachine.protection.enums.ClaimRanks;
 import net.theelm.sewingmachine.protection.enums.ClaimSettings;
 import net.theelm.sewingmachine.exceptions.TranslationKeyException;
 import net.theelm.sewingmachine.protection.interfaces.Claim;
 import net.theelm.sewingmachine.protection.interfaces.ClaimsAccessor;
 import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
 import net.theelm.sewingmachine.protection.objects.ClaimCache;
+import net.theelm.sewingmachine.protection.objects.ServerClaimCache;
 import net.theelm.sewingmachine.protection.utilities.ClaimChunkUtils.ClaimSlice;
 import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
 import net.theelm.sewingmachine.protection.claims.ClaimantTown;
@@ -59,11 +59,24 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Mixin(Chunk.class)
 public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
     private final ClaimSlice[] claimSlices = new ClaimSlice[256];
     
+    // Chunk-wide flag so that unsliced chunks never have to look at their slices
+    private volatile boolean hasSlices = false;
+    
+    // The slices as they were last saved or loaded, cleared whenever the slices change
+    private volatile @Nullable NbtList serializedSlices = null;
+    
+    // Changes whenever ownership of the chunk changes, so that anything resolved from the chunk knows to resolve again
+    private volatile int claimVersion = 0;
+    
+    // Anything that resolved from the chunk and wants to be told when the claim changes
+    private volatile @Nullable Set<Runnable> claimWatchers = null;
+    
     // Town is a weak reference here but NOT in ClaimantPlayer, we only want to load the Town once from the Player
     private WeakReference<ClaimantTown> chunkTown = null;
     private ClaimantPlayer chunkPlayer = null;
@@ -82,6 +95,12 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
         
         // Make sure we have the towns permissions cached
         this.chunkTown = (town == null ? null : new WeakReference<>(town));
+        this.changedClaim();
+        
+        // Keep the town summary for when the chunk is unloaded
+        if ((Object) this instanceof WorldChunk worldChunk && this.getClaimCache() instanceof ServerClaimCache serverCache)
+            serverCache.getChunkOwners()
+                .setTown(worldChunk.getWorld().getRegistryKey(), worldChunk.getPos().toLong(), town == null ? null : town.getId());
         
         if ( fresh )
             this.setNeedsSaving(true);
@@ -93,7 +112,14 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
     }
     @Override
     public ClaimantPlayer updatePlayerOwner(@Nullable UUID owner, boolean fresh) {
-        this.chunkPlayer = ( owner == null ? null : this.getClaimCache().getPlayerClaim(owner));
+        ClaimCache claimCache = this.getClaimCache();
+        this.chunkPlayer = ( owner == null ? null : claimCache.getPlayerClaim(owner));
+        this.changedClaim();
+        
+        // Keep the owner summary for when the chunk is unloaded
+        if (claimCache instanceof ServerClaimCache serverCache && (Object) this instanceof WorldChunk worldChunk)
+            serverCache.getChunkOwners()
+                .set(worldChunk.getWorld().getRegistryKey(), worldChunk.getPos(), owner);
         
         if (fresh)
             this.setNeedsSaving(true);
@@ -114,6 +140,7 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
                 continue;
             slice.reset();
         }
+        this.updateHasSlices();
         this.setNeedsSaving(true);
     }
     @Override
@@ -131,6 +158,7 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
         int yMin = Math.min(yFrom, yTo);
         
         slice.insert(owner, yMax, yMin);
+        this.updateHasSlices();
         
         // Make sure the chunk gets saved
         if ( fresh )
@@ -138,7 +166,7 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
     }
     public UUID[] getSliceOwner(int slicePos, int yFrom, int yTo) {
         ClaimSlice slice;
-        if ((slice = this.claimSlices[slicePos]) == null)
+        if (!this.hasSlices || (slice = this.claimSlices[slicePos]) == null)
             return new UUID[0];
         
         // Get upper and lower positioning
@@ -164,18 +192,82 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
         int c = slices.length;
         for (int i = 0; i < c; i++)
             this.claimSlices[i] = slices[i];
+        this.updateHasSlices();
+    }
+    private void updateHasSlices() {
+        boolean hasSlices = false;
+        for (ClaimSlice slice : this.claimSlices) {
+            if (slice != null && !slice.isEmpty()) {
+                hasSlices = true;
+                break;
+            }
+        }
+        this.hasSlices = hasSlices;
+        this.serializedSlices = null;
+        this.changedClaim();
+        
+        // Keep track of if the chunk has slices for when the chunk is unloaded
+        if ((Object) this instanceof WorldChunk worldChunk && this.getClaimCache() instanceof ServerClaimCache serverCache)
+            serverCache.getChunkOwners()
+                .setSliced(worldChunk.getWorld().getRegistryKey(), worldChunk.getPos().toLong(), hasSlices);
+    }
+    
+    @Override
+    public int getClaimVersion() {
+        return this.claimVersion;
+    }
+    @Override
+    public void bumpClaimVersion() {
+        this.changedClaim();
+    }
+    @Override
+    public void watchClaim(@NotNull Runnable watcher) {
+        Set<Runnable> watchers = this.claimWatchers;
+        if (watchers == null)
+            this.claimWatchers = watchers = ConcurrentHashMap.newKeySet();
+        watchers.add(watcher);
+    }
+    @Override
+    public void unwatchClaim(@NotNull Runnable watcher) {
+        Set<Runnable> watchers = this.claimWatchers;
+        if (watchers != null)
+            watchers.remove(watcher);
+    }
+    private void changedClaim() {
+        this.claimVersion++;
+        
+        // Watchers are only told once, they watch again after resolving from the chunk again
+        Set<Runnable> watchers = this.claimWatchers;
+        if (watchers == null || watchers.isEmpty())
+            return;
+        this.claimWatchers = null;
+        for (Runnable watcher : watchers)
+            watcher.run();
+    }
+    @Override
+    public int @Nullable [] getOwnerBand(@NotNull BlockPos pos) {
+        if (!this.hasSlices)
+            return null;
+        
+        // Other columns of the chunk are sliced, so the owner is only known for this column
+        ClaimSlice slice = this.claimSlices[ChunkUtils.getPositionWithinChunk(pos)];
+        if (slice == null || slice.isEmpty())
+            return new int[] { Integer.MIN_VALUE, Integer.MAX_VALUE };
+        return slice.getBand(pos.getY());
     }
     
     public @NotNull Claim getClaim(BlockPos blockPos) {
-        int slicePos = ChunkUtils.getPositionWithinChunk( blockPos );
+        // Most chunks never have slices
+        if (!this.hasSlices)
+            return this;
         
         ClaimSlice slice;
-        if ((slice = this.claimSlices[slicePos]) != null) {
+        if ((slice = this.claimSlices[ChunkUtils.getPositionWithinChunk(blockPos)]) != null) {
             // Get inside claim
             ClaimSlice.InnerClaim inner = slice.get(blockPos.getY());
             
             // If claim inner is not nobody
-            if (inner != null && inner.getOwnerId() != null && inner.isWithin(blockPos.getY()))
+            if (inner != null && inner.getOwnerId() != null)
                 return inner;
         }
         
@@ -223,16 +315,12 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
     }
     @Override
     public @Nullable UUID getOwnerId(@Nullable BlockPos pos) {
-        if (pos != null) {
-            int slicePos = ChunkUtils.getPositionWithinChunk(pos);
-            if (this.claimSlices[slicePos] != null) {
-                ClaimSlice slice = claimSlices[slicePos];
-                
-                // Get the players Y position
+        if (pos != null && this.hasSlices) {
+            ClaimSlice slice = this.claimSlices[ChunkUtils.getPositionWithinChunk(pos)];
+            if (slice != null) {
+                // Get the claim at the players Y position
                 ClaimSlice.InnerClaim claim = slice.get(pos);
-                
-                // Check that the player is within the Y
-                if (claim != null && claim.isWithin(pos))
+                if (claim != null)
                     return claim.getOwnerId();
             }
         }
@@ -269,12 +357,9 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
         if ( ((town = this.getTown()) != null ) && (player != null) && player.equals( town.getOwnerId() ) )
             return true;
         
-        // Get the ranks of the user and the rank required for performing
-        ClaimRanks userRank = this.chunkPlayer.getFriendRank(player);
-        ClaimRanks permReq = this.chunkPlayer.getPermissionRankRequirement(perm);
-        
         // Return the test if the user can perform the action (If friend of chunk owner OR if friend of town and chunk owned by town owner)
-        return permReq.canPerform(userRank) || ((town != null) && (this.chunkPlayer.getId().equals(town.getOwnerId())) && permReq.canPerform(town.getFriendRank(player)));
+        return this.chunkPlayer.isAllowed(player, perm)
+            || ((town != null) && (this.chunkPlayer.getId().equals(town.getOwnerId())) && this.chunkPlayer.getPermissionRankRequirement(perm).canPerform(town.getFriendRank(player)));
     }
     @Override
     public boolean canPlayerDo(@NotNull BlockPos pos, @Nullable UUID player, @Nullable ClaimPermissions perm) {
@@ -296,13 +381,21 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
                 .isSetting( setting );
     }
     
+    @Override
+    public boolean hasSlices() {
+        return this.hasSlices;
+    }
     @Override
     public @NotNull NbtList serializeSlices() {
-        NbtList serialized = new NbtList();
+        NbtList serialized = this.serializedSlices;
+        if (serialized != null)
+            return serialized;
+        
+        serialized = new NbtList();
         ClaimSlice slice;
-        for (int i = 0; i < this.claimSlices.length; i++) {
+        for (int i = 0; this.hasSlices && i < this.claimSlices.length; i++) {
             // Slice must be defined
-            if ((slice = this.claimSlices[i]) == null)
+            if ((slice = this.claimSlices[i]) == null || slice.isEmpty())
                 continue;
             
             // Create a new tag to save the slice
@@ -328,6 +421,9 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
                 claimsTag.add(claimTag);
             }
             
+            if (claimsTag.isEmpty())
+                continue;
+            
             // Save data for slice
             sliceTag.putInt("i", i);
             sliceTag.put("claims", claimsTag);
@@ -336,7 +432,7 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
             serialized.add(sliceTag);
         }
         
-        return serialized;
+        return this.serializedSlices = serialized;
     }
     @Override
     public void deserializeSlices(@NotNull NbtList serialized) {
@@ -356,6 +452,13 @@ public abstract class ChunkMixin implements BlockView, IClaimedChunk, Claim {
                 this.updateSliceOwner(owner, i, lower, upper, false);
             }
         }
+        
+        // Until the slices change, they serialize back to what was just read
+        this.serializedSlices = serialized;
+    }
+    @Override
+    public void setSerializedSlices(@NotNull NbtList serialized) {
+        this.serializedSlices = serialized;
     }
     
 }
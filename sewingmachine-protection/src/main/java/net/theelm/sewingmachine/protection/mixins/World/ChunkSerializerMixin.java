@@ -27,10 +27,10 @@ package net.theelm.sewingmachine.protection.mixins.World;
 
 import net.minecraft.world.chunk.WrapperProtoChunk;
 import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
+import net.theelm.sewingmachine.protection.utilities.ClaimChunkUtils;
 import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
-import net.minecraft.nbt.NbtList;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.ChunkSerializer;
@@ -47,9 +47,13 @@ import java.util.UUID;
 
 @Mixin(ChunkSerializer.class)
 public abstract class ChunkSerializerMixin {
-    private static final String sewingMachineSerializationPlayer = "sewingMachineOwnerUUID";
-    private static final String sewingMachineSerializationTown = "sewingMachineTownUUID";
-    private static final String sewingMachineSerializationSlices = "sewingMachineOwnerSlices";
+    private static final String sewingMachineSerializationPlayer = ClaimChunkUtils.NBT_OWNER;
+    private static final String sewingMachineSerializationTown = ClaimChunkUtils.NBT_TOWN;
+    private static final String sewingMachineSerializationSlices = ClaimChunkUtils.NBT_SLICES;
+    
+    // Owners written by older versions are split into two longs
+    private static final String sewingMachineSerializationPlayerMost = sewingMachineSerializationPlayer + "Most";
+    private static final String sewingMachineSerializationTownMost = sewingMachineSerializationTown + "Most";
     
     @Inject(at = @At("RETURN"), method = "serialize")
     private static void saveSewingOwner(@NotNull ServerWorld world, @NotNull Chunk chunk, @NotNull CallbackInfoReturnable<NbtCompound> callback) {
@@ -60,10 +64,9 @@ public abstract class ChunkSerializerMixin {
         if (player != null)
             levelTag.putUuid(sewingMachineSerializationPlayer, player);
         
-        NbtList slices = ((IClaimedChunk) chunk).serializeSlices();
-        
-        // Save the inner claims
-        levelTag.put(sewingMachineSerializationSlices, slices);
+        // Save the inner claims, only if there are any
+        if (((IClaimedChunk) chunk).hasSlices())
+            levelTag.put(sewingMachineSerializationSlices, ((IClaimedChunk) chunk).serializeSlices());
         
         // Save the chunks town
         UUID town = ((IClaimedChunk)chunk).getTownId();
@@ -73,6 +76,15 @@ public abstract class ChunkSerializerMixin {
     
     @Inject(at = @At("RETURN"), method = "deserialize")
     private static void loadSewingOwner(@NotNull ServerWorld world, @NotNull PointOfInterestStorage poiStorage, @NotNull ChunkPos chunkPos, @NotNull NbtCompound levelTag, @NotNull CallbackInfoReturnable<ProtoChunk> callback) {
+        // Most chunks are wilderness, don't look any further into them
+        if (!(
+            levelTag.contains(sewingMachineSerializationPlayer)
+            || levelTag.contains(sewingMachineSerializationPlayerMost)
+            || levelTag.contains(sewingMachineSerializationSlices)
+            || levelTag.contains(sewingMachineSerializationTown)
+            || levelTag.contains(sewingMachineSerializationTownMost)
+        )) return;
+        
         Chunk chunk = callback.getReturnValue();
         if (chunk instanceof WrapperProtoChunk readOnlyChunk)
             chunk = readOnlyChunk.getWrappedChunk();
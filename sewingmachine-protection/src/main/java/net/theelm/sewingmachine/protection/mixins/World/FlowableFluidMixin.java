@@ -33,9 +33,8 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.BlockView;
 import net.minecraft.world.World;
-import net.minecraft.world.chunk.Chunk;
 import net.theelm.sewingmachine.protection.enums.ClaimPermissions;
-import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
+import net.theelm.sewingmachine.protection.utilities.ClaimChunkUtils;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -46,35 +45,20 @@ public abstract class FlowableFluidMixin extends Fluid {
     @Inject(at = @At("HEAD"), method = "canFlowThrough", cancellable = true)
     protected void gettingFluidDirections(BlockView view, Fluid fluid, BlockPos flowPos, BlockState state, Direction face, BlockPos sourcePos, BlockState fromState, FluidState fluidState, CallbackInfoReturnable<Boolean> cir) {
         // If world is Server World
-        if (view instanceof World world) {
-            // Get chunks
-            Chunk startingChunk = world.getChunk(sourcePos);
-            Chunk nextChunk = world.getChunk(flowPos);
-            
-            // If chunk is the same chunk, Allow
-            if (startingChunk == nextChunk)
-                return;
-            
-            // Check that first chunk owner can modify the next chunk
-            if (!((IClaimedChunk) nextChunk).canPlayerDo(flowPos, ((IClaimedChunk) startingChunk).getOwnerId(sourcePos), ClaimPermissions.BLOCKS))
-                cir.setReturnValue(false);
-        }
+        this.canFlowBetween(view, sourcePos, flowPos, cir);
     }
     
     @Inject(at = @At("HEAD"), method = "canFlow", cancellable = true)
     protected void gettingFluidDirections(BlockView view, BlockPos sourcePos, BlockState fluidBlockState, Direction flowDirection, BlockPos flowPos, BlockState flowToBlockState, FluidState fluidState, Fluid fluid, CallbackInfoReturnable<Boolean> cir) {
         // If world is Server World
-        if (view instanceof World world) {
-            // Get chunks
-            Chunk startingChunk = world.getChunk(sourcePos);
-            Chunk nextChunk = world.getChunk(flowPos);
-            
-            // If chunk is the same chunk, Allow
-            if (startingChunk == nextChunk)
-                return;
-            
-            // Check that first chunk owner can modify the next chunk
-            if (!((IClaimedChunk) nextChunk).canPlayerDo(flowPos, ((IClaimedChunk) startingChunk).getOwnerId(sourcePos), ClaimPermissions.BLOCKS))
+        this.canFlowBetween(view, sourcePos, flowPos, cir);
+    }
+    
+    private void canFlowBetween(BlockView view, BlockPos sourcePos, BlockPos flowPos, CallbackInfoReturnable<Boolean> cir) {
+        // If world is Server World, and the chunk is not the same chunk (Same chunk is always allowed)
+        if (view instanceof World world && !ClaimChunkUtils.isSameChunk(sourcePos, flowPos)) {
+            // Check that first chunk owner can modify the next chunk (Without loading either chunk)
+            if (!ClaimChunkUtils.canBlockModifyBlock(world, flowPos, sourcePos, ClaimPermissions.BLOCKS))
                 cir.setReturnValue(false);
         }
     }
@@ -64,12 +64,22 @@ public abstract class WorldChunkMixin extends Chunk implements IClaimedChunk {
         this.updatePlayerOwner(((IClaimedChunk)protoChunk).getOwnerId(), false);
         
         // Load the inner claims
-        this.setSlices(((IClaimedChunk)protoChunk).getSlices());
+        IClaimedChunk claimedProto = (IClaimedChunk) protoChunk;
+        this.setSlices(claimedProto.getSlices());
+        if (claimedProto.hasSlices())
+            this.setSerializedSlices(claimedProto.serializeSlices());
         
         // Update the chunks town
         this.updateTownOwner(((IClaimedChunk)protoChunk).getTownId(), false);
     }
     
+    @Inject(at = @At("HEAD"), method = "setLoadedToWorld")
+    public void onSetLoaded(boolean loaded, CallbackInfo callback) {
+        // Anything still holding onto an unloaded chunk should stop trusting it
+        if (!loaded)
+            this.bumpClaimVersion();
+    }
+    
     @Inject(at = @At("RETURN"), method = "loadFromPacket")
     public void onLoadFromPacket(PacketByteBuf buf, NbtCompound nbt, Consumer<ChunkData.BlockEntityVisitor> consumer, CallbackInfo callback) {
         // TODO: Sync chunk data from Server to Client on the chunk loadFromPacket
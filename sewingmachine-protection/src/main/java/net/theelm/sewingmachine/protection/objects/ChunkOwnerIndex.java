@@ -0,0 +1,256 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIntArray;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.protection.claims.Claimant;
+import net.theelm.sewingmachine.protection.interfaces.ClaimStorage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A summary of the owners of chunks in every dimension, for answering ownership of chunks that aren't loaded.
+ *   Whole-chunk owners are rebuilt from the claimants "landChunks" on startup, and chunks update their entry
+ *   whenever they are loaded or their owner changes. Slices are only known for chunks that have been seen.
+ * 
+ * Every live update stamps its entry with a new epoch. Reads that started before that epoch (The startup
+ *   rebuild and chunks read from the disk) are older than the live update and don't replace it.
+ */
+public final class ChunkOwnerIndex {
+    private final Map<RegistryKey<World>, Long2ObjectMap<Entry>> dimensions = new ConcurrentHashMap<>();
+    private final Map<Read, CompletableFuture<Void>> reads = new ConcurrentHashMap<>();
+    private final AtomicInteger epoch = new AtomicInteger();
+    private volatile boolean rebuilt = false;
+    
+    /*
+     * Updating
+     */
+    
+    public void set(@NotNull RegistryKey<World> dimension, @NotNull ChunkPos pos, @Nullable UUID owner) {
+        this.setOwner(dimension, pos.toLong(), owner);
+    }
+    public void setOwner(@NotNull RegistryKey<World> dimension, long pos, @Nullable UUID owner) {
+        Long2ObjectMap<Entry> owners = this.getDimension(dimension);
+        synchronized (owners) {
+            Entry entry = owners.get(pos);
+            int epoch = this.epoch.incrementAndGet();
+            owners.put(pos, entry == null ? new Entry(owner, null, false, false, epoch) : new Entry(owner, entry.town(), entry.observed(), entry.sliced(), epoch));
+        }
+    }
+    public void setTown(@NotNull RegistryKey<World> dimension, long pos, @Nullable UUID town) {
+        Long2ObjectMap<Entry> owners = this.getDimension(dimension);
+        synchronized (owners) {
+            Entry entry = owners.get(pos);
+            int epoch = this.epoch.incrementAndGet();
+            owners.put(pos, entry == null ? new Entry(null, town, false, false, epoch) : new Entry(entry.owner(), town, entry.observed(), entry.sliced(), epoch));
+        }
+    }
+    public void setSliced(@NotNull RegistryKey<World> dimension, long pos, boolean sliced) {
+        Long2ObjectMap<Entry> owners = this.getDimension(dimension);
+        synchronized (owners) {
+            Entry entry = owners.get(pos);
+            int epoch = this.epoch.incrementAndGet();
+            owners.put(pos, entry == null ? new Entry(null, null, true, sliced, epoch) : new Entry(entry.owner(), entry.town(), true, sliced, epoch));
+        }
+    }
+    
+    /**
+     * Record everything about a chunk that was read from the disk
+     * @param dimension The dimension of the chunk
+     * @param pos The chunk position (As a long)
+     * @param owner The owner of the chunk
+     * @param town The town of the chunk
+     * @param sliced If the chunk has any slices
+     * @param epoch The epoch from before the chunk was read
+     */
+    public void observe(@NotNull RegistryKey<World> dimension, long pos, @Nullable UUID owner, @Nullable UUID town, boolean sliced, int epoch) {
+        Long2ObjectMap<Entry> owners = this.getDimension(dimension);
+        synchronized (owners) {
+            // The chunk was updated while it was being read
+            Entry entry = owners.get(pos);
+            if (entry != null && entry.epoch() > epoch)
+                return;
+            
+            owners.put(pos, new Entry(owner, town, true, sliced, epoch));
+        }
+    }
+    
+    /**
+     * Share a single read of a chunk between everything that is waiting on it
+     * @param dimension The dimension of the chunk
+     * @param pos The chunk position (As a long)
+     * @param reader Starts reading the chunk, if it isn't already being read
+     * @return The read of the chunk
+     */
+    public @NotNull CompletableFuture<Void> read(@NotNull RegistryKey<World> dimension, long pos, @NotNull Supplier<CompletableFuture<Void>> reader) {
+        Read key = new Read(dimension, pos);
+        CompletableFuture<Void> future = this.reads.get(key);
+        if (future != null)
+            return future;
+        
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        if ((future = this.reads.putIfAbsent(key, started)) != null)
+            return future;
+        
+        reader.get().whenComplete((nothing, throwable) -> {
+            this.reads.remove(key, started);
+            if (throwable == null)
+                started.complete(null);
+            else started.completeExceptionally(throwable);
+        });
+        return started;
+    }
+    
+    /*
+     * Querying
+     */
+    
+    /**
+     * @param dimension The dimension of the chunk
+     * @param pos The chunk position (As a long)
+     * @return If the whole-chunk owner of the chunk is known, even if it is unowned. Chunks rebuilt from the
+     *         claim storage are known without having been seen, use {@link #hasSlices} before trusting the owner
+     *         for a single position
+     */
+    public boolean isKnown(@NotNull RegistryKey<World> dimension, long pos) {
+        Long2ObjectMap<Entry> owners = this.dimensions.get(dimension);
+        return owners != null && owners.containsKey(pos);
+    }
+    public @Nullable UUID get(@NotNull RegistryKey<World> dimension, long pos) {
+        Entry entry = this.getEntry(dimension, pos);
+        return entry == null ? null : entry.owner();
+    }
+    public @Nullable UUID getTown(@NotNull RegistryKey<World> dimension, long pos) {
+        Entry entry = this.getEntry(dimension, pos);
+        return entry == null ? null : entry.town();
+    }
+    
+    /**
+     * @param dimension The dimension of the chunk
+     * @param pos The chunk position (As a long)
+     * @return If the chunk has slices, or NULL if the chunk hasn't been seen
+     */
+    public @Nullable Boolean hasSlices(@NotNull RegistryKey<World> dimension, long pos) {
+        Entry entry = this.getEntry(dimension, pos);
+        return entry == null || !entry.observed() ? null : entry.sliced();
+    }
+    
+    public boolean isRebuilt() {
+        return this.rebuilt;
+    }
+    
+    /**
+     * @return The epoch of the newest live update, for reads to tell if they are outdated
+     */
+    public int getEpoch() {
+        return this.epoch.get();
+    }
+    
+    private @Nullable Entry getEntry(@NotNull RegistryKey<World> dimension, long pos) {
+        Long2ObjectMap<Entry> owners = this.dimensions.get(dimension);
+        return owners == null ? null : owners.get(pos);
+    }
+    private @NotNull Long2ObjectMap<Entry> getDimension(@NotNull RegistryKey<World> dimension) {
+        return this.dimensions.computeIfAbsent(dimension, key -> Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>()));
+    }
+    
+    /*
+     * Rebuilding
+     */
+    
+    /**
+     * Read the claimed chunks of every saved claimant on a background thread
+     * @param storage The storage of the claimants
+     */
+    public void rebuild(@NotNull ClaimStorage storage) {
+        Thread thread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            int epoch = this.epoch.get();
+            int[] chunks = { 0 };
+            
+            storage.forEach((type, uuid) -> {
+                NbtCompound tag = storage.read(type, uuid);
+                if (tag == null || !tag.contains("landChunks", NbtElement.LIST_TYPE))
+                    return;
+                
+                // Get from Int Array
+                for (NbtElement it : tag.getList("landChunks", NbtElement.INT_ARRAY_TYPE)) {
+                    if (this.rebuildChunk(type, uuid, ClaimTag.fromArray((NbtIntArray) it), epoch))
+                        chunks[0]++;
+                }
+                // Get from Compound
+                for (NbtElement it : tag.getList("landChunks", NbtElement.COMPOUND_TYPE)) {
+                    if (this.rebuildChunk(type, uuid, ClaimTag.fromCompound((NbtCompound) it), epoch))
+                        chunks[0]++;
+                }
+            });
+            
+            this.rebuilt = true;
+            CoreMod.logInfo("Indexed " + chunks[0] + " claimed chunks in " + (System.currentTimeMillis() - start) + "ms.");
+        }, "Claim chunk index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    private boolean rebuildChunk(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid, @Nullable ClaimTag claim, int epoch) {
+        RegistryKey<World> dimension;
+        if (claim == null || (dimension = claim.getDimension()) == null)
+            return false;
+        
+        long pos = ChunkPos.toLong(claim.getX(), claim.getZ());
+        Long2ObjectMap<Entry> owners = this.getDimension(dimension);
+        synchronized (owners) {
+            Entry entry = owners.get(pos);
+            
+            // Chunks that have been seen or updated since the rebuild started already know their owner
+            if (entry != null && (entry.observed() || entry.epoch() > epoch))
+                return false;
+            
+            if (type == Claimant.ClaimantType.TOWN)
+                owners.put(pos, new Entry(entry == null ? null : entry.owner(), uuid, false, false, epoch));
+            else owners.put(pos, new Entry(uuid, entry == null ? null : entry.town(), false, false, epoch));
+        }
+        return true;
+    }
+    
+    private record Read(@NotNull RegistryKey<World> dimension, long pos) {}
+    private record Entry(@Nullable UUID owner, @Nullable UUID town, boolean observed, boolean sliced, int epoch) {}
+}
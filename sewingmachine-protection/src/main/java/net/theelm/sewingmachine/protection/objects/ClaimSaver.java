@@ -0,0 +1,260 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import net.minecraft.nbt.NbtCompound;
+import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.protection.claims.Claimant;
+import net.theelm.sewingmachine.protection.interfaces.ClaimStorage;
+import net.theelm.sewingmachine.protection.utilities.ClaimNbtUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes Claimant data to disk behind the server thread. Claimants are snapshot to NBT
+ *   when saved and the compression and file writing happens on a background thread.
+ *   Saving the same Claimant again before it was written replaces the pending snapshot.
+ */
+public final class ClaimSaver implements Runnable {
+    private final @NotNull ClaimStorage storage;
+    private final @NotNull Thread thread;
+    
+    // Snapshots waiting to be written, in the order they were first queued
+    private final Map<Key, Pending> pending = new LinkedHashMap<>();
+    private @Nullable Key writing = null;
+    private boolean running = true;
+    
+    private final AtomicLong saved = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong latency = new AtomicLong();
+    
+    public ClaimSaver(@NotNull ClaimStorage storage) {
+        this.storage = storage;
+        this.thread = new Thread(this, "Claim saver");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Snapshot the Claimant on the calling thread and queue it to be written
+     * @param claimant The Claimant to save
+     */
+    public void save(@NotNull Claimant claimant) {
+        this.save(claimant.getType(), claimant.getId(), ClaimNbtUtils.snapshotClaimData(claimant));
+    }
+    public void save(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid, @NotNull NbtCompound tag) {
+        Key key = new Key(type, uuid);
+        synchronized (this.pending) {
+            Pending previous = this.pending.get(key);
+            if (previous != null)
+                this.coalesced.incrementAndGet();
+            
+            // Keep the original time so the latency reflects how long the claimant waited
+            this.pending.put(key, new Pending(tag, previous == null ? System.nanoTime() : previous.queuedAt()));
+            this.pending.notifyAll();
+        }
+    }
+    
+    /**
+     * Drop a pending write, for Claimants that have been deleted
+     * @param claimant The Claimant that should not be written
+     */
+    public void cancel(@NotNull Claimant claimant) {
+        Key key = new Key(claimant.getType(), claimant.getId());
+        synchronized (this.pending) {
+            this.pending.remove(key);
+            
+            // Wait for an in-progress write so it can be deleted afterwards
+            while (key.equals(this.writing)) {
+                try {
+                    this.pending.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get the data of a Claimant that is waiting to be written, so reading it back doesn't return outdated data from the disk
+     * @param type The Claimant type
+     * @param uuid The Claimant ID
+     * @return A copy of the pending snapshot, or NULL if nothing is pending
+     */
+    public @Nullable NbtCompound getPending(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        Key key = new Key(type, uuid);
+        synchronized (this.pending) {
+            Pending pending = this.pending.get(key);
+            if (pending != null)
+                return pending.tag().copy();
+            
+            // Wait for the write to finish if it's currently happening
+            while (key.equals(this.writing)) {
+                try {
+                    this.pending.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Block until every queued snapshot has been written
+     */
+    public void flush() {
+        synchronized (this.pending) {
+            while (!this.pending.isEmpty() || this.writing != null) {
+                if (!this.thread.isAlive()) {
+                    // Write anything that's left on this thread
+                    this.drain();
+                    return;
+                }
+                try {
+                    this.pending.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Write everything that is pending and stop the background thread
+     */
+    public void close() {
+        this.flush();
+        synchronized (this.pending) {
+            this.running = false;
+            this.pending.notifyAll();
+        }
+    }
+    
+    @Override
+    public void run() {
+        while (true) {
+            Key key;
+            Pending pending;
+            synchronized (this.pending) {
+                while (this.running && this.pending.isEmpty()) {
+                    try {
+                        this.pending.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (this.pending.isEmpty())
+                    return;
+                
+                Iterator<Map.Entry<Key, Pending>> iterator = this.pending.entrySet().iterator();
+                Map.Entry<Key, Pending> next = iterator.next();
+                iterator.remove();
+                
+                key = this.writing = next.getKey();
+                pending = next.getValue();
+            }
+            
+            boolean idle;
+            try {
+                this.write(key, pending);
+            } finally {
+                synchronized (this.pending) {
+                    this.writing = null;
+                    idle = this.pending.isEmpty();
+                    this.pending.notifyAll();
+                }
+            }
+            
+            // Clean up outdated data and sync to the disk while there is nothing else to write
+            if (idle) {
+                this.storage.compact();
+                this.storage.sync();
+            }
+        }
+    }
+    private void drain() {
+        Iterator<Map.Entry<Key, Pending>> iterator = this.pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Pending> next = iterator.next();
+            iterator.remove();
+            this.write(next.getKey(), next.getValue());
+        }
+    }
+    private void write(@NotNull Key key, @NotNull Pending pending) {
+        try {
+            if (this.storage.write(key.type(), key.uuid(), pending.tag())) {
+                this.saved.incrementAndGet();
+                this.latency.set(System.nanoTime() - pending.queuedAt());
+                return;
+            }
+        } catch (Exception e) {
+            CoreMod.logError(e);
+        }
+        
+        this.failed.incrementAndGet();
+        CoreMod.logInfo("FAILED TO SAVE " + key.type().name() + " DATA, " + key.uuid() + ".");
+    }
+    
+    /*
+     * Statistics
+     */
+    
+    public int getQueueDepth() {
+        synchronized (this.pending) {
+            return this.pending.size();
+        }
+    }
+    public long getSaved() {
+        return this.saved.get();
+    }
+    public long getCoalesced() {
+        return this.coalesced.get();
+    }
+    public long getFailed() {
+        return this.failed.get();
+    }
+    
+    /**
+     * @return How long the last written Claimant waited between being queued and being written, in milliseconds
+     */
+    public long getLastLatency() {
+        return this.latency.get() / 1_000_000L;
+    }
+    
+    private record Key(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {}
+    private record Pending(@NotNull NbtCompound tag, long queuedAt) {}
+}
@@ -0,0 +1,197 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.theelm.sewingmachine.events.PlayerNameCallback;
+import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
+import net.theelm.sewingmachine.protection.interfaces.ClaimsAccessor;
+import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
+import net.theelm.sewingmachine.protection.interfaces.PlayerClaimData;
+import net.theelm.sewingmachine.protection.packets.ClaimProfilePacket;
+import net.theelm.sewingmachine.protection.packets.ClaimRegionPacket;
+import net.theelm.sewingmachine.utilities.ModUtils;
+import net.theelm.sewingmachine.utilities.NetworkingUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * What a modded client has been told about claims, so that only what has changed since gets sent again
+ */
+public final class ClaimSync {
+    /**
+     * The number of chunks around the player that the region covers, in each direction
+     */
+    public static final int RADIUS = 8;
+    private static final int SIZE = RADIUS * 2 + 1;
+    
+    private @Nullable RegistryKey<World> dimension = null;
+    private long center = Long.MAX_VALUE;
+    private int version = 0;
+    private boolean reset = true;
+    
+    // The last owner that was sent for each chunk in the region
+    private final @NotNull Long2ObjectMap<UUID> owners = new Long2ObjectOpenHashMap<>();
+    private final @NotNull Set<UUID> named = new HashSet<>();
+    
+    /**
+     * Forget the region that the client was told about, the next sync sends the whole region again
+     */
+    public void reset() {
+        this.owners.clear();
+        this.named.clear();
+        this.center = Long.MAX_VALUE;
+        this.reset = true;
+    }
+    
+    /**
+     * Sync the region if the player has moved to a different chunk
+     * @param player The player
+     */
+    public void follow(@NotNull ServerPlayerEntity player) {
+        if (this.center == player.getChunkPos().toLong() && player.getWorld().getRegistryKey() == this.dimension)
+            return;
+        this.syncRegion(player);
+    }
+    
+    /**
+     * Send the owners of any chunks around the player that changed since the last sync
+     * @param player The player
+     */
+    public void syncRegion(@NotNull ServerPlayerEntity player) {
+        ServerWorld world = player.getServerWorld();
+        ChunkPos center = player.getChunkPos();
+        this.center = center.toLong();
+        if (!ModUtils.hasModule(player, "protection"))
+            return;
+        
+        if (world.getRegistryKey() != this.dimension) {
+            this.dimension = world.getRegistryKey();
+            this.owners.clear();
+            this.named.clear();
+            this.reset = true;
+        }
+        
+        // Forget anything that is no longer in the region, the client does the same
+        ObjectIterator<Long2ObjectMap.Entry<UUID>> iterator = this.owners.long2ObjectEntrySet().iterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.next().getLongKey();
+            if (Math.abs(ChunkPos.getPackedX(pos) - center.x) > RADIUS || Math.abs(ChunkPos.getPackedZ(pos) - center.z) > RADIUS)
+                iterator.remove();
+        }
+        
+        ClaimCache claims = ((ClaimsAccessor) world.getServer()).getClaimManager();
+        ChunkOwnerIndex index = claims instanceof ServerClaimCache serverCache ? serverCache.getChunkOwners() : null;
+        ClaimRegionPacket.Builder builder = new ClaimRegionPacket.Builder(center.x - RADIUS, center.z - RADIUS, SIZE);
+        
+        for (int z = center.z - RADIUS; z <= center.z + RADIUS; z++) {
+            for (int x = center.x - RADIUS; x <= center.x + RADIUS; x++) {
+                long pos = ChunkPos.toLong(x, z);
+                UUID owner;
+                
+                // Use the loaded chunk, or the last known owner, without loading anything
+                if (world.getChunk(x, z, ChunkStatus.FULL, false) instanceof IClaimedChunk chunk)
+                    owner = chunk.getOwnerId();
+                else if (index != null && index.isKnown(this.dimension, pos))
+                    owner = index.get(this.dimension, pos);
+                else continue;
+                
+                if (this.owners.containsKey(pos) && Objects.equals(this.owners.get(pos), owner))
+                    continue;
+                this.owners.put(pos, owner);
+                
+                Text name = null;
+                if (owner != null && this.named.add(owner))
+                    name = ClaimSync.getOwnerName(claims, player, owner);
+                builder.add(builder.index(x, z), owner, name);
+            }
+        }
+        
+        if (builder.isEmpty() && !this.reset)
+            return;
+        
+        int base = this.reset ? 0 : this.version;
+        this.reset = false;
+        NetworkingUtils.send(player, builder.build(++this.version, base));
+    }
+    
+    /**
+     * Send the name of an owner again, after the name has changed
+     * @param player The player
+     * @param owner The owner that was renamed
+     */
+    public void rename(@NotNull ServerPlayerEntity player, @NotNull UUID owner) {
+        if (!this.named.remove(owner))
+            return;
+        
+        // Forget the chunks of the owner, so they are sent again along with the new name
+        this.owners.values()
+            .removeIf(owner::equals);
+        this.syncRegion(player);
+    }
+    
+    /**
+     * Get the name of an owner without reading their claim from the storage
+     * @param claims The claim cache
+     * @param player The player that the name is being sent to
+     * @param owner The owner
+     * @return The name of the owner, colored by their rank of the player if their claim is loaded
+     */
+    private static @NotNull Text getOwnerName(@NotNull ClaimCache claims, @NotNull ServerPlayerEntity player, @NotNull UUID owner) {
+        ClaimantPlayer claim = claims instanceof ServerClaimCache serverCache ? serverCache.getCachedPlayerClaim(owner) : null;
+        if (claim != null)
+            return claim.getName(player);
+        return PlayerNameCallback.getPlainName(player.getServerWorld().getServer(), owner);
+    }
+    
+    /**
+     * Send all of the players permissions, settings and friends, changes after this are sent one at a time
+     * @param player The player
+     */
+    public void syncProfile(@NotNull ServerPlayerEntity player) {
+        MinecraftServer server = player.getServer();
+        if (server == null || !ModUtils.hasModule(player, "protection"))
+            return;
+        
+        ClaimantPlayer claim = ((PlayerClaimData) player).getClaim();
+        NetworkingUtils.send(player, ClaimProfilePacket.of(server, claim));
+    }
+}
@@ -133,4 +133,13 @@ public final class ClaimTag extends NbtCompound {
     public static @NotNull ClaimTag of(@NotNull World world, @NotNull ChunkPos chunkPos) {
         return new ClaimTag(world, chunkPos);
     }
+    public static @NotNull ClaimTag of(@NotNull RegistryKey<World> dimension, long chunkPos) {
+        ClaimTag tag = new ClaimTag();
+        
+        tag.putString("dimension", dimension.getValue().toString());
+        tag.putInt("x", ChunkPos.getPackedX(chunkPos));
+        tag.putInt("z", ChunkPos.getPackedZ(chunkPos));
+        
+        return tag;
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.theelm.sewingmachine.protection.claims.Claimant;
+import net.theelm.sewingmachine.protection.claims.ClaimantTown;
+import net.theelm.sewingmachine.protection.enums.ClaimPermissions;
+import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
+import net.theelm.sewingmachine.protection.utilities.ClaimChunkUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * A remembered answer to {@link ClaimChunkUtils#canBlockModifyBlock}, for blocks that ask the same question
+ *   over and over again (Hoppers). The answer is reused for as long as the claim versions of both chunks, and
+ *   the permission versions of the claimants that decided it, haven't changed.
+ */
+public final class ClaimVerdict {
+    private final @Nullable ClaimPermissions permission;
+    
+    private long protectedPos = Long.MIN_VALUE;
+    private long sourcePos = Long.MIN_VALUE;
+    
+    // The chunks are held instead of looked up, unloading a chunk changes its version
+    private @Nullable IClaimedChunk protectedChunk = null;
+    private @Nullable IClaimedChunk sourceChunk = null;
+    private int protectedVersion;
+    private int sourceVersion;
+    
+    // The claimants whose permissions decided the verdict
+    private @Nullable Claimant owner = null;
+    private @Nullable ClaimantTown town = null;
+    private int ownerVersion;
+    private int townVersion;
+    
+    private boolean allowed;
+    
+    public ClaimVerdict(@Nullable ClaimPermissions permission) {
+        this.permission = permission;
+    }
+    
+    /**
+     * Check whether sourcePos is allowed to do something to protectedPos, reusing the last answer if nothing has changed
+     * @param world The world to test the permissions in
+     * @param protectedPos The position that is being interacted with
+     * @param sourcePos The position doing the interacting
+     * @return Whether sourcePos is allowed to do something to protectedPos
+     */
+    public boolean test(@NotNull World world, @NotNull BlockPos protectedPos, @NotNull BlockPos sourcePos) {
+        if (this.isValid(protectedPos, sourcePos))
+            return this.allowed;
+        
+        IClaimedChunk protectedChunk = ClaimChunkUtils.getLoadedChunk(world, protectedPos);
+        IClaimedChunk sourceChunk = ClaimChunkUtils.isSameChunk(protectedPos, sourcePos) ? protectedChunk
+            : ClaimChunkUtils.getLoadedChunk(world, sourcePos);
+        
+        // Only remember verdicts that were made from loaded chunks
+        if (protectedChunk == null || sourceChunk == null) {
+            this.protectedChunk = null;
+            return ClaimChunkUtils.canBlockModifyBlock(world, protectedPos, sourcePos, this.permission);
+        }
+        
+        this.protectedPos = protectedPos.asLong();
+        this.sourcePos = sourcePos.asLong();
+        this.protectedChunk = protectedChunk;
+        this.sourceChunk = sourceChunk;
+        this.protectedVersion = protectedChunk.getClaimVersion();
+        this.sourceVersion = sourceChunk.getClaimVersion();
+        
+        UUID ownerId = protectedChunk.getOwnerId(protectedPos);
+        ClaimCache claimCache = protectedChunk.getClaimCache();
+        this.owner = (ownerId == null || claimCache == null) ? null : claimCache.getPlayerClaim(ownerId);
+        this.ownerVersion = this.owner == null ? 0 : this.owner.getPermissionTable().getVersion();
+        this.town = protectedChunk.getTown();
+        this.townVersion = this.town == null ? 0 : this.town.getPermissionTable().getVersion();
+        
+        return this.allowed = protectedChunk.canPlayerDo(protectedPos, sourceChunk.getOwnerId(sourcePos), this.permission);
+    }
+    
+    private boolean isValid(@NotNull BlockPos protectedPos, @NotNull BlockPos sourcePos) {
+        IClaimedChunk protectedChunk = this.protectedChunk;
+        IClaimedChunk sourceChunk = this.sourceChunk;
+        if (protectedChunk == null || sourceChunk == null)
+            return false;
+        if (this.protectedPos != protectedPos.asLong() || this.sourcePos != sourcePos.asLong())
+            return false;
+        if (this.protectedVersion != protectedChunk.getClaimVersion() || this.sourceVersion != sourceChunk.getClaimVersion())
+            return false;
+        if (this.owner != null && this.ownerVersion != this.owner.getPermissionTable().getVersion())
+            return false;
+        
+        // The town of a chunk is resolved from its owner, so it can change without the chunk changing
+        ClaimantTown town = protectedChunk.getTown();
+        return town == this.town && (town == null || this.townVersion == town.getPermissionTable().getVersion());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import net.theelm.sewingmachine.protection.claims.Claimant;
+import net.theelm.sewingmachine.protection.claims.ClaimantTown;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory index of all Claimant files that exist on disk, so lookups don't have to hit the filesystem
+ */
+public final class ClaimantIndex {
+    private final Set<UUID> players = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> towns = ConcurrentHashMap.newKeySet();
+    
+    // Town names to their ID, and the reverse for when a town is renamed or deleted
+    private final Map<String, UUID> townIds = new ConcurrentHashMap<>();
+    private final Map<UUID, String> townNames = new ConcurrentHashMap<>();
+    
+    public boolean exists(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        return this.getSet(type).contains(uuid);
+    }
+    public @Nullable UUID getTownId(@Nullable String name) {
+        return name == null ? null : this.townIds.get(name);
+    }
+    public int size(@NotNull Claimant.ClaimantType type) {
+        return this.getSet(type).size();
+    }
+    
+    /**
+     * Add a claimant that has been written to disk
+     * @param claimant The claimant
+     */
+    public void add(@NotNull Claimant claimant) {
+        this.add(claimant.getType(), claimant.getId(), claimant instanceof ClaimantTown town ? town.getName().getString() : null);
+    }
+    public void add(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid, @Nullable String name) {
+        this.getSet(type).add(uuid);
+        if (type == Claimant.ClaimantType.TOWN && name != null) {
+            String previous = this.townNames.put(uuid, name);
+            if (previous != null && !previous.equals(name))
+                this.townIds.remove(previous, uuid);
+            this.townIds.put(name, uuid);
+        }
+    }
+    
+    /**
+     * Remove a claimant that has been deleted from disk
+     * @param claimant The claimant
+     */
+    public void remove(@NotNull Claimant claimant) {
+        this.remove(claimant.getType(), claimant.getId());
+    }
+    public void remove(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        this.getSet(type).remove(uuid);
+        if (type == Claimant.ClaimantType.TOWN) {
+            String name = this.townNames.remove(uuid);
+            if (name != null)
+                this.townIds.remove(name, uuid);
+        }
+    }
+    
+    private @NotNull Set<UUID> getSet(@NotNull Claimant.ClaimantType type) {
+        return switch (type) {
+            case TOWN -> this.towns;
+            case PLAYER -> this.players;
+        };
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIntArray;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The chunks claimed by a claimant, kept as packed chunk positions per dimension.
+ *   Chunks are only converted to {@link ClaimTag}s when the claimant is saved.
+ */
+public final class ClaimedChunks {
+    private final Map<RegistryKey<World>, LongSet> dimensions = new HashMap<>();
+    private int size = 0;
+    
+    /*
+     * Updating
+     */
+    
+    public synchronized boolean add(@NotNull RegistryKey<World> dimension, long pos) {
+        if (!this.dimensions.computeIfAbsent(dimension, key -> new LongOpenHashSet()).add(pos))
+            return false;
+        this.size++;
+        return true;
+    }
+    public synchronized boolean remove(@NotNull RegistryKey<World> dimension, long pos) {
+        LongSet chunks = this.dimensions.get(dimension);
+        if (chunks == null || !chunks.remove(pos))
+            return false;
+        if (chunks.isEmpty())
+            this.dimensions.remove(dimension);
+        this.size--;
+        return true;
+    }
+    
+    /*
+     * Querying
+     */
+    
+    public synchronized boolean contains(@NotNull RegistryKey<World> dimension, long pos) {
+        LongSet chunks = this.dimensions.get(dimension);
+        return chunks != null && chunks.contains(pos);
+    }
+    public synchronized int size() {
+        return this.size;
+    }
+    
+    /**
+     * @param dimension The dimension to get the chunks of
+     * @return A copy of the packed chunk positions claimed in the dimension
+     */
+    public synchronized long @NotNull [] get(@NotNull RegistryKey<World> dimension) {
+        LongSet chunks = this.dimensions.get(dimension);
+        return chunks == null ? new long[0] : chunks.toLongArray();
+    }
+    
+    /**
+     * Run an action for every chunk, against a copy so that the action may claim or unclaim chunks
+     * @param action The action to run
+     */
+    public void forEach(@NotNull Action action) {
+        Map<RegistryKey<World>, long[]> snapshot = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<RegistryKey<World>, LongSet> entry : this.dimensions.entrySet())
+                snapshot.put(entry.getKey(), entry.getValue().toLongArray());
+        }
+        
+        for (Map.Entry<RegistryKey<World>, long[]> entry : snapshot.entrySet()) {
+            for (long pos : entry.getValue())
+                action.accept(entry.getKey(), pos);
+        }
+    }
+    
+    /*
+     * Nbt saving
+     */
+    
+    public synchronized @NotNull NbtList toNbt() {
+        NbtList list = new NbtList();
+        for (Map.Entry<RegistryKey<World>, LongSet> entry : this.dimensions.entrySet()) {
+            LongIterator iterator = entry.getValue().iterator();
+            while (iterator.hasNext())
+                list.add(ClaimTag.of(entry.getKey(), iterator.nextLong()));
+        }
+        return list;
+    }
+    public void readNbt(@NotNull NbtList list) {
+        for (NbtElement it : list) {
+            if (it instanceof NbtIntArray array)
+                this.add(ClaimTag.fromArray(array));
+            else if (it instanceof NbtCompound compound)
+                this.add(ClaimTag.fromCompound(compound));
+        }
+    }
+    private void add(@Nullable ClaimTag claim) {
+        RegistryKey<World> dimension;
+        if (claim != null && (dimension = claim.getDimension()) != null)
+            this.add(dimension, ChunkPos.toLong(claim.getX(), claim.getZ()));
+    }
+    
+    @FunctionalInterface
+    public interface Action {
+        void accept(@NotNull RegistryKey<World> dimension, long pos);
+    }
+}
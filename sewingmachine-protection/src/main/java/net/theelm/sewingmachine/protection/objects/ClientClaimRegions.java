@@ -0,0 +1,115 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.WorldChunk;
+import net.theelm.sewingmachine.interfaces.NameCache;
+import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
+import net.theelm.sewingmachine.protection.packets.ClaimRegionPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * The owners of the chunks around the player, as pushed by the server. Kept separately from the chunks
+ *   because the owners of a region can arrive before the chunks themselves do
+ */
+@Environment(EnvType.CLIENT)
+public final class ClientClaimRegions {
+    private final @NotNull Long2ObjectMap<UUID> owners = new Long2ObjectOpenHashMap<>();
+    private int version = 0;
+    
+    /**
+     * Apply a region update from the server
+     * @param world The world that the player is in
+     * @param names The cache to store the names of owners in
+     * @param packet The update
+     * @return FALSE if the update was built against a different version than what we have
+     */
+    public boolean apply(@NotNull ClientWorld world, @NotNull NameCache names, @NotNull ClaimRegionPacket packet) {
+        if (packet.base() == 0)
+            this.owners.clear();
+        else if (packet.base() != this.version)
+            return false;
+        this.version = packet.version();
+        
+        // Forget anything that is no longer in the region, the server does the same
+        int minX = packet.x(), maxX = packet.x() + packet.size() - 1;
+        int minZ = packet.z(), maxZ = packet.z() + packet.size() - 1;
+        LongIterator iterator = this.owners.keySet().iterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            int x = ChunkPos.getPackedX(pos), z = ChunkPos.getPackedZ(pos);
+            if (x < minX || x > maxX || z < minZ || z > maxZ)
+                iterator.remove();
+        }
+        
+        // Store the names of owners that haven't been sent before
+        for (ClaimRegionPacket.Owner owner : packet.palette()) {
+            UUID id = owner.id();
+            Text name = owner.name();
+            if (id != null && name != null)
+                names.setPlayerName(id, name);
+        }
+        
+        int[] cells = packet.cells();
+        for (int i = 0; i < cells.length; i++) {
+            int x = packet.getX(cells[i]), z = packet.getZ(cells[i]);
+            UUID owner = packet.getOwner(i).id();
+            this.owners.put(ChunkPos.toLong(x, z), owner);
+            
+            // Update the chunk owner, if the chunk has already arrived
+            if (world.getChunk(x, z, ChunkStatus.FULL, false) instanceof IClaimedChunk chunk)
+                chunk.updatePlayerOwner(owner, false);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Update a chunk that arrived after its owner was pushed
+     * @param chunk The chunk
+     */
+    public void apply(@NotNull WorldChunk chunk) {
+        long pos = chunk.getPos().toLong();
+        if (this.owners.containsKey(pos))
+            ((IClaimedChunk) chunk).updatePlayerOwner(this.owners.get(pos), false);
+    }
+    
+    public void clear() {
+        this.owners.clear();
+        this.version = 0;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.protection.claims.Claimant;
+import net.theelm.sewingmachine.protection.interfaces.ClaimStorage;
+import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * The original storage layout, a compressed file for every Claimant
+ */
+public final class FileClaimStorage implements ClaimStorage {
+    private final @NotNull File folder;
+    
+    public FileClaimStorage(@NotNull File folder) {
+        this.folder = folder;
+    }
+    
+    @Override
+    public @Nullable NbtCompound read(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        File file = this.getFile(type, uuid);
+        if (!file.exists())
+            return null;
+        
+        try (FileInputStream stream = new FileInputStream(file)) {
+            return NbtIo.readCompressed(stream);
+            
+        } catch (IOException e) {
+            CoreMod.logError("Error reading " + type.name() + " " + uuid);
+            CoreMod.logError(e);
+        }
+        
+        return null;
+    }
+    
+    @Override
+    public boolean write(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid, @NotNull NbtCompound tag) {
+        // If the directories don't exist
+        if ((!this.folder.exists()) && (!this.folder.mkdirs()))
+            return false;
+        
+        return NbtUtils.writeBackupAndMove(this.getFile(type, uuid), tag);
+    }
+    
+    @Override
+    public boolean exists(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        return this.getFile(type, uuid).exists();
+    }
+    
+    @Override
+    public boolean delete(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        File file = this.getFile(type, uuid);
+        return file.exists() && file.delete();
+    }
+    
+    @Override
+    public void forEach(@NotNull BiConsumer<Claimant.ClaimantType, UUID> consumer) {
+        File[] files = this.folder.listFiles((dir, name) -> name.endsWith(".dat"));
+        if (files == null)
+            return;
+        
+        for (File file : files) {
+            String name = file.getName();
+            int split = name.indexOf('_');
+            if (split < 0)
+                continue;
+            
+            try {
+                consumer.accept(
+                    Claimant.ClaimantType.valueOf(name.substring(0, split).toUpperCase()),
+                    UUID.fromString(name.substring(split + 1, name.length() - ".dat".length()))
+                );
+            } catch (IllegalArgumentException e) {
+                CoreMod.logDebug("Skipping unknown claim file " + name);
+            }
+        }
+    }
+    
+    public @NotNull File getFolder() {
+        return this.folder;
+    }
+    public @NotNull File getFile(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        return new File(this.folder, type.name().toLowerCase() + "_" + uuid + ".dat");
+    }
+}
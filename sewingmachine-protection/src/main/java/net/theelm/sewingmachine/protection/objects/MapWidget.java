@@ -56,9 +56,9 @@ import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkStatus;
 import net.minecraft.world.chunk.WorldChunk;
 import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
+import net.theelm.sewingmachine.protection.interfaces.ClientClaimData;
 import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
 import net.theelm.sewingmachine.protection.packets.ClaimChunkPacket;
-import net.theelm.sewingmachine.protection.packets.ClaimQueryPacket;
 import net.theelm.sewingmachine.utilities.BlockUtils;
 import net.theelm.sewingmachine.utilities.ColorUtils;
 import net.theelm.sewingmachine.utilities.MathUtils;
@@ -133,6 +133,7 @@ public final class MapWidget {
         if (world == null)
             return;
         ClientPlayerEntity player = this.getPlayer();
+        ClientClaimRegions regions = ((ClientClaimData) this.client).getClaimRegions();
         
         for (int x = 0; x < this.chunksX; x++) {
             MapChunk[] inner = this.chunks[x];
@@ -147,12 +148,11 @@ public final class MapWidget {
                         
                         inner[z] = mapChunk;
                         
+                        // The server pushes the owners around the player, which may have arrived before the chunk
+                        regions.apply(worldChunk);
+                        
                         // Update the chunk
                         mapChunk.update();
-                        
-                        // Query the server (If we don't know who the owner is)
-                        if (!mapChunk.hasOwner())
-                            NetworkingUtils.send(this.client, new ClaimQueryPacket(mapChunk.getPos()));
                     }
                 }
             }
@@ -0,0 +1,110 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import net.theelm.sewingmachine.protection.enums.ClaimPermissions;
+import net.theelm.sewingmachine.protection.enums.ClaimRanks;
+import net.theelm.sewingmachine.protection.enums.ClaimSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An immutable snapshot of a Claimants permissions and settings, indexed by ordinal so that
+ *   reading them never has to touch a (synchronized) map
+ */
+public final class PermissionTable {
+    private static final ClaimPermissions[] PERMISSIONS = ClaimPermissions.values();
+    private static final ClaimSettings[] SETTINGS = ClaimSettings.values();
+    
+    private final int version;
+    private final @NotNull ClaimRanks[] ranks;
+    private final @NotNull boolean[] settings;
+    
+    private PermissionTable(int version, @NotNull ClaimRanks[] ranks, @NotNull boolean[] settings) {
+        this.version = version;
+        this.ranks = ranks;
+        this.settings = settings;
+    }
+    
+    /**
+     * @return The version of the table, which increases every time the table is rebuilt
+     */
+    public int getVersion() {
+        return this.version;
+    }
+    
+    public @NotNull ClaimRanks getRank(@Nullable ClaimPermissions permission) {
+        if (permission == null)
+            return ClaimRanks.ENEMY;
+        return this.ranks[permission.ordinal()];
+    }
+    public boolean getSetting(@NotNull ClaimSettings setting) {
+        return this.settings[setting.ordinal()];
+    }
+    
+    /**
+     * Get every permission that a rank is allowed to perform
+     * @param rank The rank of a player
+     * @return A mask of ClaimPermissions ordinals that the rank can perform
+     */
+    public long getAllowed(@NotNull ClaimRanks rank) {
+        long allowed = 0L;
+        for (int i = 0; i < this.ranks.length; i++) {
+            if (this.ranks[i].canPerform(rank))
+                allowed |= (1L << i);
+        }
+        return allowed;
+    }
+    
+    /**
+     * Compile a new table from the current permissions of a Claimant
+     * @param previous The table that is being replaced
+     * @param owner The owner of the claim, used for the setting defaults
+     * @param permissions The ranks that the owner has set for permissions
+     * @param settings The settings that the owner has changed
+     * @return A new table, with a newer version than the previous
+     */
+    public static @NotNull PermissionTable compile(@Nullable PermissionTable previous, @Nullable UUID owner, @NotNull Map<ClaimPermissions, ClaimRanks> permissions, @NotNull Map<ClaimSettings, Boolean> settings) {
+        ClaimRanks[] ranks = new ClaimRanks[PERMISSIONS.length];
+        boolean[] values = new boolean[SETTINGS.length];
+        
+        synchronized (permissions) {
+            for (ClaimPermissions permission : PERMISSIONS)
+                ranks[permission.ordinal()] = permissions.getOrDefault(permission, permission.getDefault());
+        }
+        synchronized (settings) {
+            for (ClaimSettings setting : SETTINGS) {
+                Boolean value = settings.get(setting);
+                values[setting.ordinal()] = value == null ? setting.getDefault(owner) : value;
+            }
+        }
+        
+        return new PermissionTable(previous == null ? 0 : previous.version + 1, ranks, values);
+    }
+}
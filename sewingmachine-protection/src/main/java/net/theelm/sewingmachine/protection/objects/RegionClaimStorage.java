@@ -0,0 +1,398 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.theelm.sewingmachine.base.CoreMod;
+import net.theelm.sewingmachine.protection.claims.Claimant;
+import net.theelm.sewingmachine.protection.interfaces.ClaimStorage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Stores all Claimants in a few append-only segment files, instead of a file per Claimant.
+ *   Every save appends a new record and the offset of the newest record for each
+ *   Claimant is kept in memory. Outdated records are dropped when segments are compacted.
+ * 
+ * Record layout: [byte type][long uuid][long uuid][int length][int crc][length bytes of compressed NBT]
+ *   A length of -1 marks a Claimant as deleted.
+ */
+public final class RegionClaimStorage implements ClaimStorage {
+    private static final int HEADER_SIZE = 1 + 8 + 8 + 4 + 4;
+    private static final long SEGMENT_SIZE = 16L * 1024 * 1024;
+    private static final long COMPACT_MINIMUM = 4L * 1024 * 1024;
+    private static final Claimant.ClaimantType[] TYPES = Claimant.ClaimantType.values();
+    
+    private final @NotNull File folder;
+    private final @NotNull Map<Integer, RandomAccessFile> segments = new TreeMap<>();
+    private final @NotNull Map<Key, Location> offsets = new HashMap<>();
+    private final @NotNull Set<Integer> unsynced = new HashSet<>();
+    
+    private int active = 0;
+    private long totalBytes = 0;
+    private long liveBytes = 0;
+    
+    public RegionClaimStorage(@NotNull File folder) throws IOException {
+        this.folder = folder;
+        if (!folder.exists() && !folder.mkdirs())
+            throw new IOException("Could not create claim storage folder " + folder);
+        
+        // Read the segments in order, newer records replace older records
+        File[] files = folder.listFiles((dir, name) -> name.startsWith("claims.") && name.endsWith(".seg"));
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    int segment = Integer.parseInt(file.getName().substring("claims.".length(), file.getName().length() - ".seg".length()));
+                    this.segments.put(segment, new RandomAccessFile(file, "rw"));
+                } catch (NumberFormatException e) {
+                    CoreMod.logDebug("Skipping unknown claim segment " + file.getName());
+                }
+            }
+        }
+        int remaining = this.segments.size();
+        try {
+            for (Map.Entry<Integer, RandomAccessFile> entry : this.segments.entrySet()) {
+                this.scan(entry.getKey(), entry.getValue(), --remaining == 0);
+                this.active = entry.getKey();
+            }
+        } catch (IOException | RuntimeException e) {
+            this.close();
+            throw e;
+        }
+        
+        CoreMod.logInfo("Loaded " + this.offsets.size() + " claimants from " + this.segments.size() + " claim segments.");
+    }
+    
+    /*
+     * Reading
+     */
+    
+    @Override
+    public synchronized @Nullable NbtCompound read(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        Location location = this.offsets.get(new Key(type, uuid));
+        if (location == null)
+            return null;
+        
+        try {
+            RandomAccessFile file = this.segments.get(location.segment());
+            file.seek(location.offset() + HEADER_SIZE - 4);
+            int crc = file.readInt();
+            byte[] data = new byte[location.length()];
+            file.readFully(data);
+            
+            if (RegionClaimStorage.checksum(data) != crc) {
+                CoreMod.logError("Corrupted claim data for " + type.name() + " " + uuid);
+                return null;
+            }
+            
+            return NbtIo.readCompressed(new ByteArrayInputStream(data));
+            
+        } catch (IOException e) {
+            CoreMod.logError("Error reading " + type.name() + " " + uuid);
+            CoreMod.logError(e);
+        }
+        
+        return null;
+    }
+    
+    @Override
+    public synchronized boolean exists(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        return this.offsets.containsKey(new Key(type, uuid));
+    }
+    
+    @Override
+    public void forEach(@NotNull BiConsumer<Claimant.ClaimantType, UUID> consumer) {
+        List<Key> keys;
+        synchronized (this) {
+            keys = new ArrayList<>(this.offsets.keySet());
+        }
+        for (Key key : keys)
+            consumer.accept(key.type(), key.uuid());
+    }
+    
+    /*
+     * Writing
+     */
+    
+    @Override
+    public boolean write(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid, @NotNull NbtCompound tag) {
+        // Compress outside of the lock
+        byte[] data;
+        try {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            NbtIo.writeCompressed(tag, stream);
+            data = stream.toByteArray();
+        } catch (IOException e) {
+            CoreMod.logError(e);
+            return false;
+        }
+        
+        synchronized (this) {
+            try {
+                this.append(new Key(type, uuid), data);
+                return true;
+            } catch (IOException e) {
+                CoreMod.logError("Error writing " + type.name() + " " + uuid);
+                CoreMod.logError(e);
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public synchronized boolean delete(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        Key key = new Key(type, uuid);
+        if (!this.offsets.containsKey(key))
+            return false;
+        
+        try {
+            this.append(key, null);
+            return true;
+        } catch (IOException e) {
+            CoreMod.logError(e);
+        }
+        return false;
+    }
+    
+    /**
+     * Append a record to the active segment
+     * @param key The Claimant the record is for
+     * @param data The compressed NBT, or NULL to delete the Claimant
+     * @throws IOException If the segment could not be written
+     */
+    private void append(@NotNull Key key, byte[] data) throws IOException {
+        RandomAccessFile file = this.getActiveSegment();
+        long offset = file.length();
+        
+        file.seek(offset);
+        file.writeByte(key.type().ordinal());
+        file.writeLong(key.uuid().getMostSignificantBits());
+        file.writeLong(key.uuid().getLeastSignificantBits());
+        file.writeInt(data == null ? -1 : data.length);
+        file.writeInt(data == null ? 0 : RegionClaimStorage.checksum(data));
+        if (data != null)
+            file.write(data);
+        this.unsynced.add(this.active);
+        
+        long size = HEADER_SIZE + (data == null ? 0 : data.length);
+        this.totalBytes += size;
+        
+        Location previous = data == null ? this.offsets.remove(key) : this.offsets.put(key, new Location(this.active, offset, data.length));
+        if (previous != null)
+            this.liveBytes -= HEADER_SIZE + previous.length();
+        if (data != null)
+            this.liveBytes += size;
+    }
+    
+    private @NotNull RandomAccessFile getActiveSegment() throws IOException {
+        RandomAccessFile file = this.segments.get(this.active);
+        if (file == null || file.length() >= SEGMENT_SIZE) {
+            if (file != null) {
+                // The full segment won't be written to again
+                this.syncSegment(this.active, file);
+                this.active++;
+            }
+            file = new RandomAccessFile(this.getSegmentFile(this.active), "rw");
+            this.segments.put(this.active, file);
+        }
+        return file;
+    }
+    
+    /*
+     * Compaction
+     */
+    
+    /**
+     * Rewrite the live records into new segments once more than half of the stored data is outdated
+     */
+    @Override
+    public synchronized void compact() {
+        long garbage = this.totalBytes - this.liveBytes;
+        if (garbage < COMPACT_MINIMUM || garbage < this.liveBytes)
+            return;
+        
+        List<Integer> previous = new ArrayList<>(this.segments.keySet());
+        try {
+            // Start a new segment so the live records aren't mixed in with the old ones
+            if (this.segments.containsKey(this.active))
+                this.active++;
+            
+            this.totalBytes = 0;
+            this.liveBytes = 0;
+            for (Map.Entry<Key, Location> entry : new ArrayList<>(this.offsets.entrySet())) {
+                Location location = entry.getValue();
+                RandomAccessFile file = this.segments.get(location.segment());
+                byte[] data = new byte[location.length()];
+                file.seek(location.offset() + HEADER_SIZE);
+                file.readFully(data);
+                
+                this.append(entry.getKey(), data);
+            }
+            
+            // The live records have to be on the disk before the old copies of them are removed
+            this.syncSegments();
+            
+            // Remove the old segments from oldest to newest, so an interruption can't bring back deleted claimants
+            for (Integer segment : previous) {
+                this.segments.remove(segment).close();
+                if (!this.getSegmentFile(segment).delete())
+                    CoreMod.logError("Could not remove old claim segment " + segment);
+            }
+            
+            CoreMod.logInfo("Compacted claim storage, freed " + (garbage / 1024) + "KB.");
+        } catch (IOException e) {
+            CoreMod.logError("Error compacting claim storage");
+            CoreMod.logError(e);
+        }
+    }
+    
+    /*
+     * Syncing
+     */
+    
+    @Override
+    public synchronized void sync() {
+        try {
+            this.syncSegments();
+        } catch (IOException e) {
+            CoreMod.logError("Error syncing claim storage");
+            CoreMod.logError(e);
+        }
+    }
+    
+    private void syncSegments() throws IOException {
+        for (Integer segment : new ArrayList<>(this.unsynced)) {
+            RandomAccessFile file = this.segments.get(segment);
+            if (file == null)
+                this.unsynced.remove(segment);
+            else this.syncSegment(segment, file);
+        }
+    }
+    
+    private void syncSegment(int segment, @NotNull RandomAccessFile file) throws IOException {
+        if (this.unsynced.remove(segment))
+            file.getFD().sync();
+    }
+    
+    @Override
+    public synchronized void close() {
+        this.sync();
+        for (RandomAccessFile file : this.segments.values()) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                CoreMod.logError(e);
+            }
+        }
+        this.segments.clear();
+    }
+    
+    /*
+     * Loading
+     */
+    
+    /**
+     * Read the headers of every record in a segment
+     * @param segment The number of the segment
+     * @param file The segment file
+     * @param last If the segment is the newest segment, which is the only one that can be written to when the server stops
+     * @throws IOException If the segment can't be read
+     * @throws IllegalStateException If a bad record is found before the end of the newest segment
+     */
+    private void scan(int segment, @NotNull RandomAccessFile file, boolean last) throws IOException {
+        long length = file.length();
+        long offset = 0;
+        
+        file.seek(0);
+        while (offset < length) {
+            try {
+                if (offset + HEADER_SIZE > length)
+                    throw new EOFException();
+                
+                int type = file.readUnsignedByte();
+                UUID uuid = new UUID(file.readLong(), file.readLong());
+                int size = file.readInt();
+                file.readInt(); // The CRC is only checked when the record is read
+                
+                if (type >= TYPES.length || size < -1 || offset + HEADER_SIZE + Math.max(size, 0) > length)
+                    throw new EOFException();
+                
+                Key key = new Key(TYPES[type], uuid);
+                long total = HEADER_SIZE + Math.max(size, 0);
+                this.totalBytes += total;
+                
+                Location previous = size < 0 ? this.offsets.remove(key) : this.offsets.put(key, new Location(segment, offset, size));
+                if (previous != null)
+                    this.liveBytes -= HEADER_SIZE + previous.length();
+                if (size >= 0)
+                    this.liveBytes += total;
+                
+                offset += total;
+                file.seek(offset);
+            } catch (EOFException e) {
+                // Records can't be found past a bad header, so refuse to start instead of losing every claim after it
+                if (!last)
+                    throw new IllegalStateException("Claim segment " + this.getSegmentFile(segment).getName() + " has a bad record at " + offset + ", it must be repaired or removed before starting");
+                
+                // A record was only partially written (The server stopped mid-write), drop it
+                CoreMod.logError("Truncating incomplete claim record in segment " + segment + " at " + offset);
+                file.setLength(offset);
+                break;
+            }
+        }
+    }
+    
+    private @NotNull File getSegmentFile(int segment) {
+        return new File(this.folder, String.format("claims.%05d.seg", segment));
+    }
+    
+    private static int checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+    
+    private record Key(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {}
+    private record Location(int segment, long offset, int length) {}
+}
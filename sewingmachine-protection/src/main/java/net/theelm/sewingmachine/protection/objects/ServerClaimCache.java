@@ -25,14 +25,16 @@
 
 package net.theelm.sewingmachine.protection.objects;
 
-import net.theelm.sewingmachine.exceptions.NbtNotFoundException;
+import net.theelm.sewingmachine.enums.TickablePriority;
 import net.theelm.sewingmachine.interfaces.LogicalWorld;
 import net.theelm.sewingmachine.interfaces.TickableContext;
 import net.theelm.sewingmachine.interfaces.TickingAction;
 import net.theelm.sewingmachine.protection.claims.Claimant;
 import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
 import net.theelm.sewingmachine.protection.claims.ClaimantTown;
+import net.theelm.sewingmachine.protection.interfaces.ClaimStorage;
 import net.theelm.sewingmachine.protection.utilities.ClaimNbtUtils;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
@@ -61,6 +63,10 @@ public final class ServerClaimCache extends ClaimCache implements TickingAction
     private final Map<UUID, TownCacheEntry> townClaimCache = Collections.synchronizedMap(new HashMap<>());
     
     private final MinecraftServer server;
+    private final ClaimantIndex claimantIndex;
+    private final ChunkOwnerIndex chunkOwners = new ChunkOwnerIndex();
+    private final ClaimStorage storage;
+    private final ClaimSaver saver;
     
     private int index = 1;
     private List<UUID> players = Collections.emptyList();
@@ -68,6 +74,10 @@ public final class ServerClaimCache extends ClaimCache implements TickingAction
     
     public ServerClaimCache(@NotNull MinecraftServer server, @NotNull ServerWorld mainWorld) {
         this.server = server;
+        this.storage = ClaimNbtUtils.openStorage();
+        this.saver = new ClaimSaver(this.storage);
+        this.claimantIndex = ClaimNbtUtils.buildIndex(this.storage);
+        this.chunkOwners.rebuild(this.storage);
         
         // Make sure that the cleanup event is ticked by attaching to the main world
         ((LogicalWorld)mainWorld).addTickableEvent(this);
@@ -120,6 +130,44 @@ public final class ServerClaimCache extends ClaimCache implements TickingAction
     public @NotNull MinecraftServer getServer() {
         return this.server;
     }
+    public @NotNull ClaimantIndex getIndex() {
+        return this.claimantIndex;
+    }
+    public @NotNull ChunkOwnerIndex getChunkOwners() {
+        return this.chunkOwners;
+    }
+    public @NotNull ClaimStorage getStorage() {
+        return this.storage;
+    }
+    public @NotNull ClaimSaver getSaver() {
+        return this.saver;
+    }
+    
+    /**
+     * Write everything that is waiting to be saved and close the storage
+     */
+    public void close() {
+        this.saver.close();
+        this.storage.close();
+    }
+    
+    /**
+     * Read the saved data of a Claimant, preferring data that is still waiting to be written
+     * @param type The Claimant type
+     * @param uuid The Claimant ID
+     * @return The saved data, or an empty tag if nothing has been saved
+     */
+    public @NotNull NbtCompound readClaimData(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
+        NbtCompound pending = this.saver.getPending(type, uuid);
+        if (pending != null)
+            return pending;
+        
+        // Skip reading the disk if there is nothing saved
+        NbtCompound saved;
+        if (!this.claimantIndex.exists(type, uuid) || (saved = this.storage.read(type, uuid)) == null)
+            return ClaimNbtUtils.emptyTag(type, uuid);
+        return saved;
+    }
     
     /*
      * Players
@@ -138,6 +186,14 @@ public final class ServerClaimCache extends ClaimCache implements TickingAction
         return new ClaimantPlayer(this, playerUUID);
     }
     
+    /**
+     * @param playerUUID The ID of the player
+     * @return The claim of the player, only if it is already in the cache
+     */
+    public @Nullable ClaimantPlayer getCachedPlayerClaim(@NotNull UUID playerUUID) {
+        return this.getFromCache(this.playerClaimCache, playerUUID);
+    }
+    
     /*
      * Towns
      */
@@ -149,33 +205,26 @@ public final class ServerClaimCache extends ClaimCache implements TickingAction
         if (townId == null)
             return null;
         
-        try {
-            ClaimNbtUtils.assertExists(Claimant.ClaimantType.TOWN, townId);
-            
-            // If contained in the cache
-            if ((town = this.getFromCache(this.townClaimCache, townId)) != null)
-                return town;
-            
-            // Return the town object
-            return new ClaimantTown(this, townId);
-        } catch (NbtNotFoundException e) {
+        // If contained in the cache
+        if ((town = this.getFromCache(this.townClaimCache, townId)) != null)
+            return town;
+        
+        // If the town has never been saved
+        if (!this.claimantIndex.exists(Claimant.ClaimantType.TOWN, townId))
             return null;
-        }
+        
+        // Return the town object
+        return new ClaimantTown(this, townId);
     }
     public @Nullable ClaimantTown getTownClaim(String name) {
-        return this.townClaimCache.values()
-            .stream()
-            .map(ClaimCacheEntry::getValue)
-            .filter(town -> town != null && Objects.equals(name, town.getName().getString()))
-            .findAny()
-            .orElse(null);
+        return this.getTownClaim(this.claimantIndex.getTownId(name));
     }
     public @NotNull ClaimantTown makeTownClaim(@NotNull ServerPlayerEntity founder, @NotNull MutableText townName) {
         // Generate a random UUID
         UUID townUUID;
         do {
             townUUID = UUID.randomUUID();
-        } while (ClaimNbtUtils.exists(Claimant.ClaimantType.TOWN, townUUID));
+        } while (this.claimantIndex.exists(Claimant.ClaimantType.TOWN, townUUID) || this.townClaimCache.containsKey(townUUID));
         return this.makeTownClaim(townUUID, founder.getUuid(), townName);
     }
     public @NotNull ClaimantTown makeTownClaim(@NotNull UUID townUUID, @NotNull UUID founder, @NotNull MutableText townName) {
@@ -194,10 +243,15 @@ public final class ServerClaimCache extends ClaimCache implements TickingAction
      * Handle ticking
      */
     
+    @Override
+    public @NotNull TickablePriority getPriority() {
+        return TickablePriority.LOW;
+    }
+    
     @Override
     public boolean isCompleted(@NotNull TickableContext tickable) {
-        if (tickable.getTicks() % 100 == 0)
-            this.tick();
+        this.tick();
+        tickable.delay(100);
         
         // Only return TRUE if the Tickable is disposed
         return tickable.isRemoved();
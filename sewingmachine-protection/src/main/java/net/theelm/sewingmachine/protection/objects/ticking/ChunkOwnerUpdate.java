@@ -38,10 +38,10 @@ import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
 import net.theelm.sewingmachine.protection.claims.ClaimantTown;
 import net.theelm.sewingmachine.protection.commands.ClaimCommand;
 import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
+import net.theelm.sewingmachine.protection.interfaces.PlayerClaimSync;
 import net.theelm.sewingmachine.protection.objects.ClaimCache;
 import net.theelm.sewingmachine.protection.objects.ServerClaimCache;
 import net.theelm.sewingmachine.protection.packets.ClaimCountPacket;
-import net.theelm.sewingmachine.protection.packets.ClaimedChunkPacket;
 import net.theelm.sewingmachine.utilities.ChunkUtils;
 import net.theelm.sewingmachine.utilities.DimensionUtils;
 import net.theelm.sewingmachine.utilities.ModUtils;
@@ -116,6 +116,11 @@ public class ChunkOwnerUpdate implements TickingAction {
         return this.claimant;
     }
     
+    @Override
+    public @Nullable UUID getTickableOwner() {
+        return this.claimant == null ? null : this.claimant.getId();
+    }
+    
     @Override
     public boolean isCompleted(@NotNull TickableContext tickable) {
         // Check that a claimant was found (If not, just remove)
@@ -123,8 +128,7 @@ public class ChunkOwnerUpdate implements TickingAction {
             return true;
         
         // Run every 2 ticks
-        if (tickable.getTicks() % 2 != 0)
-            return false;
+        tickable.delay(2);
         World world = tickable.getWorld();
         
         BlockPos claimPos = this.positions.poll();
@@ -251,8 +255,8 @@ public class ChunkOwnerUpdate implements TickingAction {
                 // Send out an update to nearby players
                 Collection<ServerPlayerEntity> watchers = ChunkUtils.getPlayersMonitoring(worldChunk.getWorld(), worldChunk.getPos());
                 for (ServerPlayerEntity watcher : watchers) {
-                    if (ModUtils.hasModule(watcher, "protection"))
-                        NetworkingUtils.send(watcher, new ClaimedChunkPacket(worldChunk.getPos(), claimant.getId(), claimant.getName()));
+                    ((PlayerClaimSync) watcher.networkHandler).getClaimSync()
+                        .syncRegion(watcher);
                 }
                 
                 return ActionResult.SUCCESS;
@@ -309,8 +313,8 @@ public class ChunkOwnerUpdate implements TickingAction {
                 // Send out an update to nearby players
                 Collection<ServerPlayerEntity> watchers = ChunkUtils.getPlayersMonitoring(worldChunk.getWorld(), worldChunk.getPos());
                 for (ServerPlayerEntity watcher : watchers) {
-                    if (ModUtils.hasModule(watcher, "protection"))
-                        NetworkingUtils.send(watcher, new ClaimedChunkPacket(worldChunk.getPos(), null, null));
+                    ((PlayerClaimSync) watcher.networkHandler).getClaimSync()
+                        .syncRegion(watcher);
                 }
                 
                 return ActionResult.SUCCESS;
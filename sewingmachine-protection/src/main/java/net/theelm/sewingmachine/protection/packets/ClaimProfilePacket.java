@@ -0,0 +1,110 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.packets;
+
+import net.fabricmc.fabric.api.networking.v1.FabricPacket;
+import net.fabricmc.fabric.api.networking.v1.PacketType;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.text.Text;
+import net.theelm.sewingmachine.events.PlayerNameCallback;
+import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
+import net.theelm.sewingmachine.protection.enums.ClaimPermissions;
+import net.theelm.sewingmachine.protection.enums.ClaimRanks;
+import net.theelm.sewingmachine.protection.enums.ClaimSettings;
+import net.theelm.sewingmachine.utilities.mod.Sew;
+import net.theelm.sewingmachine.utilities.text.TextUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Everything about a players claim that the client needs for its settings screens, sent in one packet
+ *   instead of one packet per permission, setting and friend
+ */
+public record ClaimProfilePacket(@NotNull Map<ClaimPermissions, ClaimRanks> permissions, @NotNull Map<ClaimSettings, Boolean> settings, @NotNull List<Friend> friends) implements FabricPacket {
+    public static final PacketType<ClaimProfilePacket> TYPE = PacketType.create(Sew.modIdentifier("claim_profile"), ClaimProfilePacket::new);
+    
+    public ClaimProfilePacket(@NotNull PacketByteBuf buf) {
+        this(
+            buf.readMap(size -> new EnumMap<>(ClaimPermissions.class), reader -> reader.readEnumConstant(ClaimPermissions.class), reader -> reader.readEnumConstant(ClaimRanks.class)),
+            buf.readMap(size -> new EnumMap<>(ClaimSettings.class), reader -> reader.readEnumConstant(ClaimSettings.class), PacketByteBuf::readBoolean),
+            buf.readList(Friend::new)
+        );
+    }
+    
+    @Override
+    public void write(@NotNull PacketByteBuf buf) {
+        buf.writeMap(this.permissions, PacketByteBuf::writeEnumConstant, PacketByteBuf::writeEnumConstant);
+        buf.writeMap(this.settings, PacketByteBuf::writeEnumConstant, PacketByteBuf::writeBoolean);
+        buf.writeCollection(this.friends, (writer, friend) -> friend.write(writer));
+    }
+    
+    @Override
+    public PacketType<?> getType() {
+        return ClaimProfilePacket.TYPE;
+    }
+    
+    /**
+     * Build the profile of a claim
+     * @param server The server, used to look up the names of friends
+     * @param claim The claim to build the profile of
+     * @return The profile
+     */
+    public static @NotNull ClaimProfilePacket of(@NotNull MinecraftServer server, @NotNull ClaimantPlayer claim) {
+        Map<ClaimPermissions, ClaimRanks> permissions = new EnumMap<>(ClaimPermissions.class);
+        for (ClaimPermissions permission : ClaimPermissions.values())
+            permissions.put(permission, claim.getPermissionRankRequirement(permission));
+        
+        Map<ClaimSettings, Boolean> settings = new EnumMap<>(ClaimSettings.class);
+        for (ClaimSettings setting : ClaimSettings.values())
+            if (setting.isEnabled())
+                settings.put(setting, claim.getProtectedChunkSetting(setting));
+        
+        List<Friend> friends = new ArrayList<>();
+        for (UUID friend : claim.getFriends())
+            friends.add(new Friend(friend, PlayerNameCallback.getName(server, friend), claim.getFriendRank(friend)));
+        
+        return new ClaimProfilePacket(permissions, settings, friends);
+    }
+    
+    public record Friend(@NotNull UUID player, @Nullable Text text, @NotNull ClaimRanks rank) {
+        public Friend(@NotNull PacketByteBuf buf) {
+            this(buf.readUuid(), buf.readText(), buf.readEnumConstant(ClaimRanks.class));
+        }
+        
+        public void write(@NotNull PacketByteBuf buf) {
+            buf.writeUuid(this.player);
+            buf.writeText(this.text == null ? TextUtils.literal() : this.text);
+            buf.writeEnumConstant(this.rank);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.packets;
+
+import net.fabricmc.fabric.api.networking.v1.FabricPacket;
+import net.fabricmc.fabric.api.networking.v1.PacketType;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.ChunkPos;
+import net.theelm.sewingmachine.utilities.mod.Sew;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The owners of a square area of chunks around a player. Only the cells that changed since {@code base} are sent,
+ *   each cell points at an entry in a palette of owners, so the owners name is sent once instead of once per chunk
+ * 
+ * @param version The version of the region after applying this packet
+ * @param base The version that this packet was built against, or 0 if the receiver should forget the previous region
+ * @param x The chunk X position of the lowest corner of the region
+ * @param z The chunk Z position of the lowest corner of the region
+ * @param size The width of the region
+ * @param palette The owners referenced by the cells
+ * @param cells The changed cells, as ascending indexes within the region
+ * @param owners The palette index of the owner of each cell
+ */
+public record ClaimRegionPacket(int version, int base, int x, int z, int size, @NotNull List<Owner> palette, int @NotNull [] cells, int @NotNull [] owners) implements FabricPacket {
+    public static final PacketType<ClaimRegionPacket> TYPE = PacketType.create(Sew.modIdentifier("claim_region"), ClaimRegionPacket::new);
+    
+    public ClaimRegionPacket(@NotNull PacketByteBuf buf) {
+        this(buf.readVarInt(), buf.readVarInt(), buf.readInt(), buf.readInt(), buf.readVarInt(), buf);
+    }
+    private ClaimRegionPacket(int version, int base, int x, int z, int size, @NotNull PacketByteBuf buf) {
+        this(version, base, x, z, size, buf.readList(Owner::new), new int[buf.readVarInt()], buf);
+    }
+    private ClaimRegionPacket(int version, int base, int x, int z, int size, @NotNull List<Owner> palette, int @NotNull [] cells, @NotNull PacketByteBuf buf) {
+        this(version, base, x, z, size, palette, cells, new int[cells.length]);
+        
+        // Cells are written as the gap from the previous cell
+        int cell = -1;
+        for (int i = 0; i < cells.length; i++) {
+            cell += buf.readVarInt() + 1;
+            cells[i] = cell;
+            this.owners[i] = buf.readVarInt();
+        }
+    }
+    
+    public int getX(int cell) {
+        return this.x + (cell % this.size);
+    }
+    public int getZ(int cell) {
+        return this.z + (cell / this.size);
+    }
+    public @NotNull ChunkPos getPos(int cell) {
+        return new ChunkPos(this.getX(cell), this.getZ(cell));
+    }
+    public @NotNull Owner getOwner(int i) {
+        return this.palette.get(this.owners[i]);
+    }
+    
+    @Override
+    public void write(@NotNull PacketByteBuf buf) {
+        buf.writeVarInt(this.version);
+        buf.writeVarInt(this.base);
+        buf.writeInt(this.x);
+        buf.writeInt(this.z);
+        buf.writeVarInt(this.size);
+        buf.writeCollection(this.palette, (writer, owner) -> owner.write(writer));
+        buf.writeVarInt(this.cells.length);
+        
+        int previous = -1;
+        for (int i = 0; i < this.cells.length; i++) {
+            buf.writeVarInt(this.cells[i] - previous - 1);
+            buf.writeVarInt(this.owners[i]);
+            previous = this.cells[i];
+        }
+    }
+    
+    @Override
+    public PacketType<?> getType() {
+        return ClaimRegionPacket.TYPE;
+    }
+    
+    /**
+     * @param id The owner, or NULL for the wilderness
+     * @param name The name of the owner, if it hasn't been sent before
+     */
+    public record Owner(@Nullable UUID id, @Nullable Text name) {
+        public Owner(@NotNull PacketByteBuf buf) {
+            this(buf.readNullable(PacketByteBuf::readUuid), buf.readNullable(PacketByteBuf::readText));
+        }
+        
+        public void write(@NotNull PacketByteBuf buf) {
+            buf.writeNullable(this.id, PacketByteBuf::writeUuid);
+            buf.writeNullable(this.name, PacketByteBuf::writeText);
+        }
+    }
+    
+    /**
+     * Collects the changed cells of a region, in ascending order
+     */
+    public static final class Builder {
+        private final int x;
+        private final int z;
+        private final int size;
+        private final @NotNull List<Owner> palette = new ArrayList<>();
+        private final @NotNull List<UUID> paletteIds = new ArrayList<>();
+        private int[] cells = new int[16];
+        private int[] owners = new int[16];
+        private int count = 0;
+        
+        public Builder(int x, int z, int size) {
+            this.x = x;
+            this.z = z;
+            this.size = size;
+        }
+        
+        public int index(int chunkX, int chunkZ) {
+            return (chunkZ - this.z) * this.size + (chunkX - this.x);
+        }
+        
+        /**
+         * @param cell The index of the cell, must be higher than the previously added cell
+         * @param owner The owner of the cell
+         * @param name The name of the owner, used if this is the first time the owner is in the palette
+         */
+        public void add(int cell, @Nullable UUID owner, @Nullable Text name) {
+            int palette = this.paletteIds.indexOf(owner);
+            if (palette < 0) {
+                palette = this.palette.size();
+                this.palette.add(new Owner(owner, name));
+                this.paletteIds.add(owner);
+            }
+            
+            if (this.count == this.cells.length) {
+                this.cells = Arrays.copyOf(this.cells, this.count * 2);
+                this.owners = Arrays.copyOf(this.owners, this.count * 2);
+            }
+            this.cells[this.count] = cell;
+            this.owners[this.count] = palette;
+            this.count++;
+        }
+        
+        public boolean isEmpty() {
+            return this.count == 0;
+        }
+        
+        public @NotNull ClaimRegionPacket build(int version, int base) {
+            return new ClaimRegionPacket(
+                version,
+                base,
+                this.x,
+                this.z,
+                this.size,
+                this.palette,
+                Arrays.copyOf(this.cells, this.count),
+                Arrays.copyOf(this.owners, this.count)
+            );
+        }
+    }
+}
@@ -26,6 +26,8 @@
 package net.theelm.sewingmachine.protection.utilities;
 
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
@@ -35,44 +37,56 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.HeightLimitView;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldView;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkStatus;
 import net.minecraft.world.chunk.WorldChunk;
 import net.theelm.sewingmachine.base.CoreMod;
 import net.theelm.sewingmachine.base.config.SewBaseConfig;
 import net.theelm.sewingmachine.config.SewConfig;
 import net.theelm.sewingmachine.protection.config.SewProtectionConfig;
 import net.theelm.sewingmachine.protection.enums.ClaimPermissions;
-import net.theelm.sewingmachine.protection.enums.ClaimRanks;
 import net.theelm.sewingmachine.protection.enums.ClaimSettings;
 import net.theelm.sewingmachine.protection.interfaces.Claim;
 import net.theelm.sewingmachine.protection.interfaces.ClaimsAccessor;
 import net.theelm.sewingmachine.protection.interfaces.IClaimedChunk;
 import net.theelm.sewingmachine.protection.interfaces.PlayerTravel;
+import net.theelm.sewingmachine.protection.objects.ChunkOwnerIndex;
 import net.theelm.sewingmachine.protection.objects.ClaimCache;
 import net.theelm.sewingmachine.protection.objects.PlayerVisitor;
+import net.theelm.sewingmachine.protection.objects.ServerClaimCache;
 import net.theelm.sewingmachine.protections.BlockRange;
 import net.theelm.sewingmachine.protection.claims.ClaimantPlayer;
 import net.theelm.sewingmachine.utilities.ChunkUtils;
 import net.theelm.sewingmachine.utilities.DimensionUtils;
 import net.theelm.sewingmachine.utilities.EntityUtils;
 import net.theelm.sewingmachine.utilities.ServerText;
+import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
 import net.theelm.sewingmachine.utilities.text.MessageUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public final class ClaimChunkUtils {
+    // Keys used to save the owners into the chunk data
+    public static final String NBT_OWNER = "sewingMachineOwnerUUID";
+    public static final String NBT_TOWN = "sewingMachineTownUUID";
+    public static final String NBT_SLICES = "sewingMachineOwnerSlices";
+    
     /**
      * Check the database if a user can perform an action within the specified chunk
      */
@@ -232,12 +246,8 @@ public final class ClaimChunkUtils {
         ClaimantPlayer permissions = ((ClaimsAccessor) server).getClaimManager()
             .getPlayerClaim(target);
         
-        // Get the ranks of the user and the rank required for performing
-        ClaimRanks userRank = permissions.getFriendRank(player);
-        ClaimRanks permReq = permissions.getPermissionRankRequirement(ClaimPermissions.WARP);
-        
         // Return the test if the user can perform the action
-        return permReq.canPerform(userRank);
+        return permissions.isAllowed(player, ClaimPermissions.WARP);
     }
     
     /**
@@ -249,12 +259,213 @@ public final class ClaimChunkUtils {
      * @return Whether sourcePos is allowed to do something to protectedPos
      */
     public static boolean canBlockModifyBlock(@NotNull World world, @NotNull BlockPos protectedPos, @NotNull BlockPos sourcePos, @Nullable ClaimPermissions permission) {
-        // Get chunks
-        WorldChunk protectedChunk = world.getWorldChunk(protectedPos);
-        WorldChunk sourceChunk = world.getWorldChunk(sourcePos);
+        IClaimedChunk protectedChunk = ClaimChunkUtils.getLoadedChunk(world, protectedPos);
+        
+        // If both positions are in the same chunk, only look up the chunk once
+        if (ClaimChunkUtils.isSameChunk(protectedPos, sourcePos))
+            return protectedChunk == null || protectedChunk.canPlayerDo(protectedPos, protectedChunk.getOwnerId(sourcePos), permission);
+        
+        // Get the owner of the source, without loading its chunk
+        IClaimedChunk sourceChunk = ClaimChunkUtils.getLoadedChunk(world, sourcePos);
+        UUID sourceOwner;
+        if (sourceChunk != null)
+            sourceOwner = sourceChunk.getOwnerId(sourcePos);
+        else if (ClaimChunkUtils.isOwnerKnown(world, sourcePos))
+            sourceOwner = ClaimChunkUtils.getUnloadedOwner(world, sourcePos);
+        else return false;
         
         // Check that first chunk owner can modify the next chunk
-        return ((IClaimedChunk) protectedChunk).canPlayerDo(protectedPos, ((IClaimedChunk) sourceChunk).getOwnerId(sourcePos), permission);
+        if (protectedChunk != null)
+            return protectedChunk.canPlayerDo(protectedPos, sourceOwner, permission);
+        
+        // Fall back to the last known owner of the protected chunk
+        if (!ClaimChunkUtils.isOwnerKnown(world, protectedPos))
+            return false;
+        UUID protectedOwner = ClaimChunkUtils.getUnloadedOwner(world, protectedPos);
+        if (protectedOwner == null || protectedOwner.equals(sourceOwner))
+            return true;
+        
+        ClaimantPlayer claim = ClaimChunkUtils.getClaimCache(world)
+            .getPlayerClaim(protectedOwner);
+        return claim.isAllowed(sourceOwner, permission);
+    }
+    
+    /**
+     * Get a chunk only if it is already loaded, never loading or generating it
+     * @param world The world to get the chunk from
+     * @param pos A position within the chunk
+     * @return The chunk, or NULL if it isn't loaded
+     */
+    public static @Nullable IClaimedChunk getLoadedChunk(@NotNull WorldView world, @NotNull BlockPos pos) {
+        Chunk chunk = world.getChunk(pos.getX() >> 4, pos.getZ() >> 4, ChunkStatus.FULL, false);
+        return chunk instanceof IClaimedChunk claimedChunk ? claimedChunk : null;
+    }
+    public static boolean isSameChunk(@NotNull BlockPos a, @NotNull BlockPos b) {
+        return (a.getX() >> 4) == (b.getX() >> 4) && (a.getZ() >> 4) == (b.getZ() >> 4);
+    }
+    /**
+     * @param world The world of the position
+     * @param pos The position
+     * @return If the whole-chunk owner of an unloaded chunk can be used for the position. Chunks that haven't been
+     *         seen since starting (Only rebuilt from the claim storage) may have slices, they are read in the
+     *         background so that the next check can answer.
+     */
+    private static boolean isOwnerKnown(@NotNull World world, @NotNull BlockPos pos) {
+        if (!(ClaimChunkUtils.getClaimCache(world) instanceof ServerClaimCache claimCache))
+            return false;
+        
+        // Chunks with slices may have a different owner at the position
+        ChunkOwnerIndex index = claimCache.getChunkOwners();
+        ChunkPos chunkPos = new ChunkPos(pos);
+        Boolean sliced = index.hasSlices(world.getRegistryKey(), chunkPos.toLong());
+        if (sliced == null && world instanceof ServerWorld serverWorld)
+            ClaimChunkUtils.peekChunk(serverWorld, index, chunkPos);
+        return sliced == Boolean.FALSE;
+    }
+    private static @Nullable UUID getUnloadedOwner(@NotNull World world, @NotNull BlockPos pos) {
+        return ClaimChunkUtils.getClaimCache(world) instanceof ServerClaimCache claimCache ?
+            claimCache.getChunkOwners().get(world.getRegistryKey(), ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4)) : null;
+    }
+    
+    /**
+     * Get the whole-chunk owner of a chunk, without loading or generating the chunk
+     * @param world The world of the chunk
+     * @param chunkX The chunk X position
+     * @param chunkZ The chunk Z position
+     * @return The owner of the chunk, or NULL if it is unowned or not known
+     */
+    private static @Nullable UUID getChunkOwner(@NotNull World world, int chunkX, int chunkZ) {
+        Chunk chunk = world.getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+        if (chunk instanceof IClaimedChunk claimedChunk)
+            return claimedChunk.getOwnerId();
+        
+        if (!(ClaimChunkUtils.getClaimCache(world) instanceof ServerClaimCache claimCache))
+            return ((IClaimedChunk) world.getChunk(chunkX, chunkZ)).getOwnerId();
+        return claimCache.getChunkOwners().get(world.getRegistryKey(), ChunkPos.toLong(chunkX, chunkZ));
+    }
+    
+    /**
+     * Get every whole-chunk owner within a radius of chunks, without loading or generating the chunks
+     * @param world The world to check
+     * @param blockPos The center of the radius
+     * @param radius The radius of chunks
+     * @return The owners within the radius, completed on the server thread once any chunks that had to be read from the disk are read.
+     *         Completes exceptionally if a chunk could not be read, instead of treating it as unowned.
+     */
+    public static @NotNull CompletableFuture<Set<UUID>> getOwnersAround(@NotNull World world, @NotNull BlockPos blockPos, int radius) {
+        int chunkX = blockPos.getX() >> 4;
+        int chunkZ = blockPos.getZ() >> 4;
+        
+        // Read any chunks that aren't loaded or in the index
+        List<CompletableFuture<Void>> peeks = new ArrayList<>();
+        if (world instanceof ServerWorld serverWorld && ClaimChunkUtils.getClaimCache(world) instanceof ServerClaimCache claimCache) {
+            ChunkOwnerIndex index = claimCache.getChunkOwners();
+            for (int x = chunkX - radius; x <= chunkX + radius; x++) {
+                for (int z = chunkZ - radius; z <= chunkZ + radius; z++) {
+                    if (world.getChunk(x, z, ChunkStatus.FULL, false) == null && !index.isKnown(world.getRegistryKey(), ChunkPos.toLong(x, z)))
+                        peeks.add(ClaimChunkUtils.peekChunk(serverWorld, index, new ChunkPos(x, z)));
+                }
+            }
+        }
+        
+        Supplier<Set<UUID>> collect = () -> {
+            Set<UUID> owners = new HashSet<>();
+            for (int x = chunkX - radius; x <= chunkX + radius; x++) {
+                for (int z = chunkZ - radius; z <= chunkZ + radius; z++) {
+                    UUID owner = ClaimChunkUtils.getChunkOwner(world, x, z);
+                    if (owner != null)
+                        owners.add(owner);
+                }
+            }
+            return owners;
+        };
+        
+        if (peeks.isEmpty())
+            return CompletableFuture.completedFuture(collect.get());
+        return CompletableFuture.allOf(peeks.toArray(CompletableFuture[]::new))
+            .thenApplyAsync(nothing -> collect.get(), world.getServer());
+    }
+    
+    /**
+     * Read everything that {@link #canPlayerClaimSlices(ServerWorld, BlockRange)} needs to know about a region
+     *   without blocking the server thread. Chunks that aren't in the index are read from the disk, and chunks
+     *   that have slices are loaded.
+     * @param world The world of the region
+     * @param region The region
+     * @return A future that is completed on the server thread once the region can be checked
+     */
+    public static @NotNull CompletableFuture<Void> prepareRegion(@NotNull ServerWorld world, @NotNull BlockRange region) {
+        if (!(ClaimChunkUtils.getClaimCache(world) instanceof ServerClaimCache claimCache))
+            return CompletableFuture.completedFuture(null);
+        ChunkOwnerIndex index = claimCache.getChunkOwners();
+        BlockPos min = region.getLower();
+        BlockPos max = region.getUpper();
+        
+        List<CompletableFuture<Void>> reads = new ArrayList<>();
+        for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+            for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                ChunkPos chunkPos = new ChunkPos(chunkX, chunkZ);
+                if (world.getChunk(chunkX, chunkZ, ChunkStatus.FULL, false) != null)
+                    continue;
+                
+                Boolean sliced = index.hasSlices(world.getRegistryKey(), chunkPos.toLong());
+                if (sliced == Boolean.FALSE)
+                    continue;
+                
+                CompletableFuture<Void> read = sliced == null ? ClaimChunkUtils.peekChunk(world, index, chunkPos) : CompletableFuture.completedFuture(null);
+                reads.add(read.thenComposeAsync(nothing -> {
+                    // Only chunks with slices have to be loaded to be checked
+                    if (index.hasSlices(world.getRegistryKey(), chunkPos.toLong()) != Boolean.TRUE)
+                        return CompletableFuture.completedFuture(null);
+                    return world.getChunkManager()
+                        .getChunkFutureSyncOnMainThread(chunkPos.x, chunkPos.z, ChunkStatus.FULL, true)
+                        .thenAccept(either -> {});
+                }, world.getServer()));
+            }
+        }
+        
+        if (reads.isEmpty())
+            return CompletableFuture.completedFuture(null);
+        return CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new));
+    }
+    
+    /**
+     * Read the owners of a chunk straight from the saved chunk data into the index. Chunks that were never generated are unowned.
+     * @param world The world of the chunk
+     * @param index The index to save the owners into
+     * @param chunkPos The position of the chunk
+     * @return A future that is completed on the IO thread once the chunk has been read, or exceptionally if it couldn't be read
+     */
+    private static @NotNull CompletableFuture<Void> peekChunk(@NotNull ServerWorld world, @NotNull ChunkOwnerIndex index, @NotNull ChunkPos chunkPos) {
+        return index.read(world.getRegistryKey(), chunkPos.toLong(), () -> {
+            // Anything that updates the chunk after this is newer than what is read from the disk
+            int epoch = index.getEpoch();
+            
+            return world.getChunkManager().threadedAnvilChunkStorage.getNbt(chunkPos)
+                .thenAccept(optional -> {
+                    NbtCompound tag = optional.orElse(null);
+                    UUID owner = null;
+                    UUID town = null;
+                    boolean sliced = false;
+                    if (tag != null) {
+                        owner = NbtUtils.hasUUID(tag, ClaimChunkUtils.NBT_OWNER) ? NbtUtils.getUUID(tag, ClaimChunkUtils.NBT_OWNER) : null;
+                        town = NbtUtils.hasUUID(tag, ClaimChunkUtils.NBT_TOWN) ? NbtUtils.getUUID(tag, ClaimChunkUtils.NBT_TOWN) : null;
+                        sliced = !tag.getList(ClaimChunkUtils.NBT_SLICES, NbtElement.COMPOUND_TYPE).isEmpty();
+                    }
+                    
+                    index.observe(world.getRegistryKey(), chunkPos.toLong(), owner, town, sliced, epoch);
+                })
+                .whenComplete((nothing, throwable) -> {
+                    // The chunk stays unknown, so anything waiting on it has to refuse
+                    if (throwable != null)
+                        CoreMod.logError("Failed to read the owners of chunk " + chunkPos + " in '" + DimensionUtils.dimensionIdentifier(world) + "'", throwable);
+                });
+        });
+    }
+    
+    private static @NotNull ClaimCache getClaimCache(@NotNull World world) {
+        return world.isClient() ? ((ClaimsAccessor) world).getClaimManager()
+            : ((ClaimsAccessor) world.getServer()).getClaimManager();
     }
     
     public static boolean isSetting(@NotNull ClaimSettings setting, @NotNull WorldView world, @NotNull BlockPos blockPos) {
@@ -309,20 +520,41 @@ public final class ClaimChunkUtils {
         }
     }
     
+    /**
+     * Check that none of the blocks in a region are claimed by slices, without loading chunks or reading them from the disk
+     * @param world The world of the region
+     * @param region The region
+     * @return If the region can be claimed. Chunks that haven't been read yet are refused, use {@link #prepareRegion(ServerWorld, BlockRange)} first
+     */
     public static boolean canPlayerClaimSlices(@NotNull ServerWorld world, @NotNull BlockRange region) {
         // Get range of values
         BlockPos min = region.getLower();
         BlockPos max = region.getUpper();
         
-        // Iterate through the blocks
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int z = min.getZ(); z <= max.getZ(); z++) {
-                BlockPos sliceLoc = new BlockPos(x, 0, z);
-                int slicePos = ChunkUtils.getPositionWithinChunk(sliceLoc);
-                
-                WorldChunk chunk = world.getWorldChunk( sliceLoc );
-                if (((IClaimedChunk) chunk).getSliceOwner(slicePos, min.getY(), max.getY()).length > 0)
+        ChunkOwnerIndex index = ClaimChunkUtils.getClaimCache(world) instanceof ServerClaimCache claimCache ? claimCache.getChunkOwners() : null;
+        
+        // Iterate through the chunks, only chunks with slices need to be checked
+        for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+            for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                if (!(world.getChunk(chunkX, chunkZ, ChunkStatus.FULL, false) instanceof IClaimedChunk chunk)) {
+                    if (index != null && index.hasSlices(world.getRegistryKey(), ChunkPos.toLong(chunkX, chunkZ)) == Boolean.FALSE)
+                        continue;
+                    
+                    // Refuse until the region has been read, and start reading it so that checking again can succeed
+                    ClaimChunkUtils.prepareRegion(world, region);
                     return false;
+                }
+                if (!chunk.hasSlices())
+                    continue;
+                
+                // Iterate through the blocks within the chunk
+                for (int x = Math.max(min.getX(), chunkX << 4); x <= Math.min(max.getX(), (chunkX << 4) + 15); x++) {
+                    for (int z = Math.max(min.getZ(), chunkZ << 4); z <= Math.min(max.getZ(), (chunkZ << 4) + 15); z++) {
+                        int slicePos = ChunkUtils.getPositionWithinChunk(new BlockPos(x, 0, z));
+                        if (chunk.getSliceOwner(slicePos, min.getY(), max.getY()).length > 0)
+                            return false;
+                    }
+                }
             }
         }
         
@@ -359,7 +591,11 @@ public final class ClaimChunkUtils {
      * Chunk claim classes
      */
     public static final class ClaimSlice {
-        private final NavigableMap<Integer, InnerClaim> innerChunks = Collections.synchronizedNavigableMap(new TreeMap<>());
+        private static final Heights EMPTY = new Heights(new int[0], new InnerClaim[0]);
+        
+        // Only used by writers (Guarded by 'this'), readers use the flattened 'heights' snapshot
+        private final NavigableMap<Integer, InnerClaim> innerChunks = new TreeMap<>();
+        private volatile Heights heights = ClaimSlice.EMPTY;
         private final ClaimCache claims;
         private final HeightLimitView view;
         private final int chunkPos;
@@ -379,37 +615,88 @@ public final class ClaimChunkUtils {
         public boolean hasLowerNeighbor(@NotNull InnerClaim claim) {
             return this.has(claim.lower() - 1);
         }
+        public boolean isEmpty() {
+            return this.heights.claims.length == 0;
+        }
 
-        public void set(@NotNull InnerClaim claim) {
+        public synchronized void set(@NotNull InnerClaim claim) {
             this.innerChunks.put(claim.lower(), claim);
+            this.flatten();
         }
-        public void setAll(@NotNull Collection<InnerClaim> claims) {
+        public synchronized void setAll(@NotNull Collection<InnerClaim> claims) {
             for (InnerClaim claim : claims)
-                this.set(claim);
+                this.innerChunks.put(claim.lower(), claim);
+            this.flatten();
         }
 
         public InnerClaim remove(@NotNull InnerClaim claim) {
             return this.remove(claim.lower());
         }
-        public InnerClaim remove(int y) {
-            return this.innerChunks.remove(y);
+        public synchronized InnerClaim remove(int y) {
+            InnerClaim claim = this.innerChunks.remove(y);
+            if (claim != null)
+                this.flatten();
+            return claim;
         }
 
         public @Nullable InnerClaim get(int y) {
-            Map.Entry<Integer, InnerClaim> pair = this.innerChunks.floorEntry(y);
-            if (pair == null)
+            Heights heights = this.heights;
+            int[] bounds = heights.bounds;
+            
+            // Binary search for the last claim with a lower bound at or below Y
+            int low = 0;
+            int high = heights.claims.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (bounds[mid << 1] <= y)
+                    low = mid + 1;
+                else
+                    high = mid - 1;
+            }
+            
+            // 'high' is now the floor entry (Or -1 if all claims are above Y)
+            if (high < 0 || y > bounds[(high << 1) + 1])
                 return null;
-            InnerClaim claim = pair.getValue();
-            return claim.isWithin(y) ? claim : null;
+            return heights.claims[high];
         }
         public @Nullable InnerClaim get(@NotNull BlockPos blockPos) {
             return this.get(blockPos.getY());
         }
+        
+        /**
+         * Get the Y range around a level that resolves to the same claim, either the claim at Y or the gap between claims
+         * @param y The Y level
+         * @return The lower and upper bound (Inclusive)
+         */
+        public int @NotNull [] getBand(int y) {
+            Heights heights = this.heights;
+            int[] bounds = heights.bounds;
+            
+            int low = 0;
+            int high = heights.claims.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (bounds[mid << 1] <= y)
+                    low = mid + 1;
+                else
+                    high = mid - 1;
+            }
+            
+            // Inside of a claim
+            if (high >= 0 && y <= bounds[(high << 1) + 1])
+                return new int[] { bounds[high << 1], bounds[(high << 1) + 1] };
+            
+            // Between the claim below and the claim above
+            return new int[] {
+                high < 0 ? Integer.MIN_VALUE : bounds[(high << 1) + 1] + 1,
+                high + 1 < heights.claims.length ? bounds[(high + 1) << 1] - 1 : Integer.MAX_VALUE
+            };
+        }
 
         public void insert(@Nullable UUID owner, int upper, int lower) {
             this.displace(new InnerClaim(owner, upper, lower));
         }
-        public void displace(@NotNull InnerClaim newClaim) {
+        public synchronized void displace(@NotNull InnerClaim newClaim) {
             List<InnerClaim> updates = new ArrayList<>();
             Iterator<InnerClaim> intersects = this.innerChunks.subMap(newClaim.lower(), true, newClaim.upper(), true)
                 .values()
@@ -428,29 +715,56 @@ public final class ClaimChunkUtils {
             }
 
             // Add updated regions into the heightmap
-            this.setAll(updates);
+            for (InnerClaim claim : updates)
+                this.innerChunks.put(claim.lower(), claim);
 
             // Don't save unclaimed regions into the heightmap
             if (newClaim.getOwnerId() != null)
-                this.set(newClaim);
-        }
+                this.innerChunks.put(newClaim.lower(), newClaim);
 
-        public void reset() {
-            Iterator<Map.Entry<Integer, InnerClaim>> it = this.innerChunks.entrySet().iterator();
-            while ( it.hasNext() ) {
-                Map.Entry<Integer, InnerClaim> entry = it.next();
-                InnerClaim claim = entry.getValue();
+            this.flatten();
+        }
 
-                // Remove all that are not SPAWN
-                if (!CoreMod.SPAWN_ID.equals( claim.getOwnerId() ))
-                    it.remove();
-            }
+        public synchronized void reset() {
+            // Remove all that are not SPAWN
+            if (this.innerChunks.values().removeIf(claim -> !CoreMod.SPAWN_ID.equals(claim.getOwnerId())))
+                this.flatten();
         }
 
         public Iterator<InnerClaim> getClaims() {
-            return this.innerChunks.values().iterator();
+            return Arrays.asList(this.heights.claims).iterator();
         }
 
+        /**
+         * Rebuild the lock-free read snapshot from the writers map, must be called while holding the lock
+         */
+        private void flatten() {
+            int size = this.innerChunks.size();
+            if (size == 0) {
+                this.heights = ClaimSlice.EMPTY;
+                return;
+            }
+            
+            int[] bounds = new int[size << 1];
+            InnerClaim[] claims = new InnerClaim[size];
+            
+            int i = 0;
+            for (InnerClaim claim : this.innerChunks.values()) {
+                bounds[i << 1] = claim.lower();
+                bounds[(i << 1) + 1] = claim.upper();
+                claims[i++] = claim;
+            }
+            
+            this.heights = new Heights(bounds, claims);
+        }
+
+        /**
+         * An immutable snapshot of the inner claims, sorted by their lower bound
+         * @param bounds Pairs of [lower, upper] for each claim at the same index in {@code claims}
+         * @param claims The claims
+         */
+        private record Heights(int[] bounds, InnerClaim[] claims) {}
+
         public final class InnerClaim implements Claim {
             private final @Nullable ClaimantPlayer owner;
             private final int yUpper;
@@ -494,12 +808,8 @@ public final class ClaimChunkUtils {
                     return true;
                 assert this.owner != null;
 
-                // Get the ranks of the user and the rank required for performing
-                ClaimRanks userRank = this.owner.getFriendRank(player);
-                ClaimRanks permReq = this.owner.getPermissionRankRequirement(perm);
-
-                // Return the test if the user can perform the action (If friend of chunk owner OR if friend of town and chunk owned by town owner)
-                return permReq.canPerform(userRank);
+                // Return the test if the user can perform the action
+                return this.owner.isAllowed(player, perm);
             }
 
             @Override
@@ -26,17 +26,22 @@
 package net.theelm.sewingmachine.protection.utilities;
 
 import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.text.Text;
 import net.theelm.sewingmachine.base.CoreMod;
-import net.theelm.sewingmachine.exceptions.NbtNotFoundException;
 import net.theelm.sewingmachine.protection.claims.Claimant;
+import net.theelm.sewingmachine.config.SewConfig;
+import net.theelm.sewingmachine.protection.config.SewProtectionConfig;
+import net.theelm.sewingmachine.protection.interfaces.ClaimStorage;
+import net.theelm.sewingmachine.protection.objects.ClaimantIndex;
+import net.theelm.sewingmachine.protection.objects.FileClaimStorage;
+import net.theelm.sewingmachine.protection.objects.RegionClaimStorage;
 import net.theelm.sewingmachine.utilities.nbt.NbtUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.util.UUID;
 
 /**
@@ -49,65 +54,16 @@ public final class ClaimNbtUtils {
     /*
      * Claims
      */
-    public static @NotNull NbtCompound readClaimData(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
-        File file = Paths.get(
-            NbtUtils.levelNameFolder().toAbsolutePath().toString(),
-            "sewing-machine",
-            type.name().toLowerCase() + "_" + uuid.toString() + ".dat"
-        ).toFile();
-        
-        if (!file.exists())
-            return ClaimNbtUtils.emptyTag(type, uuid);
-        
-        try (FileInputStream stream = new FileInputStream( file )) {
-            return NbtIo.readCompressed(stream);
-            
-        } catch (IOException e) {
-            CoreMod.logError( "Error reading " + type.name() + " " + uuid );
-            CoreMod.logError( e );
-        }
-        
-        return ClaimNbtUtils.emptyTag(type, uuid);
-    }
-    public static boolean writeClaimData(@NotNull Claimant claimant) {
-        File folder = new File(
-            NbtUtils.levelNameFolder().toFile(),
-            "sewing-machine"
-        );
-        
-        // If the directories don't exist
-        if ((!folder.exists()) && (!folder.mkdirs()))
-            return false;
-        
-        File file = new File(
-            folder,
-            claimant.getType().name().toLowerCase() + "_" + claimant.getId().toString() + ".dat"
-        );
-        
+    public static @NotNull NbtCompound snapshotClaimData(@NotNull Claimant claimant) {
         // Create an empty tag
         NbtCompound write = ClaimNbtUtils.emptyTag(claimant.getType(), claimant.getId());
         
         // Write the save data
         claimant.writeCustomDataToTag(write);
         
-        // Don't write an empty file
-        return write.isEmpty() || NbtUtils.writeBackupAndMove(file, write);
-    }
-    
-    public static void assertExists(Claimant.ClaimantType type, UUID uuid) throws NbtNotFoundException {
-        if (!ClaimNbtUtils.exists(type, uuid))
-            throw new NbtNotFoundException( uuid );
-    }
-    public static boolean exists(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid) {
-        File file = Paths.get(
-            NbtUtils.levelNameFolder().toAbsolutePath().toString(),
-            "sewing-machine",
-            type.name().toLowerCase() + "_" + uuid.toString() + ".dat"
-        ).toFile();
-
-        return file.exists();
+        return write;
     }
-    private static @NotNull NbtCompound emptyTag(@NotNull Claimant.ClaimantType type, UUID uuid) {
+    public static @NotNull NbtCompound emptyTag(@NotNull Claimant.ClaimantType type, UUID uuid) {
         NbtCompound tag = new NbtCompound();
         tag.putString("type", type.name());
         tag.putUuid("iden", uuid);
@@ -115,18 +71,84 @@ public final class ClaimNbtUtils {
     }
     
     /*
-     * File Erasure
+     * Storage
+     */
+    
+    /**
+     * Open the storage for Claimants, moving any claimant files into the segmented storage if it is enabled
+     * @return The storage to read and write Claimants with
+     */
+    public static @NotNull ClaimStorage openStorage() {
+        File folder = new File(
+            NbtUtils.levelNameFolder().toFile(),
+            "sewing-machine"
+        );
+        FileClaimStorage files = new FileClaimStorage(folder);
+        if (!SewConfig.get(SewProtectionConfig.CLAIM_STORAGE_SEGMENTED))
+            return files;
+        
+        try {
+            RegionClaimStorage region = new RegionClaimStorage(new File(folder, "claims"));
+            ClaimNbtUtils.migrate(files, region);
+            return region;
+        } catch (IOException e) {
+            CoreMod.logError("Could not open segmented claim storage, falling back to claim files");
+            CoreMod.logError(e);
+        }
+        
+        return files;
+    }
+    
+    /**
+     * Copy every claimant file into another storage. The files are moved into a "migrated" folder afterwards so
+     *   that they are only copied once, and remain as a backup.
+     * @param from The claimant files
+     * @param to The storage to copy into
+     */
+    public static void migrate(@NotNull FileClaimStorage from, @NotNull ClaimStorage to) {
+        File backup = new File(from.getFolder(), "migrated");
+        int[] migrated = { 0, 0 };
+        
+        from.forEach((type, uuid) -> {
+            NbtCompound tag = from.read(type, uuid);
+            if (tag == null || !to.write(type, uuid, tag)) {
+                migrated[1]++;
+                return;
+            }
+            
+            // Move the file out of the way once it has been copied
+            File file = from.getFile(type, uuid);
+            if ((backup.exists() || backup.mkdirs()) && !file.renameTo(new File(backup, file.getName())))
+                CoreMod.logError("Could not move migrated claim file " + file.getName());
+            migrated[0]++;
+        });
+        
+        if (migrated[0] > 0 || migrated[1] > 0)
+            CoreMod.logInfo("Migrated " + migrated[0] + " claim files into segmented storage" + (migrated[1] > 0 ? ", " + migrated[1] + " failed" : "") + ".");
+    }
+    
+    /*
+     * Indexing
      */
     
-    public static boolean delete(@NotNull Claimant claimant) {
-        File file = Paths.get(
-            NbtUtils.levelNameFolder().toAbsolutePath().toString(),
-            "sewing-machine",
-            claimant.getType().name().toLowerCase() + "_" + claimant.getId().toString() + ".dat"
-        ).toFile();
+    /**
+     * Scan the claim storage once to build an index of which claimants have saved data
+     * @param storage The storage containing the claimants
+     * @return The index of all claimants
+     */
+    public static @NotNull ClaimantIndex buildIndex(@NotNull ClaimStorage storage) {
+        ClaimantIndex index = new ClaimantIndex();
         
-        if (file.exists())
-            return file.delete();
-        return false;
+        // Towns are few, so read their names up front for name lookups
+        storage.forEach((type, uuid) -> index.add(type, uuid, type == Claimant.ClaimantType.TOWN ? ClaimNbtUtils.readTownName(storage.read(type, uuid)) : null));
+        
+        CoreMod.logInfo("Indexed " + index.size(Claimant.ClaimantType.PLAYER) + " player claims and " + index.size(Claimant.ClaimantType.TOWN) + " town claims.");
+        return index;
+    }
+    private static @Nullable String readTownName(@Nullable NbtCompound tag) {
+        if (tag == null || !tag.contains("name", NbtElement.STRING_TYPE))
+            return null;
+        Text name = Text.Serializer.fromJson(tag.getString("name"));
+        return name == null ? null : name.getString();
     }
 }
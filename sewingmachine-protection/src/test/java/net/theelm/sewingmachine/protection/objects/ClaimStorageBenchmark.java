@@ -0,0 +1,154 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.theelm.sewingmachine.protection.objects;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIntArray;
+import net.minecraft.nbt.NbtList;
+import net.theelm.sewingmachine.protection.claims.Claimant;
+import net.theelm.sewingmachine.protection.interfaces.ClaimStorage;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares a cold load of the claim file per Claimant against the segmented {@link RegionClaimStorage}. A cold load
+ *   is what happens when the server starts: the storage is opened and every Claimant is read once, to build the
+ *   {@link ClaimantIndex} and the {@link ChunkOwnerIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClaimStorageBenchmark {
+    @Param({ "files", "segments" })
+    public String storage;
+    
+    @Param({ "50000" })
+    public int claimants;
+    
+    private File folder;
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        
+        this.folder = Files.createTempDirectory("claims").toFile();
+        ClaimStorage storage = this.open();
+        for (int i = 0; i < this.claimants; i++) {
+            UUID uuid = UUID.randomUUID();
+            storage.write(Claimant.ClaimantType.PLAYER, uuid, ClaimStorageBenchmark.tag(uuid, i));
+        }
+        storage.close();
+    }
+    
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.folder.toPath())) {
+            paths.sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+    }
+    
+    @Benchmark
+    public int load() throws IOException {
+        ClaimStorage storage = this.open();
+        int[] chunks = { 0 };
+        storage.forEach((type, uuid) -> {
+            NbtCompound tag = storage.read(type, uuid);
+            if (tag != null)
+                chunks[0] += tag.getList("landChunks", NbtElement.INT_ARRAY_TYPE).size();
+        });
+        storage.close();
+        return chunks[0];
+    }
+    
+    private @NotNull ClaimStorage open() throws IOException {
+        return this.storage.equals("files") ? new FileClaimStorage(this.folder) : new RegionClaimStorage(new File(this.folder, "claims"));
+    }
+    
+    /**
+     * @param uuid The ID of the Claimant
+     * @param seed Where the claimed chunks of the Claimant start
+     * @return A Claimant with a few claimed chunks and a friend, about the size of an average player
+     */
+    private static @NotNull NbtCompound tag(@NotNull UUID uuid, int seed) {
+        NbtCompound tag = new NbtCompound();
+        tag.putString("type", Claimant.ClaimantType.PLAYER.name());
+        tag.putUuid("iden", uuid);
+        
+        NbtList chunks = new NbtList();
+        for (int i = 0; i < 8; i++)
+            chunks.add(new NbtIntArray(new int[] { seed, i }));
+        tag.put("landChunks", chunks);
+        
+        NbtList friends = new NbtList();
+        NbtCompound friend = new NbtCompound();
+        friend.putUuid("i", UUID.randomUUID());
+        friend.putString("r", "ALLY");
+        friends.add(friend);
+        tag.put("players", friends);
+        
+        return tag;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ClaimStorageBenchmark.class.getSimpleName())
+            .build()
+        ).run();
+    }
+}
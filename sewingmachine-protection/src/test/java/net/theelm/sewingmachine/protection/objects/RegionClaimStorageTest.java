@@ -0,0 +1,169 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.theelm.sewingmachine.protection.objects;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.NbtCompound;
+import net.theelm.sewingmachine.protection.claims.Claimant;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RegionClaimStorageTest {
+    @TempDir
+    File folder;
+    
+    @BeforeAll
+    public static void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+    
+    @Test
+    public void roundTrip() throws IOException {
+        UUID town = UUID.randomUUID();
+        UUID player = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        
+        RegionClaimStorage storage = new RegionClaimStorage(this.folder);
+        assertTrue(storage.write(Claimant.ClaimantType.TOWN, town, RegionClaimStorageTest.tag("Town", 1)));
+        assertTrue(storage.write(Claimant.ClaimantType.PLAYER, player, RegionClaimStorageTest.tag("Player", 1)));
+        assertTrue(storage.write(Claimant.ClaimantType.PLAYER, player, RegionClaimStorageTest.tag("Player", 2)));
+        assertTrue(storage.write(Claimant.ClaimantType.PLAYER, deleted, RegionClaimStorageTest.tag("Deleted", 1)));
+        assertTrue(storage.delete(Claimant.ClaimantType.PLAYER, deleted));
+        storage.close();
+        
+        // Everything should be read back the same after reopening the segments
+        storage = new RegionClaimStorage(this.folder);
+        assertEquals(RegionClaimStorageTest.tag("Town", 1), storage.read(Claimant.ClaimantType.TOWN, town));
+        assertEquals(RegionClaimStorageTest.tag("Player", 2), storage.read(Claimant.ClaimantType.PLAYER, player));
+        assertFalse(storage.exists(Claimant.ClaimantType.PLAYER, deleted));
+        assertNull(storage.read(Claimant.ClaimantType.PLAYER, deleted));
+        
+        // The same ID with a different type is a different Claimant
+        assertNull(storage.read(Claimant.ClaimantType.PLAYER, town));
+        storage.close();
+    }
+    
+    @Test
+    public void truncatesIncompleteRecords() throws IOException {
+        UUID player = UUID.randomUUID();
+        
+        RegionClaimStorage storage = new RegionClaimStorage(this.folder);
+        assertTrue(storage.write(Claimant.ClaimantType.PLAYER, player, RegionClaimStorageTest.tag("Player", 1)));
+        storage.close();
+        
+        File segment = RegionClaimStorageTest.getSegment(this.folder);
+        long length = segment.length();
+        
+        // Simulate the server stopping partway through writing a header
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(length);
+            file.writeByte(Claimant.ClaimantType.PLAYER.ordinal());
+            file.writeLong(UUID.randomUUID().getMostSignificantBits());
+        }
+        
+        storage = new RegionClaimStorage(this.folder);
+        assertEquals(length, segment.length());
+        assertNotNull(storage.read(Claimant.ClaimantType.PLAYER, player));
+        
+        // Simulate the server stopping partway through writing the data of a record
+        assertTrue(storage.write(Claimant.ClaimantType.PLAYER, player, RegionClaimStorageTest.tag("Player", 2)));
+        storage.close();
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        
+        // The incomplete record is dropped and the previous one is used
+        storage = new RegionClaimStorage(this.folder);
+        assertEquals(length, segment.length());
+        assertEquals(RegionClaimStorageTest.tag("Player", 1), storage.read(Claimant.ClaimantType.PLAYER, player));
+        
+        // New records are appended after the truncated data
+        assertTrue(storage.write(Claimant.ClaimantType.PLAYER, player, RegionClaimStorageTest.tag("Player", 3)));
+        storage.close();
+        
+        storage = new RegionClaimStorage(this.folder);
+        assertEquals(RegionClaimStorageTest.tag("Player", 3), storage.read(Claimant.ClaimantType.PLAYER, player));
+        storage.close();
+    }
+    
+    @Test
+    public void refusesBadRecordsInOlderSegments() throws IOException {
+        UUID player = UUID.randomUUID();
+        
+        RegionClaimStorage storage = new RegionClaimStorage(this.folder);
+        assertTrue(storage.write(Claimant.ClaimantType.PLAYER, player, RegionClaimStorageTest.tag("Player", 1)));
+        storage.close();
+        
+        // A newer segment after the first one
+        File segment = RegionClaimStorageTest.getSegment(this.folder);
+        File newer = new File(this.folder, "claims.00001.seg");
+        Files.copy(segment.toPath(), newer.toPath());
+        long length = segment.length();
+        
+        // A header with an unknown Claimant type in the older segment
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(length);
+            file.writeByte(Byte.MAX_VALUE);
+            file.write(new byte[64]);
+        }
+        
+        // The older segment is left alone so that it can be repaired
+        assertThrows(IllegalStateException.class, () -> new RegionClaimStorage(this.folder));
+        assertEquals(length + 65, segment.length());
+    }
+    
+    private static @NotNull NbtCompound tag(@NotNull String name, int version) {
+        NbtCompound tag = new NbtCompound();
+        tag.putString("name", name);
+        tag.putInt("version", version);
+        return tag;
+    }
+    
+    private static @NotNull File getSegment(@NotNull File folder) {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(".seg"));
+        assertNotNull(files);
+        assertEquals(1, files.length);
+        return files[0];
+    }
+}